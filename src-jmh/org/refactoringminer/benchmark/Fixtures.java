@@ -0,0 +1,77 @@
+package org.refactoringminer.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.IOUtils;
+
+import gr.uom.java.xmi.UMLModel;
+import gr.uom.java.xmi.UMLModelASTReader;
+
+/**
+ * Loads the checked-in Java sources under {@code res-jmh/fixtures}, so that the benchmarks run offline.
+ */
+public class Fixtures {
+	private static final String FIXTURES_FOLDER = "fixtures/";
+
+	public static Map<String, String> load() throws IOException {
+		Map<String, String> fileContents = new LinkedHashMap<String, String>();
+		for(String fileName : IOUtils.readLines(open("index.txt"), StandardCharsets.UTF_8)) {
+			if(!fileName.trim().isEmpty()) {
+				fileContents.put(FIXTURES_FOLDER + fileName.trim(), load(fileName.trim()));
+			}
+		}
+		return fileContents;
+	}
+
+	public static String load(String fileName) throws IOException {
+		try (InputStream in = open(fileName)) {
+			return IOUtils.toString(in, StandardCharsets.UTF_8);
+		}
+	}
+
+	private static InputStream open(String fileName) throws IOException {
+		InputStream in = Fixtures.class.getClassLoader().getResourceAsStream(FIXTURES_FOLDER + fileName);
+		if(in == null) {
+			throw new IOException("Missing benchmark fixture " + fileName);
+		}
+		return in;
+	}
+
+	public static Set<String> repositoryDirectories(Collection<String> filePaths) {
+		Set<String> repositoryDirectories = new LinkedHashSet<String>();
+		for(String path : filePaths) {
+			String directory = new String(path);
+			while(directory.contains("/")) {
+				directory = directory.substring(0, directory.lastIndexOf("/"));
+				repositoryDirectories.add(directory);
+			}
+		}
+		return repositoryDirectories;
+	}
+
+	public static UMLModel createModel(Map<String, String> fileContents) {
+		return new UMLModelASTReader(fileContents, repositoryDirectories(fileContents.keySet())).getUmlModel();
+	}
+
+	public static Map<String, String> singleFile(String fileName, String contents) {
+		Map<String, String> fileContents = new LinkedHashMap<String, String>();
+		fileContents.put(FIXTURES_FOLDER + fileName, contents);
+		return fileContents;
+	}
+
+	public static Map<String, String> toFileContents(List<String> classSources) {
+		Map<String, String> fileContents = new LinkedHashMap<String, String>();
+		for(int i=0; i<classSources.size(); i++) {
+			fileContents.put("synthetic/src/p" + (i % 10) + "/C" + i + ".java", classSources.get(i));
+		}
+		return fileContents;
+	}
+}
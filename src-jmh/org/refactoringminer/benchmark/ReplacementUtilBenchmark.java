@@ -0,0 +1,83 @@
+package org.refactoringminer.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gr.uom.java.xmi.decomposition.ReplacementUtil;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReplacementUtilBenchmark {
+	private static final String VARIABLE = "mapping";
+	private static final String REPLACEMENT = "codeMapping";
+	private List<String> statements;
+
+	@Setup
+	public void setup() throws IOException {
+		statements = StatementStrings.load(500);
+	}
+
+	@Benchmark
+	public int contains() {
+		int count = 0;
+		for(String statement : statements) {
+			if(ReplacementUtil.contains(statement, VARIABLE)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int countInstances() {
+		int count = 0;
+		for(String statement : statements) {
+			count += ReplacementUtil.countInstances(statement, VARIABLE);
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int performReplacement() {
+		int length = 0;
+		for(String statement : statements) {
+			length += ReplacementUtil.performReplacement(statement, VARIABLE, REPLACEMENT).length();
+		}
+		return length;
+	}
+
+	@Benchmark
+	public int performPairwiseReplacement() {
+		int length = 0;
+		for(String statement : statements) {
+			String renamed = statement.replace(VARIABLE, REPLACEMENT);
+			length += ReplacementUtil.performReplacement(statement, renamed, VARIABLE, REPLACEMENT).length();
+		}
+		return length;
+	}
+
+	@Benchmark
+	public int keepReservedTokens() {
+		int length = 0;
+		for(String statement : statements) {
+			length += ReplacementUtil.keepReservedTokens(statement).length();
+		}
+		return length;
+	}
+}
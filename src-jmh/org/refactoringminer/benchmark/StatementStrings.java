@@ -0,0 +1,34 @@
+package org.refactoringminer.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import gr.uom.java.xmi.UMLClass;
+import gr.uom.java.xmi.UMLModel;
+import gr.uom.java.xmi.UMLOperation;
+import gr.uom.java.xmi.decomposition.StatementObject;
+
+/**
+ * Statement strings collected from the fixtures, as the body mapper sees them.
+ */
+public class StatementStrings {
+
+	public static List<String> load(int limit) throws IOException {
+		UMLModel model = Fixtures.createModel(Fixtures.load());
+		List<String> statements = new ArrayList<String>();
+		for(UMLClass umlClass : model.getClassList()) {
+			for(UMLOperation operation : umlClass.getOperations()) {
+				if(operation.getBody() != null) {
+					for(StatementObject statement : operation.getBody().getCompositeStatement().getLeaves()) {
+						statements.add(statement.getString());
+						if(statements.size() == limit) {
+							return statements;
+						}
+					}
+				}
+			}
+		}
+		return statements;
+	}
+}
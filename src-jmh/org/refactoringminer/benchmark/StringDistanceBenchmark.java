@@ -0,0 +1,53 @@
+package org.refactoringminer.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gr.uom.java.xmi.diff.StringDistance;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StringDistanceBenchmark {
+	private List<String> statements;
+
+	@Setup
+	public void setup() throws IOException {
+		statements = StatementStrings.load(500);
+	}
+
+	@Benchmark
+	public int editDistance() {
+		int sum = 0;
+		for(int i=1; i<statements.size(); i++) {
+			sum += StringDistance.editDistance(statements.get(i-1), statements.get(i));
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public int editDistanceWithThreshold() {
+		int sum = 0;
+		for(int i=1; i<statements.size(); i++) {
+			String s1 = statements.get(i-1);
+			String s2 = statements.get(i);
+			sum += StringDistance.editDistance(s1, s2, Math.max(s1.length(), s2.length()) / 3);
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,79 @@
+package org.refactoringminer.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates models of arbitrary size. The {@code current} version of each class renames one method,
+ * extracts part of another method into a new method, and moves a third method to the next class.
+ */
+public class SyntheticSources {
+	private static final int METHODS = 8;
+
+	public static List<String> generate(int classes, boolean current) {
+		List<String> sources = new ArrayList<String>();
+		for(int i=0; i<classes; i++) {
+			sources.add(generateClass(i, classes, current));
+		}
+		return sources;
+	}
+
+	private static String generateClass(int index, int classes, boolean current) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("package p").append(index % 10).append(";\n\n");
+		sb.append("import java.util.ArrayList;\n");
+		sb.append("import java.util.List;\n\n");
+		sb.append("public class C").append(index).append(" {\n");
+		sb.append("\tprivate List<String> items").append(" = new ArrayList<String>();\n");
+		sb.append("\tprivate int total;\n\n");
+		for(int j=0; j<METHODS; j++) {
+			if(j == 3 && current) {
+				//moved to the next class
+				continue;
+			}
+			String name = (j == 1 && current) ? "computeRenamed" + j : "compute" + j;
+			sb.append("\tpublic int ").append(name).append("(int value, String label) {\n");
+			appendBody(sb, index, j, j == 2 && current);
+			sb.append("\t}\n\n");
+		}
+		if(current) {
+			sb.append("\tprivate int extracted2(int value, String label) {\n");
+			appendLoop(sb, index, 2);
+			sb.append("\t\treturn value;\n");
+			sb.append("\t}\n\n");
+			int previous = (index + classes - 1) % classes;
+			sb.append("\tpublic int compute3(int value, String label) {\n");
+			appendBody(sb, previous, 3, false);
+			sb.append("\t}\n\n");
+		}
+		sb.append("}\n");
+		return sb.toString();
+	}
+
+	private static void appendBody(StringBuilder sb, int index, int method, boolean extracted) {
+		sb.append("\t\tint result = value * ").append(method + 1).append(";\n");
+		sb.append("\t\tString key = label + \"-").append(index).append("-").append(method).append("\";\n");
+		if(extracted) {
+			sb.append("\t\tvalue = extracted2(value, label);\n");
+		}
+		else {
+			appendLoop(sb, index, method);
+		}
+		sb.append("\t\tif (items.contains(key)) {\n");
+		sb.append("\t\t\tresult += items.indexOf(key);\n");
+		sb.append("\t\t} else {\n");
+		sb.append("\t\t\titems.add(key);\n");
+		sb.append("\t\t\ttotal = total + result;\n");
+		sb.append("\t\t}\n");
+		sb.append("\t\treturn result + total;\n");
+	}
+
+	private static void appendLoop(StringBuilder sb, int index, int method) {
+		sb.append("\t\tfor (int i = 0; i < value; i++) {\n");
+		sb.append("\t\t\tif (i % ").append(method + 2).append(" == 0) {\n");
+		sb.append("\t\t\t\tlabel = label + i;\n");
+		sb.append("\t\t\t\tvalue = value - ").append(index % 7 + 1).append(";\n");
+		sb.append("\t\t\t}\n");
+		sb.append("\t\t}\n");
+	}
+}
@@ -0,0 +1,68 @@
+package org.refactoringminer.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gr.uom.java.xmi.UMLModel;
+import gr.uom.java.xmi.UMLModelASTReader;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UMLModelASTReaderBenchmark {
+	@Param({"true", "false"})
+	private boolean extractComments;
+	private Map<String, String> fileContents;
+	private Set<String> repositoryDirectories;
+	private Path directory;
+
+	@Setup
+	public void setup() throws IOException {
+		fileContents = Fixtures.load();
+		repositoryDirectories = Fixtures.repositoryDirectories(fileContents.keySet());
+		directory = Files.createTempDirectory("fixtures");
+		for (Map.Entry<String, String> entry : fileContents.entrySet()) {
+			Path file = directory.resolve(entry.getKey());
+			Files.createDirectories(file.getParent());
+			Files.write(file, entry.getValue().getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	@TearDown
+	public void deleteDirectory() throws IOException {
+		FileUtils.deleteDirectory(directory.toFile());
+	}
+
+	@Benchmark
+	public UMLModel parseFixtures() {
+		return new UMLModelASTReader(fileContents, repositoryDirectories, extractComments).getUmlModel();
+	}
+
+	//run with -jvmArgs -Drefactoringminer.parseThreads=1 for the serial reader
+	@Benchmark
+	public UMLModel parseFixturesDirectory() throws IOException {
+		return new UMLModelASTReader(directory.toFile(), StandardCharsets.UTF_8, extractComments).getUmlModel();
+	}
+}
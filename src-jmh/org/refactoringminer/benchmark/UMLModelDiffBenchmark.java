@@ -0,0 +1,60 @@
+package org.refactoringminer.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.refactoringminer.api.Refactoring;
+import org.refactoringminer.api.RefactoringMinerTimedOutException;
+
+import gr.uom.java.xmi.UMLModel;
+import gr.uom.java.xmi.diff.UMLModelDiff;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UMLModelDiffBenchmark {
+	@Param({"10", "50", "200"})
+	private int classes;
+	private List<String> parentSources;
+	private List<String> currentSources;
+	private UMLModel parentUMLModel;
+	private UMLModel currentUMLModel;
+
+	@Setup(Level.Trial)
+	public void generateSources() {
+		parentSources = SyntheticSources.generate(classes, false);
+		currentSources = SyntheticSources.generate(classes, true);
+	}
+
+	//the diff stores state in the compared models, so each invocation gets freshly parsed models
+	@Setup(Level.Invocation)
+	public void createModels() {
+		parentUMLModel = Fixtures.createModel(Fixtures.toFileContents(parentSources));
+		currentUMLModel = Fixtures.createModel(Fixtures.toFileContents(currentSources));
+	}
+
+	@Benchmark
+	public UMLModelDiff diff() throws RefactoringMinerTimedOutException {
+		return parentUMLModel.diff(currentUMLModel);
+	}
+
+	@Benchmark
+	public List<Refactoring> diffAndGetRefactorings() throws RefactoringMinerTimedOutException {
+		return parentUMLModel.diff(currentUMLModel).getRefactorings();
+	}
+}
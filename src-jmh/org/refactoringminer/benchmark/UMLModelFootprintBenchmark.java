@@ -0,0 +1,76 @@
+package org.refactoringminer.benchmark;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gr.uom.java.xmi.UMLModel;
+import gr.uom.java.xmi.UMLModelASTReader;
+
+/**
+ * Heap retained by a parsed model, reported in the {@code retainedBytes} secondary result.
+ * The primary result is the parse time, including the forced garbage collections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseSerialGC")
+public class UMLModelFootprintBenchmark {
+	//0 parses the fixtures, otherwise the number of synthetic classes
+	@Param({"0", "500"})
+	private int classes;
+	private Map<String, String> fileContents;
+	private Set<String> repositoryDirectories;
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint {
+		public long retainedBytes;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			retainedBytes = 0;
+		}
+	}
+
+	@Setup
+	public void setup() throws IOException {
+		fileContents = classes == 0 ? Fixtures.load() : Fixtures.toFileContents(SyntheticSources.generate(classes, false));
+		repositoryDirectories = Fixtures.repositoryDirectories(fileContents.keySet());
+	}
+
+	@Benchmark
+	public UMLModel retainedHeap(Footprint footprint) {
+		long before = usedHeapAfterGC();
+		UMLModel model = new UMLModelASTReader(fileContents, repositoryDirectories).getUmlModel();
+		footprint.retainedBytes = usedHeapAfterGC() - before;
+		return model;
+	}
+
+	private static long usedHeapAfterGC() {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		for(int i=0; i<3; i++) {
+			System.gc();
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+}
@@ -0,0 +1,68 @@
+package org.refactoringminer.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gr.uom.java.xmi.UMLModel;
+import gr.uom.java.xmi.UMLModelASTReader;
+import gr.uom.java.xmi.UMLModelSnapshot;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UMLModelSnapshotBenchmark {
+	//0 parses the fixtures, otherwise the number of synthetic classes
+	@Param({"0", "500"})
+	private int classes;
+	private Map<String, String> fileContents;
+	private Set<String> repositoryDirectories;
+	private Path snapshot;
+
+	@Setup
+	public void setup() throws IOException {
+		fileContents = classes == 0 ? Fixtures.load() : Fixtures.toFileContents(SyntheticSources.generate(classes, false));
+		repositoryDirectories = Fixtures.repositoryDirectories(fileContents.keySet());
+		snapshot = Files.createTempFile("model", UMLModelSnapshot.EXTENSION);
+		UMLModelSnapshot.write(new UMLModelASTReader(fileContents, repositoryDirectories).getUmlModel(), snapshot);
+	}
+
+	@TearDown
+	public void deleteSnapshot() throws IOException {
+		Files.deleteIfExists(snapshot);
+	}
+
+	@Benchmark
+	public UMLModel parse() {
+		return new UMLModelASTReader(fileContents, repositoryDirectories).getUmlModel();
+	}
+
+	@Benchmark
+	public UMLModel restore() throws IOException {
+		return UMLModelSnapshot.read(snapshot);
+	}
+
+	@Benchmark
+	public String key() {
+		return UMLModelSnapshot.key(fileContents, repositoryDirectories);
+	}
+}
@@ -0,0 +1,78 @@
+package org.refactoringminer.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.refactoringminer.api.RefactoringMinerTimedOutException;
+
+import gr.uom.java.xmi.UMLClass;
+import gr.uom.java.xmi.UMLModel;
+import gr.uom.java.xmi.UMLOperation;
+import gr.uom.java.xmi.decomposition.UMLOperationBodyMapper;
+import gr.uom.java.xmi.diff.UMLClassDiff;
+import gr.uom.java.xmi.diff.UMLModelDiff;
+
+/**
+ * Maps the longest method of the {@code UMLOperationBodyMapper} fixture against itself,
+ * either unchanged or with a frequently used field renamed throughout the file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UMLOperationBodyMapperBenchmark {
+	private static final String FIXTURE = "UMLOperationBodyMapper.java";
+
+	@Param({"identical", "renamed"})
+	private String variant;
+	private UMLOperation operation1;
+	private UMLOperation operation2;
+	private UMLClassDiff classDiff;
+
+	@Setup
+	public void setup() throws IOException {
+		String contents = Fixtures.load(FIXTURE);
+		String changedContents = variant.equals("renamed") ? contents.replace("mappings", "codeMappings") : contents;
+		UMLModel parentUMLModel = Fixtures.createModel(Fixtures.singleFile(FIXTURE, contents));
+		UMLModel currentUMLModel = Fixtures.createModel(Fixtures.singleFile(FIXTURE, changedContents));
+		UMLClass originalClass = parentUMLModel.getClassList().get(0);
+		UMLClass nextClass = currentUMLModel.getClassList().get(0);
+		operation1 = longestOperation(originalClass);
+		for(UMLOperation operation : nextClass.getOperations()) {
+			if(operation.equalSignature(operation1)) {
+				operation2 = operation;
+				break;
+			}
+		}
+		classDiff = new UMLClassDiff(originalClass, nextClass, new UMLModelDiff());
+	}
+
+	private static UMLOperation longestOperation(UMLClass umlClass) {
+		UMLOperation longestOperation = null;
+		for(UMLOperation operation : umlClass.getOperations()) {
+			if(operation.getBody() != null && (longestOperation == null ||
+					operation.getBody().statementCount() > longestOperation.getBody().statementCount())) {
+				longestOperation = operation;
+			}
+		}
+		return longestOperation;
+	}
+
+	@Benchmark
+	public UMLOperationBodyMapper mapLongestMethod() throws RefactoringMinerTimedOutException {
+		return new UMLOperationBodyMapper(operation1, operation2, classDiff);
+	}
+}
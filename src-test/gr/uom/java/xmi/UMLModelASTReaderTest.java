@@ -0,0 +1,56 @@
+package gr.uom.java.xmi;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class UMLModelASTReaderTest {
+
+	@Test
+	public void testDirectoryReader() throws Exception {
+		Map<String, String> fileContents = new TreeMap<String, String>();
+		fileContents.put("a/B.java", "package a; class B extends C { int f() { return 1; } }");
+		fileContents.put("a/C.java", "package a; class C implements Runnable { public void run() { System.out.println(\"é\"); } }");
+		fileContents.put("a/b/D.java", "package a.b; class D { class E {} }");
+		fileContents.put("F.java", "class F {}");
+		Path root = Files.createTempDirectory("reader");
+		try {
+			for(Map.Entry<String, String> entry : fileContents.entrySet()) {
+				Path file = root.resolve(entry.getKey());
+				Files.createDirectories(file.getParent());
+				Files.write(file, entry.getValue().getBytes(StandardCharsets.UTF_8));
+			}
+			UMLModel model = new UMLModelASTReader(root.toFile(), StandardCharsets.UTF_8, true).getUmlModel();
+			UMLModel expected = new UMLModelASTReader(fileContents, new HashSet<String>()).getUmlModel();
+			Assert.assertEquals(classNames(expected), classNames(model));
+			Assert.assertEquals(expected.getGeneralizationList().size(), model.getGeneralizationList().size());
+			Assert.assertEquals(expected.getRealizationList().size(), model.getRealizationList().size());
+			for(UMLClass umlClass : model.getClassList()) {
+				Assert.assertEquals(umlClass.getOperations(), expected.getClass(umlClass).getOperations());
+				if(umlClass.getName().equals("a.C")) {
+					Assert.assertTrue(umlClass.getOperations().get(0).getBody().stringRepresentation().toString().contains("é"));
+				}
+			}
+		}
+		finally {
+			FileUtils.deleteDirectory(root.toFile());
+		}
+	}
+
+	private static List<String> classNames(UMLModel model) {
+		List<String> names = new ArrayList<String>();
+		for(UMLClass umlClass : model.getClassList()) {
+			names.add(umlClass.getName());
+		}
+		return names;
+	}
+}
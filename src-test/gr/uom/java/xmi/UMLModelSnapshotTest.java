@@ -0,0 +1,101 @@
+package gr.uom.java.xmi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import gr.uom.java.xmi.diff.UMLModelDiff;
+
+public class UMLModelSnapshotTest {
+	private static final Map<String, String> FILE_CONTENTS = Collections.singletonMap("p/A.java",
+			"package p; import java.util.*; class A<T> {"
+			+ " private List<Map<String, T>> items = new ArrayList<>();"
+			+ " int count(String s) { int n = s.length(); for(T t : get()) { n += t.hashCode(); } return n; }"
+			+ " List<T> get() { Runnable r = new Runnable() { public void run() { System.out.println(items); } }; r.run(); return Collections.emptyList(); }"
+			+ "}");
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		UMLModel model = new UMLModelASTReader(FILE_CONTENTS, new HashSet<String>()).getUmlModel();
+		Path snapshot = Files.createTempFile("model", UMLModelSnapshot.EXTENSION);
+		try {
+			UMLModelSnapshot.write(model, snapshot);
+			UMLModel restored = UMLModelSnapshot.read(snapshot);
+			UMLClass umlClass = model.getClassList().get(0);
+			UMLClass restoredClass = restored.getClassList().get(0);
+			Assert.assertEquals(umlClass, restoredClass);
+			Assert.assertEquals(umlClass.getOperations(), restoredClass.getOperations());
+			Assert.assertEquals(umlClass.getOperations().get(0).getBody().stringRepresentation(),
+					restoredClass.getOperations().get(0).getBody().stringRepresentation());
+			Assert.assertEquals(umlClass.getLocationInfo().getFilePath(), restoredClass.getLocationInfo().getFilePath());
+			UMLModelDiff diff = model.diff(restored);
+			Assert.assertTrue(diff.getRefactorings().isEmpty());
+		}
+		finally {
+			Files.deleteIfExists(snapshot);
+		}
+	}
+
+	@Test
+	public void testKey() {
+		String key = UMLModelSnapshot.key(FILE_CONTENTS, new HashSet<String>());
+		Assert.assertEquals(64, key.length());
+		Assert.assertEquals(key, UMLModelSnapshot.key(FILE_CONTENTS, new HashSet<String>()));
+		Assert.assertFalse(key.equals(UMLModelSnapshot.key(Collections.singletonMap("p/A.java", "package p; class A {}"), new HashSet<String>())));
+		Assert.assertFalse(key.equals(UMLModelSnapshot.key(FILE_CONTENTS, Collections.singleton("p"))));
+		Assert.assertEquals(key, UMLModelSnapshot.key(FILE_CONTENTS, new HashSet<String>(), true));
+		Assert.assertFalse(key.equals(UMLModelSnapshot.key(FILE_CONTENTS, new HashSet<String>(), false)));
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidSnapshot() throws Exception {
+		Path snapshot = Files.createTempFile("model", UMLModelSnapshot.EXTENSION);
+		try {
+			Files.write(snapshot, new byte[] {0, 1, 2, 3, 4, 5, 6, 7});
+			UMLModelSnapshot.read(snapshot);
+		}
+		finally {
+			Files.deleteIfExists(snapshot);
+		}
+	}
+
+	@Test(expected = InvalidClassException.class)
+	public void testClassNotAllowed() throws Exception {
+		readReplaced(new File("A.java"));
+	}
+
+	@Test(expected = InvalidClassException.class)
+	public void testJdkClassOutsideCollectionsNotAllowed() throws Exception {
+		readReplaced(new Date());
+	}
+
+	private static void readReplaced(Object object) throws Exception {
+		Path snapshot = Files.createTempFile("model", UMLModelSnapshot.EXTENSION);
+		try {
+			UMLModelSnapshot.write(new UMLModel(new HashSet<String>()), snapshot);
+			byte[] header = Arrays.copyOf(Files.readAllBytes(snapshot), 2 * Integer.BYTES);
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			bytes.write(header);
+			try(ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+				out.writeObject(object);
+			}
+			Files.write(snapshot, bytes.toByteArray());
+			UMLModelSnapshot.read(snapshot);
+		}
+		finally {
+			Files.deleteIfExists(snapshot);
+		}
+	}
+}
@@ -0,0 +1,173 @@
+package gr.uom.java.xmi;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class UMLTypeTest {
+	private static final String[] TYPES = {
+			"int",
+			"String",
+			"String[]",
+			"int[][]",
+			"List<String>",
+			"Map<String,Integer>",
+			"Map<String, Integer>",
+			"Map<String,List<Integer>>",
+			"Map<List<String>,Map<Integer,Set<Long>>>",
+			"List<String>[]",
+			"Map<String,int[]>[][]",
+			"List<int[][]>",
+			"Class<?>",
+			"List<? extends Number>",
+			"Map<? super K,? extends List<V>>",
+			"Comparator<? super T>",
+			"Outer.Inner",
+			"java.util.Map.Entry",
+			"java.util.Map.Entry<K,V>",
+			"Outer<String>.Inner<Integer>",
+			"String...",
+			"List<String>...",
+			"T",
+			"A>B<C"
+	};
+
+	@Test
+	public void testParserMatchesPreviousParser() {
+		for(String type : TYPES) {
+			Assert.assertEquals(type, parseWithPreviousParser(type), describe(UMLType.extractTypeObject(type)));
+		}
+	}
+
+	@Test
+	public void testCachedTypeIsShared() {
+		LeafType type = UMLType.extractTypeObject("Map<String,List<Integer>>");
+		Assert.assertSame(type, UMLType.extractTypeObject("Map<String,List<Integer>>"));
+	}
+
+	@Test
+	public void testRecentlyUsedTypeSurvivesFullCache() {
+		LeafType type = UMLType.extractTypeObject("Map<String,Set<Long>>");
+		for(int i=0; i<20000; i++) {
+			UMLType.extractTypeObject("Generated" + i);
+			Assert.assertSame(type, UMLType.extractTypeObject("Map<String,Set<Long>>"));
+		}
+	}
+
+	@Test
+	public void testCachedTypeRejectsMutation() {
+		LeafType type = UMLType.extractTypeObject("Map<String,List<Integer>>[]");
+		UMLType typeArgument = type.getTypeArguments().get(1);
+		assertRejected(() -> type.setVarargs());
+		assertRejected(() -> typeArgument.setVarargs());
+		assertRejected(() -> type.getTypeArguments().add(new LeafType("Long")));
+		assertRejected(() -> typeArgument.getTypeArguments().clear());
+		assertRejected(() -> type.getAnnotations().clear());
+		LeafType leaf = UMLType.extractTypeObject("String");
+		assertRejected(() -> leaf.getTypeArguments().add(new LeafType("Long")));
+		Assert.assertEquals("Map<String,List<Integer>>[]", describe(UMLType.extractTypeObject("Map<String,List<Integer>>[]")));
+	}
+
+	@Test
+	public void testCopyIsModifiable() {
+		LeafType type = UMLType.extractTypeObject("List<String>");
+		LeafType copy = type.copy();
+		copy.setVarargs();
+		copy.getTypeArguments().add(new LeafType("Integer"));
+		Assert.assertEquals("List<String,Integer>[]", describe(copy));
+		Assert.assertEquals("List<String>", describe(type));
+		Assert.assertEquals("List<String>", describe(UMLType.extractTypeObject("List<String>")));
+	}
+
+	private static void assertRejected(Runnable mutation) {
+		try {
+			mutation.run();
+			Assert.fail("A shared type was modified");
+		}
+		catch(UnsupportedOperationException e) {
+			//expected
+		}
+	}
+
+	private static String describe(UMLType type) {
+		List<String> typeArguments = new ArrayList<String>();
+		for(UMLType typeArgument : type.getTypeArguments()) {
+			typeArguments.add(describe(typeArgument));
+		}
+		return describe(type.getClassType(), typeArguments, type.getArrayDimension());
+	}
+
+	private static String describe(String name, List<String> typeArguments, int arrayDimension) {
+		StringBuilder sb = new StringBuilder(name);
+		if(!typeArguments.isEmpty()) {
+			sb.append("<").append(String.join(",", typeArguments)).append(">");
+		}
+		for(int i=0; i<arrayDimension; i++) {
+			sb.append("[]");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * The string parser replaced by the scan over index ranges, kept as the reference of its results.
+	 */
+	private static String parseWithPreviousParser(String qualifiedName) {
+		int arrayDimension = 0;
+		List<String> typeArgumentDecomposition = new ArrayList<String>();
+		if(qualifiedName.endsWith("[]")) {
+			while(qualifiedName.endsWith("[]")) {
+				qualifiedName = qualifiedName.substring(0, qualifiedName.lastIndexOf("[]"));
+				arrayDimension++;
+			}
+		}
+		//the previous parser threw when the last closing tag was before the first opening tag
+		if(qualifiedName.contains("<") && qualifiedName.contains(">") &&
+				qualifiedName.indexOf("<") < qualifiedName.lastIndexOf(">") &&
+				!closingTagBeforeOpeningTag(qualifiedName.substring(qualifiedName.indexOf("<")+1, qualifiedName.lastIndexOf(">")))) {
+			String typeArguments = qualifiedName.substring(qualifiedName.indexOf("<")+1, qualifiedName.lastIndexOf(">"));
+			StringBuilder sb = new StringBuilder();
+			for(int i=0; i<typeArguments.length(); i++) {
+				char charAt = typeArguments.charAt(i);
+				if(charAt != ',') {
+					sb.append(charAt);
+				}
+				else {
+					if(sb.length() > 0 && equalOpeningClosingTags(sb.toString())) {
+						typeArgumentDecomposition.add(parseWithPreviousParser(sb.toString()));
+						sb = new StringBuilder();
+					}
+					else {
+						sb.append(charAt);
+					}
+				}
+			}
+			if(sb.length() > 0) {
+				typeArgumentDecomposition.add(parseWithPreviousParser(sb.toString()));
+			}
+			qualifiedName = qualifiedName.substring(0, qualifiedName.indexOf("<"));
+		}
+		return describe(qualifiedName, typeArgumentDecomposition, arrayDimension);
+	}
+
+	private static boolean closingTagBeforeOpeningTag(String typeArguments) {
+		int indexOfOpeningTag = typeArguments.indexOf("<");
+		int indexOfClosingTag = typeArguments.lastIndexOf(">");
+		return indexOfClosingTag < indexOfOpeningTag;
+	}
+
+	private static boolean equalOpeningClosingTags(String typeArguments) {
+		int openingTags = 0;
+		int closingTags = 0;
+		for(int i=0; i<typeArguments.length(); i++) {
+			if(typeArguments.charAt(i) == '>') {
+				openingTags++;
+			}
+			else if(typeArguments.charAt(i) == '<') {
+				closingTags++;
+			}
+		}
+		return openingTags == closingTags;
+	}
+}
@@ -0,0 +1,68 @@
+package gr.uom.java.xmi.diff;
+
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import gr.uom.java.xmi.UMLClass;
+import gr.uom.java.xmi.UMLModel;
+import gr.uom.java.xmi.UMLModelASTReader;
+import gr.uom.java.xmi.UMLOperation;
+
+public class OperationMoveFilterTest {
+
+	@Test
+	public void testNormalize() {
+		Assert.assertEquals("$ $=$.$(#,#);\n", OperationMoveFilter.normalize("int count=list.indexOf(\"a;b\",10);\n"));
+		Assert.assertEquals("return this.$;\n", OperationMoveFilter.normalize("return this.name;\n"));
+	}
+
+	@Test
+	public void testProvableSkip() {
+		UMLClass umlClass = parse("package p; abstract class A {"
+				+ " void empty() {}"
+				+ " abstract void declared();"
+				+ " int count(String s) { int n = s.length(); return n; }"
+				+ " int size(String t) { int m = t.length(); return m; }"
+				+ " void print(java.io.PrintStream out) { out.println(\"x\"); }"
+				+ " void log(java.io.PrintStream out) { out.print(1); out.print(2); out.flush(); out.print(3); out.print(4); out.close(); }"
+				+ " void trace(java.io.PrintStream out) { out.print(1); out.print(2); out.flush(); }"
+				+ "}");
+		OperationMoveFilter filter = new OperationMoveFilter(OperationMoveFilter.Mode.PROVABLE, 0.5);
+		Assert.assertTrue(filter.skip(operation(umlClass, "empty"), operation(umlClass, "count")));
+		Assert.assertTrue(filter.skip(operation(umlClass, "count"), operation(umlClass, "declared")));
+		Assert.assertFalse(filter.skip(operation(umlClass, "count"), operation(umlClass, "print")));
+		Assert.assertFalse(filter.skip(operation(umlClass, "declared"), operation(umlClass, "declared")));
+		//at most one mapping, and at least five statements of log not mapped
+		Assert.assertTrue(filter.skip(operation(umlClass, "log"), operation(umlClass, "print")));
+		Assert.assertTrue(filter.skip(operation(umlClass, "print"), operation(umlClass, "log")));
+		//all statements of trace can be mapped, and three mappings exceed half of the three statements of log left
+		Assert.assertFalse(filter.skip(operation(umlClass, "log"), operation(umlClass, "trace")));
+
+		OperationMoveFilter bounded = new OperationMoveFilter(OperationMoveFilter.Mode.BOUNDED, 0.5);
+		Assert.assertFalse(bounded.skip(operation(umlClass, "count"), operation(umlClass, "size")));
+		Assert.assertTrue(bounded.skip(operation(umlClass, "count"), operation(umlClass, "print")));
+
+		OperationMoveFilter parity = new OperationMoveFilter(OperationMoveFilter.Mode.PARITY, 0.5);
+		Assert.assertFalse(parity.skip(operation(umlClass, "count"), operation(umlClass, "print")));
+		parity.accepted(operation(umlClass, "count"), operation(umlClass, "print"));
+		Assert.assertEquals(1, parity.getFalseRejections().size());
+		Assert.assertTrue(parity.getProvableFalseRejections().isEmpty());
+	}
+
+	private static UMLClass parse(String source) {
+		UMLModel model = new UMLModelASTReader(Collections.singletonMap("p/A.java", source), new HashSet<String>()).getUmlModel();
+		return model.getClassList().get(0);
+	}
+
+	private static UMLOperation operation(UMLClass umlClass, String name) {
+		for(UMLOperation operation : umlClass.getOperations()) {
+			if(operation.getName().equals(name)) {
+				return operation;
+			}
+		}
+		throw new IllegalArgumentException(name);
+	}
+}
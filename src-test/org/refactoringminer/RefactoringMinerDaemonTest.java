@@ -0,0 +1,116 @@
+package org.refactoringminer;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RefactoringMinerDaemonTest {
+	private File tokenFolder;
+	private int port;
+
+	@Before
+	public void startDaemon() throws Exception {
+		tokenFolder = Files.createTempDirectory("daemon").toFile();
+		System.setProperty(RefactoringMinerDaemon.TOKEN_FOLDER_PROPERTY, tokenFolder.getPath());
+		try (ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+			port = socket.getLocalPort();
+		}
+		Thread daemon = new Thread(() -> {
+			try {
+				new RefactoringMinerDaemon().serve(port, 1);
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		});
+		daemon.setDaemon(true);
+		daemon.start();
+		File tokenFile = RefactoringMinerDaemon.tokenFile(port);
+		for (int i = 0; i < 100 && tokenFile.length() == 0; i++) {
+			Thread.sleep(100);
+		}
+	}
+
+	@After
+	public void deleteTokenFolder() {
+		System.clearProperty(RefactoringMinerDaemon.TOKEN_FOLDER_PROPERTY);
+		FileUtils.deleteQuietly(tokenFolder);
+	}
+
+	@Test
+	public void testTokenFileIsPrivate() throws Exception {
+		File tokenFile = RefactoringMinerDaemon.tokenFile(port);
+		Assert.assertTrue(tokenFile.isFile());
+		if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+			Assert.assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(tokenFile.toPath())));
+		}
+	}
+
+	@Test
+	public void testCommandWithToken() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ByteArrayOutputStream err = new ByteArrayOutputStream();
+		int status = RefactoringMinerDaemon.send(port, new String[] {"-h"}, new PrintStream(out, true, "UTF-8"), new PrintStream(err, true, "UTF-8"));
+		Assert.assertEquals(err.toString("UTF-8"), 0, status);
+		Assert.assertTrue(out.toString("UTF-8").contains("-daemon"));
+	}
+
+	@Test
+	public void testInvalidToken() throws Exception {
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+			DataOutputStream request = new DataOutputStream(socket.getOutputStream());
+			request.writeUTF("0123456789abcdef");
+			request.writeInt(1);
+			request.writeUTF("-h");
+			request.flush();
+			DataInputStream response = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			StringBuilder output = new StringBuilder();
+			while (true) {
+				byte channel = response.readByte();
+				int length = response.readInt();
+				if (channel == 3) {
+					Assert.assertEquals(1, length);
+					break;
+				}
+				byte[] bytes = new byte[length];
+				response.readFully(bytes);
+				output.append(new String(bytes, StandardCharsets.UTF_8));
+			}
+			Assert.assertTrue(output.toString(), output.toString().contains("Invalid daemon token"));
+			Assert.assertFalse(output.toString().contains("-daemon"));
+		}
+	}
+
+	@Test
+	public void testRejectedOptions() throws Exception {
+		String[][] commands = {
+				{"-batch", "manifest.txt", "output"},
+				{"-sharded", "2", "checkpoints", "project", "abc"},
+				{"-shard", "0", "2", "checkpoints", "project", "abc"},
+				{"-c", "project", "abc", "-snapshots", "snapshots"},
+				{"-gc", "https://github.com/danilofes/refactoring-toy-example.git", "abc", "10"},
+				{"-gp", "https://github.com/danilofes/refactoring-toy-example.git", "1", "10"}
+		};
+		for (String[] command : commands) {
+			ByteArrayOutputStream err = new ByteArrayOutputStream();
+			int status = RefactoringMinerDaemon.send(port, command, new PrintStream(new ByteArrayOutputStream(), true, "UTF-8"), new PrintStream(err, true, "UTF-8"));
+			Assert.assertEquals(command[0], 1, status);
+			Assert.assertTrue(err.toString("UTF-8"), err.toString("UTF-8").contains("The daemon does not accept"));
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package org.refactoringminer;
+
+import static org.refactoringminer.utils.TestRepositories.classA;
+import static org.refactoringminer.utils.TestRepositories.commit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.junit.Assert;
+import org.junit.Test;
+import org.refactoringminer.util.GitServiceImpl;
+
+public class RefactoringMinerShardsTest {
+
+	@Test
+	public void testShardedOutputMatchesSingleProcess() throws Exception {
+		File folder = Files.createTempDirectory("shards").toFile();
+		try {
+			File repositoryFolder = new File(folder, "repository");
+			String start;
+			String end;
+			try (Git git = Git.init().setDirectory(repositoryFolder).call()) {
+				start = commit(git, classA("f"), "f");
+				commit(git, classA("g"), "g");
+				commit(git, classA("h"), "h");
+				commit(git, classA("h", "z"), "h z");
+				end = commit(git, classA("k", "z"), "k z");
+			}
+			String path = repositoryFolder.getAbsolutePath();
+			String expected = execute("-bc", path, start, end);
+			String checkpoints = new File(folder, "checkpoints").getAbsolutePath();
+			Assert.assertEquals(expected, execute("-sharded", "2", checkpoints, path, start, end));
+			//resumed from the checkpoints
+			Assert.assertEquals(expected, execute("-sharded", "2", checkpoints, path, start, end));
+		}
+		finally {
+			FileUtils.deleteQuietly(folder);
+		}
+	}
+
+	private static String execute(String... args) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ByteArrayOutputStream err = new ByteArrayOutputStream();
+		GitServiceImpl gitService = new GitServiceImpl();
+		RefactoringMiner.execute(args, folder -> gitService.openRepository(folder), new PrintStream(out, true, "UTF-8"), new PrintStream(err, true, "UTF-8"));
+		return out.toString("UTF-8");
+	}
+}
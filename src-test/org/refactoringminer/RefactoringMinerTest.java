@@ -0,0 +1,74 @@
+package org.refactoringminer;
+
+import static org.refactoringminer.utils.TestRepositories.classA;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.junit.Assert;
+import org.junit.Test;
+import org.refactoringminer.rm1.GitHistoryRefactoringMinerImpl.ChangedFileInfo;
+import org.refactoringminer.util.GitServiceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class RefactoringMinerTest {
+	private static final String COMMIT_ID = "1111111111111111111111111111111111111111";
+	private static final String PARENT_COMMIT_ID = "2222222222222222222222222222222222222222";
+
+	@Test
+	public void testStreamArchives() throws Exception {
+		File folder = Files.createTempDirectory("archives").toFile();
+		try {
+			File projectFolder = new File(folder, "project");
+			File archivesFolder = new File(folder, "archives");
+			archivesFolder.mkdirs();
+			try (Git git = Git.init().setDirectory(projectFolder).call()) {
+				//commits that are not in the repository are read from the archives of the remote
+				StoredConfig config = git.getRepository().getConfig();
+				config.setString("remote", "origin", "url", archivesFolder.toURI().toString());
+				config.save();
+			}
+			writeArchive(new File(archivesFolder, PARENT_COMMIT_ID + ".zip"), PARENT_COMMIT_ID, classA("f"));
+			writeArchive(new File(archivesFolder, COMMIT_ID + ".zip"), COMMIT_ID, classA("g"));
+			//the changed files, otherwise requested from GitHub
+			new ObjectMapper().writeValue(new File(folder, "project-" + COMMIT_ID + ".json"),
+					new ChangedFileInfo(PARENT_COMMIT_ID, Collections.singletonList("A.java"), Collections.singletonList("A.java"), Collections.emptyMap()));
+
+			String output = execute("-streamarchives", "-c", projectFolder.getPath(), COMMIT_ID);
+			Assert.assertTrue(output, output.contains("Rename Method"));
+			Assert.assertFalse(new File(folder, "project-" + COMMIT_ID).exists());
+
+			Assert.assertEquals(output, execute("-c", projectFolder.getPath(), COMMIT_ID));
+			Assert.assertTrue(new File(folder, "project-" + COMMIT_ID).isDirectory());
+		}
+		finally {
+			FileUtils.deleteQuietly(folder);
+		}
+	}
+
+	private static void writeArchive(File archive, String commitId, String contents) throws Exception {
+		try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+			zip.putNextEntry(new ZipEntry("project-" + commitId + "/A.java"));
+			zip.write(contents.getBytes(StandardCharsets.UTF_8));
+			zip.closeEntry();
+		}
+	}
+
+	private static String execute(String... args) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		GitServiceImpl gitService = new GitServiceImpl();
+		RefactoringMiner.execute(args, folder -> gitService.openRepository(folder), new PrintStream(out, true, "UTF-8"), new PrintStream(new ByteArrayOutputStream(), true, "UTF-8"));
+		return out.toString("UTF-8");
+	}
+}
@@ -0,0 +1,101 @@
+package org.refactoringminer.rm1;
+
+import static org.refactoringminer.utils.TestRepositories.classA;
+import static org.refactoringminer.utils.TestRepositories.commit;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.junit.Assert;
+import org.junit.Test;
+import org.refactoringminer.api.Refactoring;
+import org.refactoringminer.api.RefactoringHandler;
+import org.refactoringminer.util.MetricsRegistry;
+
+public class BatchMinerTest {
+
+	@Test
+	public void testAllRepositoriesMined() throws Exception {
+		File folder = Files.createTempDirectory("batch").toFile();
+		try {
+			File origin = new File(folder, "origin");
+			try (Git git = Git.init().setDirectory(origin).call()) {
+				commit(git, classA("f"), "initial");
+				commit(git, classA("g"), "rename");
+			}
+			for (String clone : Arrays.asList("clone1", "clone2")) {
+				Git.cloneRepository().setURI(origin.toURI().toString()).setDirectory(new File(folder, clone)).call().close();
+			}
+			File manifest = new File(folder, "manifest.txt");
+			FileUtils.writeStringToFile(manifest, "# repositories\nclone1\n\nclone2 master\nmissing\n", "UTF-8");
+			List<BatchMiner.Job> jobs = BatchMiner.readManifest(manifest);
+			Assert.assertEquals(3, jobs.size());
+			Assert.assertEquals(new File(folder, "clone1").getAbsolutePath(), jobs.get(0).getFolder().getPath());
+			Assert.assertEquals("master", jobs.get(1).getBranch());
+
+			Map<String, int[]> results = new ConcurrentHashMap<String, int[]>();
+			BatchMiner batchMiner = new BatchMiner(new GitHistoryRefactoringMinerImpl(), 2);
+			batchMiner.run(jobs, (job, repository) -> new RefactoringHandler() {
+				@Override
+				public void onFinish(int refactoringsCount, int commitsCount, int errorCommitsCount) {
+					results.put(job.getFolder().getName(), new int[] {refactoringsCount, commitsCount, errorCommitsCount});
+				}
+			});
+			Assert.assertEquals(2, results.size());
+			for (int[] result : results.values()) {
+				Assert.assertTrue(result[0] > 0);
+				Assert.assertEquals(1, result[1]);
+				Assert.assertEquals(0, result[2]);
+			}
+			Assert.assertEquals(3, batchMiner.getCompletedRepositories());
+			Assert.assertEquals(2, batchMiner.getCommitsCount());
+			Assert.assertEquals(0, batchMiner.getInFlightCommits());
+		}
+		finally {
+			FileUtils.deleteQuietly(folder);
+		}
+	}
+
+	@Test
+	public void testErrorOfCommitDoesNotStopWorkers() throws Exception {
+		File folder = Files.createTempDirectory("batch").toFile();
+		try {
+			for (String name : Arrays.asList("repo1", "repo2", "repo3")) {
+				try (Git git = Git.init().setDirectory(new File(folder, name)).call()) {
+					commit(git, classA("f"), "initial");
+					commit(git, classA("g"), "rename");
+				}
+			}
+			List<BatchMiner.Job> jobs = Arrays.asList(new BatchMiner.Job(new File(folder, "repo1"), null),
+					new BatchMiner.Job(new File(folder, "repo2"), null), new BatchMiner.Job(new File(folder, "repo3"), null));
+			Map<String, int[]> results = new ConcurrentHashMap<String, int[]>();
+			BatchMiner batchMiner = new BatchMiner(new GitHistoryRefactoringMinerImpl(), 1);
+			batchMiner.run(jobs, (job, repository) -> new RefactoringHandler() {
+				@Override
+				public void handle(String commitId, List<Refactoring> refactorings) {
+					throw new StackOverflowError();
+				}
+
+				@Override
+				public void onFinish(int refactoringsCount, int commitsCount, int errorCommitsCount) {
+					results.put(job.getFolder().getName(), new int[] {refactoringsCount, commitsCount, errorCommitsCount});
+				}
+			});
+			Assert.assertEquals(3, results.size());
+			for (int[] result : results.values()) {
+				Assert.assertEquals(1, result[2]);
+			}
+			Assert.assertEquals(3, batchMiner.getErrorCommitsCount());
+			Assert.assertFalse(MetricsRegistry.getDefault().getGauges().containsKey("refactoringminer_batch_commits_in_flight"));
+		}
+		finally {
+			FileUtils.deleteQuietly(folder);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package org.refactoringminer.rm1;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import gr.uom.java.xmi.UMLModel;
+
+public class FileModelCacheTest {
+
+	@Test
+	public void testOnlyChangedFilesParsed() throws Exception {
+		FileModelCache cache = new FileModelCache(10);
+		AtomicInteger loads = new AtomicInteger();
+		FileModelCache.ContentLoader loader = (filePath, blobId) -> {
+			loads.incrementAndGet();
+			return ("class " + filePath.replace(".java", "") + blobId.name().substring(0, 4) + " {}").toCharArray();
+		};
+		Map<String, ObjectId> blobIds = new LinkedHashMap<String, ObjectId>();
+		blobIds.put("A.java", ObjectId.fromString("1111111111111111111111111111111111111111"));
+		blobIds.put("B.java", ObjectId.fromString("2222222222222222222222222222222222222222"));
+		UMLModel model1 = cache.createModel(blobIds, new HashSet<String>(), true, loader);
+		cache.release(model1);
+		Assert.assertEquals(2, loads.get());
+
+		blobIds.put("B.java", ObjectId.fromString("3333333333333333333333333333333333333333"));
+		UMLModel model2 = cache.createModel(blobIds, new HashSet<String>(), true, loader);
+		Assert.assertEquals(3, loads.get());
+		Assert.assertSame(model1.getClassList().get(0), model2.getClassList().get(0));
+		Assert.assertEquals("B3333", model2.getClassList().get(1).getName());
+		Assert.assertEquals(3, cache.size());
+	}
+
+	@Test
+	public void testFilesOfUnreleasedModelNotShared() throws Exception {
+		FileModelCache cache = new FileModelCache(10);
+		AtomicInteger loads = new AtomicInteger();
+		FileModelCache.ContentLoader loader = (filePath, blobId) -> {
+			loads.incrementAndGet();
+			return "class A {}".toCharArray();
+		};
+		Map<String, ObjectId> blobIds = new LinkedHashMap<String, ObjectId>();
+		blobIds.put("A.java", ObjectId.fromString("1111111111111111111111111111111111111111"));
+		UMLModel model1 = cache.createModel(blobIds, new HashSet<String>(), true, loader);
+		UMLModel model2 = cache.createModel(blobIds, new HashSet<String>(), true, loader);
+		Assert.assertEquals(2, loads.get());
+		Assert.assertNotSame(model1.getClassList().get(0), model2.getClassList().get(0));
+		cache.release(model2);
+		cache.release(model1);
+
+		UMLModel model3 = cache.createModel(blobIds, new HashSet<String>(), true, loader);
+		Assert.assertEquals(2, loads.get());
+		Assert.assertSame(model1.getClassList().get(0), model3.getClassList().get(0));
+		cache.release(model3);
+	}
+}
@@ -0,0 +1,191 @@
+package org.refactoringminer.rm1;
+
+import static org.refactoringminer.utils.TestRepositories.classA;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffEntry.ChangeType;
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+import org.refactoringminer.api.Refactoring;
+import org.refactoringminer.api.RefactoringHandler;
+import org.refactoringminer.util.GitServiceImpl;
+
+import gr.uom.java.xmi.UMLModel;
+
+public class GitHistoryRefactoringMinerImplTest {
+
+	@Test
+	public void testPopulateFileContentsFromArchive() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+			addDirectory(zip, "project-abc123/");
+			addDirectory(zip, "project-abc123/src/");
+			addFile(zip, "project-abc123/README.md", "# project");
+			addFile(zip, "project-abc123/src/a/A.java", "package a; class A {}");
+			addFile(zip, "project-abc123/src/a/b/B.java", "package a.b; class B {}");
+			addFile(zip, "project-abc123/test/c/C.java", "package c; class C {}");
+		}
+		Map<String, String> fileContents = new LinkedHashMap<String, String>();
+		Set<String> repositoryDirectories = new LinkedHashSet<String>();
+		GitHistoryRefactoringMinerImpl.populateFileContents(new ByteArrayInputStream(bytes.toByteArray()),
+				Arrays.asList("src/a/b/B.java", "src/a/Missing.java"), fileContents, repositoryDirectories);
+
+		Assert.assertEquals(1, fileContents.size());
+		Assert.assertEquals("package a.b; class B {}", fileContents.get("src/a/b/B.java"));
+		Assert.assertEquals(new LinkedHashSet<String>(Arrays.asList("src/a", "src", "src/a/b", "test/c", "test")), repositoryDirectories);
+	}
+
+	@Test
+	public void testArchiveAndFolderDecodedAlike() throws Exception {
+		String contents = "package a; class Caf\u00e9 { String s = \"\u00fc\"; }";
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+			addFile(zip, "project-abc123/src/a/Caf\u00e9.java", contents);
+		}
+		Map<String, String> fileContents = new LinkedHashMap<String, String>();
+		GitHistoryRefactoringMinerImpl.populateFileContents(new ByteArrayInputStream(bytes.toByteArray()),
+				Arrays.asList("src/a/Caf\u00e9.java"), fileContents, new LinkedHashSet<String>());
+		Assert.assertEquals(contents, fileContents.get("src/a/Caf\u00e9.java"));
+
+		File folder = Files.createTempDirectory("extracted").toFile();
+		try {
+			write(folder, "src/a/Caf\u00e9.java", contents);
+			UMLModel model = new GitHistoryRefactoringMinerImpl().createModel(folder, Arrays.asList("src/a/Caf\u00e9.java"));
+			Assert.assertEquals("a.Caf\u00e9", model.getClassList().get(0).getName());
+		}
+		finally {
+			FileUtils.deleteQuietly(folder);
+		}
+	}
+
+	@Test
+	public void testShardOf() {
+		Assert.assertEquals(0, GitHistoryRefactoringMinerImpl.shardOf("ffffffff00000000000000000000000000000000", 3));
+		Assert.assertEquals(2, GitHistoryRefactoringMinerImpl.shardOf("0000000500000000000000000000000000000000", 3));
+		Assert.assertEquals(0, GitHistoryRefactoringMinerImpl.shardOf("1234567890abcdef1234567890abcdef12345678", 1));
+	}
+
+	@Test
+	public void testWorkingTreeDiff() throws Exception {
+		for (boolean index : new boolean[] {false, true}) {
+			File folder = Files.createTempDirectory("working-tree").toFile();
+			try (Git git = createUncommittedChanges(folder, index)) {
+				Map<String, DiffEntry> diffs = new HashMap<String, DiffEntry>();
+				for (DiffEntry diff : new GitServiceImpl().workingTreeDiff(git.getRepository(), index)) {
+					diffs.put(diff.getChangeType() == ChangeType.DELETE ? diff.getOldPath() : diff.getNewPath(), diff);
+				}
+				String mode = index ? "index" : "working tree";
+				Assert.assertEquals(mode, ChangeType.MODIFY, diffs.get("A.java").getChangeType());
+				Assert.assertEquals(mode, ChangeType.ADD, diffs.get("D.java").getChangeType());
+				Assert.assertEquals(mode, ChangeType.RENAME, diffs.get("E.java").getChangeType());
+				Assert.assertEquals(mode, "B.java", diffs.get("E.java").getOldPath());
+				Assert.assertFalse(mode, diffs.containsKey("B.java"));
+				if (git.getRepository().getFS().supportsExecute()) {
+					DiffEntry modeChange = diffs.get("C.java");
+					Assert.assertEquals(mode, ChangeType.MODIFY, modeChange.getChangeType());
+					Assert.assertEquals(mode, modeChange.getOldId(), modeChange.getNewId());
+				}
+
+				Map<String, ObjectId> blobIdsBefore = new LinkedHashMap<String, ObjectId>();
+				Map<String, ObjectId> blobIdsCurrent = new LinkedHashMap<String, ObjectId>();
+				Map<String, String> renamedFilesHint = new HashMap<String, String>();
+				GitHistoryRefactoringMinerImpl.collectBlobIds(new ArrayList<DiffEntry>(diffs.values()), blobIdsBefore, blobIdsCurrent, renamedFilesHint);
+				Assert.assertEquals(mode, new LinkedHashSet<String>(Arrays.asList("A.java", "B.java")), new LinkedHashSet<String>(blobIdsBefore.keySet()));
+				Assert.assertEquals(mode, new LinkedHashSet<String>(Arrays.asList("A.java", "D.java", "E.java")), new LinkedHashSet<String>(blobIdsCurrent.keySet()));
+				Assert.assertEquals(mode, Collections.singletonMap("B.java", "E.java"), renamedFilesHint);
+			}
+			finally {
+				FileUtils.deleteQuietly(folder);
+			}
+		}
+	}
+
+	@Test
+	public void testDetectAtWorkingTree() throws Exception {
+		for (boolean index : new boolean[] {false, true}) {
+			File folder = Files.createTempDirectory("working-tree").toFile();
+			try (Git git = createUncommittedChanges(folder, index)) {
+				List<String> detected = new ArrayList<String>();
+				List<Exception> errors = new ArrayList<Exception>();
+				new GitHistoryRefactoringMinerImpl().detectAtWorkingTree(git.getRepository(), index, new RefactoringHandler() {
+					@Override
+					public void handle(String commitId, List<Refactoring> refactorings) {
+						for (Refactoring refactoring : refactorings) {
+							detected.add(refactoring.toString());
+						}
+					}
+
+					@Override
+					public void handleException(String commitId, Exception e) {
+						errors.add(e);
+					}
+				});
+				String mode = index ? "index" : "working tree";
+				Assert.assertTrue(mode + " " + errors, errors.isEmpty());
+				Assert.assertTrue(mode + " " + detected, detected.stream().anyMatch(refactoring -> refactoring.startsWith("Rename Method")));
+			}
+			finally {
+				FileUtils.deleteQuietly(folder);
+			}
+		}
+	}
+
+	/**
+	 * Commits A.java, B.java and C.java, then modifies A.java, adds D.java, renames B.java to E.java and makes C.java executable,
+	 * in the working tree and optionally in the index.
+	 */
+	private static Git createUncommittedChanges(File folder, boolean index) throws Exception {
+		Git git = Git.init().setDirectory(folder).call();
+		write(folder, "A.java", classA("f"));
+		write(folder, "B.java", "class B { String name() { return getClass().getSimpleName(); } }");
+		write(folder, "C.java", "class C { long c(long a, long b) { return a * b - a; } }");
+		git.add().addFilepattern(".").call();
+		git.commit().setMessage("initial").setAuthor("a", "a@a").setCommitter("a", "a@a").call();
+
+		write(folder, "A.java", classA("g"));
+		write(folder, "D.java", "class D { boolean d(Object o) { return o instanceof D; } }");
+		Files.move(new File(folder, "B.java").toPath(), new File(folder, "E.java").toPath());
+		new File(folder, "C.java").setExecutable(true);
+		if (index) {
+			git.add().addFilepattern(".").call();
+			git.add().setUpdate(true).addFilepattern(".").call();
+		}
+		return git;
+	}
+
+	private static void write(File folder, String path, String contents) throws IOException {
+		FileUtils.writeStringToFile(new File(folder, path), contents, StandardCharsets.UTF_8);
+	}
+
+	private static void addDirectory(ZipOutputStream zip, String name) throws IOException {
+		zip.putNextEntry(new ZipEntry(name));
+		zip.closeEntry();
+	}
+
+	private static void addFile(ZipOutputStream zip, String name, String contents) throws IOException {
+		zip.putNextEntry(new ZipEntry(name));
+		zip.write(contents.getBytes(StandardCharsets.UTF_8));
+		zip.closeEntry();
+	}
+}
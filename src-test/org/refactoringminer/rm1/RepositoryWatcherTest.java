@@ -0,0 +1,87 @@
+package org.refactoringminer.rm1;
+
+import static org.refactoringminer.utils.TestRepositories.classA;
+import static org.refactoringminer.utils.TestRepositories.commit;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.junit.Assert;
+import org.junit.Test;
+import org.refactoringminer.api.Refactoring;
+import org.refactoringminer.api.RefactoringHandler;
+
+public class RepositoryWatcherTest {
+
+	@Test
+	public void testNewCommitsDetected() throws Exception {
+		File workFolder = Files.createTempDirectory("watch-work").toFile();
+		File bareFolder = Files.createTempDirectory("watch-bare").toFile();
+		try (Git work = Git.init().setDirectory(workFolder).call()) {
+			commit(work, classA("f"), "initial");
+			try (Git bare = Git.cloneRepository().setURI(workFolder.toURI().toString()).setDirectory(bareFolder).setBare(true).call()) {
+				List<Refactoring> detected = new ArrayList<Refactoring>();
+				RepositoryWatcher watcher = new RepositoryWatcher(new GitHistoryRefactoringMinerImpl(), bare.getRepository(), new RefactoringHandler() {
+					@Override
+					public void handle(String commitId, List<Refactoring> refactorings) {
+						detected.addAll(refactorings);
+					}
+				});
+				try {
+					Assert.assertEquals(0, watcher.poll());
+					String sha1 = commit(work, classA("g"), "rename");
+					Assert.assertEquals(1, watcher.poll());
+					Assert.assertTrue(watcher.getAnalyzedCommits().contains(sha1));
+					Assert.assertFalse(detected.isEmpty());
+					Assert.assertEquals(0, watcher.poll());
+				}
+				finally {
+					watcher.close();
+				}
+			}
+		}
+		finally {
+			FileUtils.deleteQuietly(workFolder);
+			FileUtils.deleteQuietly(bareFolder);
+		}
+	}
+
+	@Test
+	public void testSuccessiveCommitsWithBoundedAnalyzedCommits() throws Exception {
+		File workFolder = Files.createTempDirectory("watch-work").toFile();
+		System.setProperty(RepositoryWatcher.ANALYZED_COMMITS_PROPERTY, "1");
+		try (Git work = Git.init().setDirectory(workFolder).call()) {
+			commit(work, classA("f"), "initial");
+			List<String> detected = new ArrayList<String>();
+			RepositoryWatcher watcher = new RepositoryWatcher(new GitHistoryRefactoringMinerImpl(), work.getRepository(), new RefactoringHandler() {
+				@Override
+				public void handle(String commitId, List<Refactoring> refactorings) {
+					for (Refactoring refactoring : refactorings) {
+						detected.add(refactoring.getName());
+					}
+				}
+			});
+			try {
+				commit(work, classA("g"), "rename");
+				Assert.assertEquals(1, watcher.poll());
+				//the model of A.java at the previous commit is taken from the cache of the watcher
+				String sha1 = commit(work, classA("h"), "rename again");
+				Assert.assertEquals(1, watcher.poll());
+				Assert.assertEquals(Collections.singletonList(sha1), watcher.getAnalyzedCommits());
+				Assert.assertEquals(2, Collections.frequency(detected, "Rename Method"));
+			}
+			finally {
+				watcher.close();
+			}
+		}
+		finally {
+			System.clearProperty(RepositoryWatcher.ANALYZED_COMMITS_PROPERTY);
+			FileUtils.deleteQuietly(workFolder);
+		}
+	}
+}
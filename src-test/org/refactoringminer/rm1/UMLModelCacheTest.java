@@ -0,0 +1,87 @@
+package org.refactoringminer.rm1;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import gr.uom.java.xmi.UMLModel;
+import gr.uom.java.xmi.UMLModelASTReader;
+
+public class UMLModelCacheTest {
+
+	@Test
+	public void testCheckOutAndCheckIn() {
+		UMLModelCache cache = new UMLModelCache(1 << 20);
+		try {
+			Assert.assertNull(cache.checkOut("a"));
+			UMLModel model = parse("class A { int f(int x) { return x + 1; } }");
+			cache.checkedOut("a", model);
+			cache.checkIn(model);
+			Assert.assertEquals(1, cache.size());
+			Assert.assertTrue(cache.getSizeBytes() > 0);
+			Assert.assertSame(model, cache.checkOut("a"));
+			//checked out models are not shared
+			Assert.assertNull(cache.checkOut("a"));
+			Assert.assertEquals(1, cache.getHits());
+			Assert.assertEquals(2, cache.getMisses());
+			//models that were not checked out are ignored
+			cache.checkIn(parse("class B {}"));
+			Assert.assertEquals(0, cache.size());
+		}
+		finally {
+			cache.close();
+		}
+	}
+
+	@Test
+	public void testEviction() {
+		UMLModel model1 = parse("class A { int f(int x) { return x + 1; } }");
+		UMLModel model2 = parse("class B { int g(int y) { return y - 1; } }");
+		UMLModelCache cache = new UMLModelCache(6 * 1024);
+		try {
+			cache.checkedOut("a", model1);
+			cache.checkIn(model1);
+			cache.checkedOut("b", model2);
+			cache.checkIn(model2);
+			Assert.assertEquals(1, cache.size());
+			Assert.assertEquals(1, cache.getEvictions());
+			Assert.assertNull(cache.checkOut("a"));
+			Assert.assertSame(model2, cache.checkOut("b"));
+		}
+		finally {
+			cache.close();
+		}
+	}
+
+	@Test
+	public void testPoolThresholdsUnchanged() {
+		Map<String, Long> thresholds = collectionUsageThresholds();
+		UMLModelCache cache = new UMLModelCache(1 << 20);
+		try {
+			Assert.assertEquals(thresholds, collectionUsageThresholds());
+		}
+		finally {
+			cache.close();
+		}
+	}
+
+	private static Map<String, Long> collectionUsageThresholds() {
+		Map<String, Long> thresholds = new LinkedHashMap<String, Long>();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.isCollectionUsageThresholdSupported()) {
+				thresholds.put(pool.getName(), pool.getCollectionUsageThreshold());
+			}
+		}
+		return thresholds;
+	}
+
+	private static UMLModel parse(String source) {
+		return new UMLModelASTReader(Collections.singletonMap("A.java", source), new HashSet<String>()).getUmlModel();
+	}
+}
@@ -0,0 +1,204 @@
+package org.refactoringminer.test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.eclipse.jgit.lib.Repository;
+import org.junit.Assert;
+import org.refactoringminer.api.GitHistoryRefactoringMiner;
+import org.refactoringminer.api.GitService;
+import org.refactoringminer.api.Refactoring;
+import org.refactoringminer.api.RefactoringHandler;
+import org.refactoringminer.test.RefactoringPopulator.Root;
+import org.refactoringminer.util.GitServiceImpl;
+import org.refactoringminer.util.MetricsRegistry;
+import org.refactoringminer.util.MetricsRegistry.Histogram;
+
+/**
+ * Replays the oracle commits from local clones and records the wall time, allocated bytes, peak heap usage
+ * and phase breakdown of each commit. The throughput is compared against a stored baseline.
+ */
+public class OracleBenchmark {
+
+	private static final String[] PHASES = {
+		"refactoringminer_git_read_seconds",
+		"refactoringminer_parse_seconds",
+		"refactoringminer_model_diff_seconds",
+		"refactoringminer_refactoring_extraction_seconds",
+		"refactoringminer_handler_seconds"
+	};
+	private static final String THROUGHPUT = "throughput";
+	private static final String COMMITS = "commits";
+
+	private final GitHistoryRefactoringMiner refactoringDetector;
+	private final String tempDir;
+	private final List<CommitMeasurement> measurements = new ArrayList<CommitMeasurement>();
+
+	public OracleBenchmark(GitHistoryRefactoringMiner detector, String tempDir) {
+		this.refactoringDetector = detector;
+		this.tempDir = tempDir;
+	}
+
+	public static class CommitMeasurement {
+		private final String commitURL;
+		private long wallTimeNanos;
+		private long allocatedBytes;
+		private long peakHeapBytes;
+		private int refactorings;
+		private Map<String, Double> phaseSeconds = new LinkedHashMap<String, Double>();
+
+		private CommitMeasurement(String commitURL) {
+			this.commitURL = commitURL;
+		}
+
+		public long getWallTimeNanos() {
+			return wallTimeNanos;
+		}
+	}
+
+	public void replay(List<Root> roots) throws Exception {
+		GitService gitService = new GitServiceImpl();
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		for (Root root : roots) {
+			String folder = tempDir + "/"
+					+ root.repository.substring(root.repository.lastIndexOf('/') + 1, root.repository.lastIndexOf('.'));
+			try (Repository rep = gitService.cloneIfNotExists(folder, root.repository)) {
+				CommitMeasurement measurement = new CommitMeasurement(
+						root.repository.substring(0, root.repository.length() - 4) + "/commit/" + root.sha1);
+				Map<String, Double> phasesBefore = phaseSeconds();
+				resetPeakHeapUsage();
+				long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+				long start = System.nanoTime();
+				refactoringDetector.detectAtCommit(rep, root.sha1, new RefactoringHandler() {
+					@Override
+					public void handle(String commitId, List<Refactoring> refactorings) {
+						measurement.refactorings = refactorings.size();
+					}
+
+					@Override
+					public void handleException(String commitId, Exception e) {
+						System.err.println("Error processing commit " + commitId);
+					}
+				});
+				measurement.wallTimeNanos = System.nanoTime() - start;
+				measurement.allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+				measurement.peakHeapBytes = peakHeapUsage();
+				Map<String, Double> phasesAfter = phaseSeconds();
+				for (String phase : PHASES) {
+					measurement.phaseSeconds.put(phase, phasesAfter.get(phase) - phasesBefore.get(phase));
+				}
+				measurements.add(measurement);
+			}
+		}
+	}
+
+	private static Map<String, Double> phaseSeconds() {
+		Map<String, Histogram> histograms = MetricsRegistry.getDefault().getHistograms();
+		Map<String, Double> phaseSeconds = new LinkedHashMap<String, Double>();
+		for (String phase : PHASES) {
+			Histogram histogram = histograms.get(phase);
+			phaseSeconds.put(phase, histogram != null ? histogram.getSumSeconds() : 0.0);
+		}
+		return phaseSeconds;
+	}
+
+	private static void resetPeakHeapUsage() {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+			}
+		}
+	}
+
+	private static long peakHeapUsage() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peak;
+	}
+
+	public double getThroughput() {
+		long totalNanos = 0;
+		for (CommitMeasurement measurement : measurements) {
+			totalNanos += measurement.wallTimeNanos;
+		}
+		return totalNanos == 0 ? 0 : measurements.size() / (totalNanos / 1e9);
+	}
+
+	public void writeReport(File reportFile, int slowestCommits) throws IOException {
+		reportFile.getAbsoluteFile().getParentFile().mkdirs();
+		try (PrintWriter out = new PrintWriter(reportFile, "UTF-8")) {
+			out.println(String.format("Commits: %d  Throughput: %.3f commits/s", measurements.size(), getThroughput()));
+			out.println();
+			out.println("Phase breakdown");
+			Map<String, Double> totals = new LinkedHashMap<String, Double>();
+			for (String phase : PHASES) {
+				double total = 0;
+				for (CommitMeasurement measurement : measurements) {
+					total += measurement.phaseSeconds.get(phase);
+				}
+				totals.put(phase, total);
+				out.println(String.format("  %-50s %10.3f s", phase, total));
+			}
+			out.println();
+			out.println("Slowest commits");
+			out.println(String.format("  %10s %12s %12s %6s %10s %10s %10s %10s  %s", "wall ms", "alloc MB", "peak MB", "refs",
+					"git ms", "parse ms", "diff ms", "extract ms", "commit"));
+			List<CommitMeasurement> sorted = new ArrayList<CommitMeasurement>(measurements);
+			sorted.sort(Comparator.comparingLong(CommitMeasurement::getWallTimeNanos).reversed());
+			for (CommitMeasurement measurement : sorted.subList(0, Math.min(slowestCommits, sorted.size()))) {
+				out.println(String.format("  %10.1f %12.1f %12.1f %6d %10.1f %10.1f %10.1f %10.1f  %s",
+						measurement.wallTimeNanos / 1e6, measurement.allocatedBytes / 1048576.0, measurement.peakHeapBytes / 1048576.0,
+						measurement.refactorings,
+						measurement.phaseSeconds.get(PHASES[0]) * 1000, measurement.phaseSeconds.get(PHASES[1]) * 1000,
+						measurement.phaseSeconds.get(PHASES[2]) * 1000, measurement.phaseSeconds.get(PHASES[3]) * 1000,
+						measurement.commitURL));
+			}
+		}
+	}
+
+	/**
+	 * Fails if the throughput dropped more than {@code maxRegression} (e.g., 0.1 for 10%) below the throughput stored in {@code baselineFile}.
+	 * If the baseline file does not exist, or {@code updateBaseline} is true, the current throughput is stored as the new baseline.
+	 */
+	public void assertThroughput(File baselineFile, double maxRegression, boolean updateBaseline) throws IOException {
+		double throughput = getThroughput();
+		if (!baselineFile.exists() || updateBaseline) {
+			Properties baseline = new Properties();
+			baseline.setProperty(COMMITS, String.valueOf(measurements.size()));
+			baseline.setProperty(THROUGHPUT, String.valueOf(throughput));
+			try (OutputStream out = new FileOutputStream(baselineFile)) {
+				baseline.store(out, "Oracle replay throughput in commits per second");
+			}
+			System.out.println(String.format("Stored baseline throughput %.3f commits/s in %s", throughput, baselineFile));
+			return;
+		}
+		Properties baseline = new Properties();
+		try (InputStream in = new FileInputStream(baselineFile)) {
+			baseline.load(in);
+		}
+		double baselineThroughput = Double.parseDouble(baseline.getProperty(THROUGHPUT));
+		String message = String.format("Throughput: %.3f commits/s  Baseline: %.3f commits/s  Allowed regression: %.0f%%",
+				throughput, baselineThroughput, maxRegression * 100);
+		System.out.println(message);
+		Assert.assertTrue(message, throughput >= baselineThroughput * (1 - maxRegression));
+	}
+}
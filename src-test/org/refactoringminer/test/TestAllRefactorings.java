@@ -7,12 +7,16 @@ import org.refactoringminer.test.RefactoringPopulator.Systems;
 import org.junit.Test;
 
 public class TestAllRefactorings {
+	static final int EXPECTED_TPS = 9096;
+	static final int EXPECTED_FPS = 35;
+	static final int EXPECTED_FNS = 402;
 
 	@Test
 	public void testAllRefactorings() throws Exception {
 		GitHistoryRefactoringMinerImpl detector = new GitHistoryRefactoringMinerImpl();
-		TestBuilder test = new TestBuilder(detector, "tmp1", Refactorings.All.getValue());
+		TestBuilder test = new TestBuilder(detector, "tmp1", Refactorings.All.getValue())
+				.withThreads(Integer.getInteger("oracle.threads", Runtime.getRuntime().availableProcessors()));
 		RefactoringPopulator.feedRefactoringsInstances(Refactorings.All.getValue(), Systems.FSE.getValue(), test);
-		test.assertExpectations(9096, 35, 402);
+		test.assertExpectations(EXPECTED_TPS, EXPECTED_FPS, EXPECTED_FNS);
 	}
 }
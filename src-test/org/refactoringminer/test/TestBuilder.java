@@ -9,6 +9,15 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import org.eclipse.jgit.lib.Repository;
 import org.junit.Assert;
@@ -28,8 +37,9 @@ public class TestBuilder {
 	private final GitHistoryRefactoringMiner refactoringDetector;
 	private boolean verbose;
 	private boolean aggregate;
-	private int commitsCount;
-	private int errorCommitsCount;
+	private int threads;
+	private AtomicInteger commitsCount;
+	private AtomicInteger errorCommitsCount;
 	private Counter c;// = new Counter();
 	private Map<RefactoringType, Counter> cMap;
 	private static final int TP = 0;
@@ -41,11 +51,12 @@ public class TestBuilder {
 	private BigInteger refactoringFilter;
 
 	public TestBuilder(GitHistoryRefactoringMiner detector, String tempDir) {
-		this.map = new HashMap<String, ProjectMatcher>();
+		this.map = new TreeMap<String, ProjectMatcher>();
 		this.refactoringDetector = detector;
 		this.tempDir = tempDir;
 		this.verbose = false;
 		this.aggregate = false;
+		this.threads = 1;
 	}
 
 	public TestBuilder(GitHistoryRefactoringMiner detector, String tempDir, BigInteger refactorings) {
@@ -64,27 +75,31 @@ public class TestBuilder {
 		return this;
 	}
 
+	/**
+	 * Analyze the commits on a pool of {@code threads} workers. The results and the reported output do not depend on the number of workers.
+	 */
+	public TestBuilder withThreads(int threads) {
+		this.threads = Math.max(1, threads);
+		return this;
+	}
+
 	private static class Counter {
-		int[] c = new int[5];
+		AtomicIntegerArray c = new AtomicIntegerArray(5);
 	}
 
 	private void count(int type, String refactoring) {
-		c.c[type]++;
+		c.c.incrementAndGet(type);
 		RefactoringType refType = RefactoringType.extractFromDescription(refactoring);
-		Counter refTypeCounter = cMap.get(refType);
-		if (refTypeCounter == null) {
-			refTypeCounter = new Counter();
-			cMap.put(refType, refTypeCounter);
-		}
-		refTypeCounter.c[type]++;
+		Counter refTypeCounter = cMap.computeIfAbsent(refType, k -> new Counter());
+		refTypeCounter.c.incrementAndGet(type);
 	}
 
 	private int get(int type) {
-		return c.c[type];
+		return c.c.get(type);
 	}
 
 	private int get(int type, Counter counter) {
-		return counter.c[type];
+		return counter.c.get(type);
 	}
 
 	public TestBuilder() {
@@ -102,28 +117,51 @@ public class TestBuilder {
 
 	public void assertExpectations(int expectedTPs, int expectedFPs, int expectedFNs) throws Exception {
 		c = new Counter();
-		cMap = new HashMap<RefactoringType, Counter>();
-		commitsCount = 0;
-		errorCommitsCount = 0;
+		cMap = new ConcurrentHashMap<RefactoringType, Counter>();
+		commitsCount = new AtomicInteger();
+		errorCommitsCount = new AtomicInteger();
 		GitService gitService = new GitServiceImpl();
 
-		for (ProjectMatcher m : map.values()) {
-			String folder = tempDir + "/"
-					+ m.cloneUrl.substring(m.cloneUrl.lastIndexOf('/') + 1, m.cloneUrl.lastIndexOf('.'));
-			try (Repository rep = gitService.cloneIfNotExists(folder,
-					m.cloneUrl/* , m.branch */)) {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Repository> repositories = new ArrayList<Repository>();
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		try {
+			for (ProjectMatcher m : map.values()) {
+				String folder = tempDir + "/"
+						+ m.cloneUrl.substring(m.cloneUrl.lastIndexOf('/') + 1, m.cloneUrl.lastIndexOf('.'));
+				Repository rep = gitService.cloneIfNotExists(folder,
+						m.cloneUrl/* , m.branch */);
+				repositories.add(rep);
 				if (m.ignoreNonSpecifiedCommits) {
 					// It is faster to only look at particular commits
-					for (String commitId : m.getCommits()) {
-						refactoringDetector.detectAtCommit(rep, commitId, m);
+					for (String commitId : new TreeSet<String>(m.getCommits())) {
+						futures.add(pool.submit(() -> refactoringDetector.detectAtCommit(rep, commitId, m)));
 					}
 				} else {
 					// Iterate over each commit
-					refactoringDetector.detectAll(rep, m.branch, m);
+					futures.add(pool.submit(() -> {
+						refactoringDetector.detectAll(rep, m.branch, m);
+						return null;
+					}));
 				}
 			}
+			for (Future<?> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof Exception) {
+						throw (Exception) e.getCause();
+					}
+					throw e;
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+			for (Repository rep : repositories) {
+				rep.close();
+			}
 		}
-		System.out.println(String.format("Commits: %d  Errors: %d", commitsCount, errorCommitsCount));
+		System.out.println(String.format("Commits: %d  Errors: %d", commitsCount.get(), errorCommitsCount.get()));
 
 		String mainResultMessage = buildResultMessage(c);
 		System.out.println("Total  " + mainResultMessage);
@@ -234,10 +272,10 @@ public class TestBuilder {
 		}
 
 		@Override
-		public void handle(String commitId, List<Refactoring> refactorings) {
+		public synchronized void handle(String commitId, List<Refactoring> refactorings) {
 			refactorings= filterRefactoring(refactorings);
 			CommitMatcher matcher;
-			commitsCount++;
+			commitsCount.incrementAndGet();
 			//String commitId = curRevision.getId().getName();
 			if (expected.containsKey(commitId)) {
 				matcher = expected.get(commitId);
@@ -316,12 +354,12 @@ public class TestBuilder {
 		}
 
 		@Override
-		public void handleException(String commitId, Exception e) {
+		public synchronized void handleException(String commitId, Exception e) {
 			if (expected.containsKey(commitId)) {
 				CommitMatcher matcher = expected.get(commitId);
 				matcher.error = e.toString();
 			}
-			errorCommitsCount++;
+			errorCommitsCount.incrementAndGet();
 			// System.err.println(" error at commit " + commitId + ": " +
 			// e.getMessage());
 		}
@@ -332,7 +370,7 @@ public class TestBuilder {
 			// System.out.println(this.cloneUrl);
 			// }
 			String baseUrl = this.cloneUrl.substring(0, this.cloneUrl.length() - 4) + "/commit/";
-			for (Map.Entry<String, CommitMatcher> entry : this.expected.entrySet()) {
+			for (Map.Entry<String, CommitMatcher> entry : new TreeMap<String, CommitMatcher>(this.expected).entrySet()) {
 				String commitUrl = baseUrl + entry.getKey();
 				CommitMatcher matcher = entry.getValue();
 				if (matcher.error != null) {
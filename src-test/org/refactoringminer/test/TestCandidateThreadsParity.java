@@ -0,0 +1,81 @@
+package org.refactoringminer.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.jgit.lib.Repository;
+import org.junit.Assert;
+import org.junit.Test;
+import org.refactoringminer.api.Refactoring;
+import org.refactoringminer.api.RefactoringHandler;
+import org.refactoringminer.rm1.GitHistoryRefactoringMinerImpl;
+import org.refactoringminer.test.RefactoringPopulator.Refactorings;
+import org.refactoringminer.test.RefactoringPopulator.Systems;
+import org.refactoringminer.util.CommitProfile;
+
+/**
+ * Runs the oracle with the move candidates evaluated on the calling thread and on several threads, and compares the refactorings
+ * detected at each commit.
+ */
+public class TestCandidateThreadsParity {
+
+	@Test
+	public void testCandidateThreadsParity() throws Exception {
+		int threads = Integer.getInteger("oracle.candidateThreads", Math.max(2, Runtime.getRuntime().availableProcessors()));
+		Map<String, List<String>> sequential = detect(1);
+		Map<String, List<String>> parallel = detect(threads);
+		Assert.assertEquals(sequential.keySet(), parallel.keySet());
+		for (String commitId : sequential.keySet()) {
+			Assert.assertEquals(commitId, sequential.get(commitId), parallel.get(commitId));
+		}
+	}
+
+	private static Map<String, List<String>> detect(int candidateThreads) throws Exception {
+		RecordingDetector detector = new RecordingDetector();
+		detector.setCandidateThreads(candidateThreads);
+		TestBuilder test = new TestBuilder(detector, "tmp1", Refactorings.All.getValue())
+				.withThreads(Integer.getInteger("oracle.threads", Runtime.getRuntime().availableProcessors()));
+		RefactoringPopulator.feedRefactoringsInstances(Refactorings.All.getValue(), Systems.FSE.getValue(), test);
+		test.assertExpectations(TestAllRefactorings.EXPECTED_TPS, TestAllRefactorings.EXPECTED_FPS, TestAllRefactorings.EXPECTED_FNS);
+		return detector.refactorings;
+	}
+
+	private static class RecordingDetector extends GitHistoryRefactoringMinerImpl {
+		private final Map<String, List<String>> refactorings = Collections.synchronizedMap(new TreeMap<String, List<String>>());
+
+		@Override
+		public void detectAtCommit(Repository repository, String commitId, RefactoringHandler handler) {
+			super.detectAtCommit(repository, commitId, new RefactoringHandler() {
+				@Override
+				public boolean skipCommit(String commitId) {
+					return handler.skipCommit(commitId);
+				}
+
+				@Override
+				public void handle(String commitId, List<Refactoring> detected) {
+					List<String> descriptions = new ArrayList<String>();
+					for (Refactoring refactoring : detected) {
+						descriptions.add(refactoring.toString());
+					}
+					Collections.sort(descriptions);
+					refactorings.put(commitId, descriptions);
+					handler.handle(commitId, detected);
+				}
+
+				@Override
+				public void handleProfile(String commitId, CommitProfile profile) {
+					handler.handleProfile(commitId, profile);
+				}
+
+				@Override
+				public void handleException(String commitId, Exception e) {
+					refactorings.put(commitId, Collections.singletonList(e.toString()));
+					handler.handleException(commitId, e);
+				}
+			});
+		}
+	}
+}
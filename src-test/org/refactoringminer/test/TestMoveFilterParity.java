@@ -0,0 +1,51 @@
+package org.refactoringminer.test;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.refactoringminer.rm1.GitHistoryRefactoringMinerImpl;
+import org.refactoringminer.test.RefactoringPopulator.Refactorings;
+import org.refactoringminer.test.RefactoringPopulator.Systems;
+import org.refactoringminer.util.MetricsRegistry;
+
+import gr.uom.java.xmi.diff.OperationMoveFilter;
+
+/**
+ * Runs the oracle with the move candidate pre-filter in {@link OperationMoveFilter.Mode#PARITY}, where no accepted pair may be
+ * skipped by the provable bound, and in {@link OperationMoveFilter.Mode#BOUNDED}, which must detect the same refactorings as
+ * {@link TestAllRefactorings}.
+ */
+public class TestMoveFilterParity {
+
+	@After
+	public void resetMode() {
+		System.clearProperty(OperationMoveFilter.MODE_PROPERTY);
+	}
+
+	@Test
+	public void testProvableFilterParity() throws Exception {
+		long falseRejections = counter("refactoringminer_move_filter_provable_false_rejections_total");
+		detect(OperationMoveFilter.Mode.PARITY);
+		Assert.assertEquals(falseRejections, counter("refactoringminer_move_filter_provable_false_rejections_total"));
+	}
+
+	@Test
+	public void testBoundedFilterParity() throws Exception {
+		detect(OperationMoveFilter.Mode.BOUNDED);
+	}
+
+	private static void detect(OperationMoveFilter.Mode mode) throws Exception {
+		System.setProperty(OperationMoveFilter.MODE_PROPERTY, mode.name());
+		GitHistoryRefactoringMinerImpl detector = new GitHistoryRefactoringMinerImpl();
+		TestBuilder test = new TestBuilder(detector, "tmp1", Refactorings.All.getValue())
+				.withThreads(Integer.getInteger("oracle.threads", Runtime.getRuntime().availableProcessors()));
+		RefactoringPopulator.feedRefactoringsInstances(Refactorings.All.getValue(), Systems.FSE.getValue(), test);
+		test.assertExpectations(TestAllRefactorings.EXPECTED_TPS, TestAllRefactorings.EXPECTED_FPS, TestAllRefactorings.EXPECTED_FNS);
+	}
+
+	private static long counter(String name) {
+		//registered once the filter is loaded
+		MetricsRegistry.Counter counter = MetricsRegistry.getDefault().getCounters().get(name);
+		return counter != null ? counter.get() : 0;
+	}
+}
@@ -0,0 +1,27 @@
+package org.refactoringminer.test;
+
+import java.io.File;
+
+import org.junit.Test;
+import org.refactoringminer.rm1.GitHistoryRefactoringMinerImpl;
+import org.refactoringminer.test.RefactoringPopulator.Refactorings;
+
+public class TestOracleBenchmark {
+
+	@Test
+	public void testOracleThroughput() throws Exception {
+		File baselineFile = new File(System.getProperty("oracle.benchmark.baseline", "src-test/Data/oracle-benchmark-baseline.properties"));
+		File reportFile = new File(System.getProperty("oracle.benchmark.report", "build/reports/oracle-benchmark.txt"));
+		double maxRegression = Double.parseDouble(System.getProperty("oracle.benchmark.threshold", "0.1"));
+		int slowestCommits = Integer.parseInt(System.getProperty("oracle.benchmark.slowest", "20"));
+		boolean updateBaseline = Boolean.parseBoolean(System.getProperty("oracle.benchmark.updateBaseline", "false"));
+		boolean extractComments = Boolean.parseBoolean(System.getProperty("oracle.benchmark.extractComments", "true"));
+
+		GitHistoryRefactoringMinerImpl detector = new GitHistoryRefactoringMinerImpl();
+		detector.setExtractComments(extractComments);
+		OracleBenchmark benchmark = new OracleBenchmark(detector, "tmp1");
+		benchmark.replay(RefactoringPopulator.getFSERefactorings(Refactorings.All.getValue()));
+		benchmark.writeReport(reportFile, slowestCommits);
+		benchmark.assertThroughput(baselineFile, maxRegression, updateBaseline);
+	}
+}
@@ -0,0 +1,52 @@
+package org.refactoringminer.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DirectoryDiffTest {
+
+	@Test
+	public void testChangedFiles() throws Exception {
+		Path before = Files.createTempDirectory("before");
+		Path after = Files.createTempDirectory("after");
+		try {
+			String renamed = "package p;\nclass A {\n\tint f() {\n\t\treturn 1;\n\t}\n\tint g() {\n\t\treturn 2;\n\t}\n\tint h() {\n\t\treturn 3;\n\t}\n}\n";
+			write(before, "src/p/A.java", renamed);
+			write(after, "src/q/A.java", renamed.replace("package p;", "package q;"));
+			write(before, "src/p/Same.java", "package p;\nclass Same {}\n");
+			write(after, "src/p/Same.java", "package p;\nclass Same {}\n");
+			write(before, "src/p/Changed.java", "package p;\nclass Changed {}\n");
+			write(after, "src/p/Changed.java", "package p;\nclass Changed { int x; }\n");
+			write(before, "src/p/Deleted.java", "package p;\ninterface Deleted {}\n");
+			write(after, "src/p/Added.java", "package p;\nenum Added { X, Y, Z }\n");
+			write(after, "README.md", "not java");
+
+			DirectoryDiff diff = new DirectoryDiff(before.toFile(), after.toFile(), StandardCharsets.UTF_8);
+			Assert.assertEquals(1, diff.getUnchangedFiles());
+			Assert.assertEquals(Arrays.asList("src/p/A.java", "src/p/Changed.java", "src/p/Deleted.java"), Arrays.asList(diff.getFileContentsBefore().keySet().toArray()));
+			Assert.assertEquals(new HashSet<String>(Arrays.asList("src/p/Changed.java", "src/p/Added.java", "src/q/A.java")), diff.getFileContentsCurrent().keySet());
+			Assert.assertEquals(Collections.singletonMap("src/p/A.java", "src/q/A.java"), diff.getRenamedFilesHint());
+			Assert.assertEquals(new HashSet<String>(Arrays.asList("src", "src/p")), diff.getRepositoryDirectoriesBefore());
+			Assert.assertEquals(new HashSet<String>(Arrays.asList("src", "src/p", "src/q")), diff.getRepositoryDirectoriesCurrent());
+		}
+		finally {
+			FileUtils.deleteDirectory(before.toFile());
+			FileUtils.deleteDirectory(after.toFile());
+		}
+	}
+
+	private static void write(Path root, String path, String contents) throws IOException {
+		Path file = root.resolve(path);
+		Files.createDirectories(file.getParent());
+		Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+	}
+}
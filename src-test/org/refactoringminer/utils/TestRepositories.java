@@ -0,0 +1,33 @@
+package org.refactoringminer.utils;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+
+/**
+ * Builds the small repositories of the tests, whose commits rename the method of a single class A.
+ */
+public class TestRepositories {
+
+	/**
+	 * @return The source of class A with a method of the given name, which keeps its body when renamed.
+	 */
+	public static String classA(String methodName) {
+		return classA(methodName, "x");
+	}
+
+	public static String classA(String methodName, String parameterName) {
+		return "class A { int " + methodName + "(int " + parameterName + ") { int y = " + parameterName + " * 2; return y + 1; } }";
+	}
+
+	/**
+	 * Writes A.java in the working tree and commits it.
+	 * @return The id of the commit.
+	 */
+	public static String commit(Git git, String contents, String message) throws Exception {
+		FileUtils.writeStringToFile(new File(git.getRepository().getWorkTree(), "A.java"), contents, "UTF-8");
+		git.add().addFilepattern("A.java").call();
+		return git.commit().setMessage(message).setAuthor("a", "a@a").setCommitter("a", "a@a").call().getName();
+	}
+}
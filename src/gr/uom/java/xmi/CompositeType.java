@@ -1,6 +1,7 @@
 package gr.uom.java.xmi;
 
 public class CompositeType extends UMLType {
+	private static final long serialVersionUID = 1L;
 	private UMLType leftType;
 	private LeafType rightType;
 
@@ -3,14 +3,24 @@ package gr.uom.java.xmi;
 import java.util.regex.Pattern;
 
 public class LeafType extends UMLType {
+	private static final long serialVersionUID = 1L;
 	private String classType;
 	private String nonQualifiedClassType;
-	private volatile int hashCode = 0;
+	private transient volatile int hashCode = 0;
 	private static final Pattern CAMEL_CASE_SPLIT_PATTERN = Pattern.compile("(?<!(^|[A-Z]))(?=[A-Z])|(?<!^)(?=[A-Z][a-z])");
 	
 	public LeafType(String type) {
-		this.classType = type;
-		this.nonQualifiedClassType = simpleNameOf(type);
+		this.classType = StringPool.intern(type);
+		this.nonQualifiedClassType = StringPool.intern(simpleNameOf(type));
+	}
+
+	/**
+	 * @return A modifiable copy of this type, without location and annotations.
+	 */
+	public LeafType copy() {
+		LeafType copy = new LeafType(classType);
+		copy.copyTypeArgumentsAndArrayDimension(this);
+		return copy;
 	}
 
 	@Override
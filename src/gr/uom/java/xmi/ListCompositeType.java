@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class ListCompositeType extends UMLType {
+	private static final long serialVersionUID = 1L;
 	public enum Kind {
 		UNION("|"), INTERSECTION("&");
 		private String operand;
@@ -1,11 +1,14 @@
 package gr.uom.java.xmi;
 
+import java.io.Serializable;
+
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 
 import gr.uom.java.xmi.diff.CodeRange;
 
-public class LocationInfo {
+public class LocationInfo implements Serializable {
+	private static final long serialVersionUID = 1L;
 	private String filePath;
 	private int startOffset;
 	private int endOffset; 
@@ -17,7 +20,7 @@ public class LocationInfo {
 	private CodeElementType codeElementType;
 	
 	public LocationInfo(CompilationUnit cu, String filePath, ASTNode node, CodeElementType codeElementType) {
-		this.filePath = filePath;
+		this.filePath = StringPool.intern(filePath);
 		this.codeElementType = codeElementType;
 		this.startOffset = node.getStartPosition();
 		this.length = node.getLength();
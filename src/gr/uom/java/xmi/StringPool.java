@@ -0,0 +1,52 @@
+package gr.uom.java.xmi;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Weak interning pool for the identifiers, type names and code strings of the models, shared by all the models of a run.
+ * <p>
+ * The models of consecutive commits hold the same strings many times, and with a single copy of each string the equality
+ * checks between code elements of different models succeed on the identity check of {@link String#equals(Object)}.
+ * A pooled string is released when no model refers to it anymore. The pool is striped to limit contention between reader threads,
+ * and it can be disabled with the {@code refactoringminer.stringPool.disabled} system property.
+ */
+public final class StringPool {
+	public static final String DISABLED_PROPERTY = "refactoringminer.stringPool.disabled";
+	private static final boolean ENABLED = !Boolean.getBoolean(DISABLED_PROPERTY);
+	private static final int STRIPES = 64;
+	@SuppressWarnings("unchecked")
+	private static final Map<String, WeakReference<String>>[] POOL = new Map[STRIPES];
+	static {
+		for(int i=0; i<STRIPES; i++) {
+			POOL[i] = new WeakHashMap<String, WeakReference<String>>();
+		}
+	}
+
+	private StringPool() {
+	}
+
+	/**
+	 * @return The pooled string equal to the given one, or null if the given string is null.
+	 */
+	public static String intern(String s) {
+		if(s == null || !ENABLED) {
+			return s;
+		}
+		if(s.isEmpty()) {
+			return "";
+		}
+		int hash = s.hashCode();
+		Map<String, WeakReference<String>> stripe = POOL[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+		synchronized(stripe) {
+			WeakReference<String> reference = stripe.get(s);
+			String pooled = reference != null ? reference.get() : null;
+			if(pooled == null) {
+				stripe.put(s, new WeakReference<String>(s));
+				return s;
+			}
+			return pooled;
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package gr.uom.java.xmi;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -13,7 +14,8 @@ import gr.uom.java.xmi.diff.CodeRange;
 import gr.uom.java.xmi.diff.RenamePattern;
 import gr.uom.java.xmi.diff.StringDistance;
 
-public abstract class UMLAbstractClass {
+public abstract class UMLAbstractClass implements Serializable {
+	private static final long serialVersionUID = 1L;
 	protected LocationInfo locationInfo;
 	protected String packageName;
 	protected String name;
@@ -16,6 +16,7 @@ import gr.uom.java.xmi.decomposition.AbstractExpression;
 import gr.uom.java.xmi.diff.CodeRange;
 
 public class UMLAnnotation implements Serializable, LocationInfoProvider {
+	private static final long serialVersionUID = 1L;
 	private LocationInfo locationInfo;
 	private String typeName;
 	private AbstractExpression value;
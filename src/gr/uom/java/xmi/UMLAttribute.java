@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class UMLAttribute implements Comparable<UMLAttribute>, Serializable, LocationInfoProvider, VariableDeclarationProvider {
+	private static final long serialVersionUID = 1L;
 	private LocationInfo locationInfo;
 	private String name;
 	private UMLType type;
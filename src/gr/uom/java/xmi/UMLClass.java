@@ -11,6 +11,7 @@ import java.util.Map;
 import java.util.Set;
 
 public class UMLClass extends UMLAbstractClass implements Comparable<UMLClass>, Serializable, LocationInfoProvider {
+	private static final long serialVersionUID = 1L;
 	private String qualifiedName;
     private String sourceFile;
     private String sourceFolder;
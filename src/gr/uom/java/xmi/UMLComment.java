@@ -1,9 +1,12 @@
 package gr.uom.java.xmi;
 
+import java.io.Serializable;
+
 import gr.uom.java.xmi.LocationInfo.CodeElementType;
 import gr.uom.java.xmi.diff.CodeRange;
 
-public class UMLComment implements LocationInfoProvider {
+public class UMLComment implements LocationInfoProvider, Serializable {
+	private static final long serialVersionUID = 1L;
 	private String text;
 	private LocationInfo locationInfo;
 
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class UMLEnumConstant extends UMLAttribute {
+	private static final long serialVersionUID = 1L;
 	private List<String> arguments;
 
 	public UMLEnumConstant(String name, UMLType type, LocationInfo locationInfo) {
@@ -1,11 +1,13 @@
 package gr.uom.java.xmi;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
 import gr.uom.java.xmi.diff.CodeRange;
 
-public class UMLJavadoc implements LocationInfoProvider {
+public class UMLJavadoc implements LocationInfoProvider, Serializable {
+	private static final long serialVersionUID = 1L;
 	private LocationInfo locationInfo;
 	private List<UMLTagElement> tags;
 
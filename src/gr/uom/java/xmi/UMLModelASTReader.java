@@ -2,25 +2,38 @@ package gr.uom.java.xmi;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.TreeNode;
 
-import org.apache.commons.io.FileUtils;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
@@ -51,86 +64,296 @@ import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.core.dom.TypeParameter;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
 import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
+import org.refactoringminer.util.DetectionEvents.FileParseEvent;
 
 import gr.uom.java.xmi.LocationInfo.CodeElementType;
 import gr.uom.java.xmi.decomposition.OperationBody;
 import gr.uom.java.xmi.decomposition.VariableDeclaration;
 
 public class UMLModelASTReader {
+	public static final String THREADS_PROPERTY = "refactoringminer.parseThreads";
 	private static final String FREE_MARKER_GENERATED = "generated using freemarker";
-	private static final String systemFileSeparator = Matcher.quoteReplacement(File.separator);
+	private static final String FREE_MARKER_GENERATED_DECLARATION = "private static final String FREE_MARKER_GENERATED = \"generated using freemarker\";";
+	private static final int THREADS = Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+	private static final long MAPPED_FILE_SIZE = 1 << 20;
+	private static final Map<String, String> COMPILER_OPTIONS = compilerOptions();
+	private static final ThreadLocal<ASTParser> PARSER = ThreadLocal.withInitial(() -> ASTParser.newParser(AST.JLS15));
+	private static final ThreadLocal<CharsetDecoder> DECODER = new ThreadLocal<CharsetDecoder>();
+	private static final ThreadLocal<ByteBuffer> READ_BUFFER = new ThreadLocal<ByteBuffer>();
+	private static ExecutorService pool;
 	private UMLModel umlModel;
+	private boolean extractComments = true;
 
 	public UMLModelASTReader(Map<String, String> javaFileContents, Set<String> repositoryDirectories) {
+		this(javaFileContents, repositoryDirectories, true);
+	}
+
+	/**
+	 * @param extractComments When false, the comments and the javadoc of operations, attributes and enum constants are not
+	 * extracted, which is enough for refactoring detection. The javadoc of classes is still extracted to recognize generated classes.
+	 */
+	public UMLModelASTReader(Map<String, String> javaFileContents, Set<String> repositoryDirectories, boolean extractComments) {
 		this.umlModel = new UMLModel(repositoryDirectories);
+		this.extractComments = extractComments;
 		processJavaFileContents(javaFileContents);
 	}
 
+	/**
+	 * Creates a reader of an empty model, to which Java files decoded with {@link #decode(ByteBuffer, Charset)} are added with
+	 * {@link #addJavaFile(String, char[])}.
+	 */
+	public UMLModelASTReader(Set<String> repositoryDirectories, boolean extractComments) {
+		this.umlModel = new UMLModel(repositoryDirectories);
+		this.extractComments = extractComments;
+	}
+
+	/**
+	 * Parses the Java file from the given characters, which are handed to the parser as is, and adds its classes to the model.
+	 */
+	public void addJavaFile(String filePath, char[] javaFileContent) {
+		processJavaFileContent(PARSER.get(), filePath, javaFileContent);
+	}
+
+	/**
+	 * Decodes Java source bytes into the array handed to the parser, without an intermediate String, replacing malformed input
+	 * with the replacement character. The decoder is reused by the calling thread, and the array is copied to its decoded length
+	 * only when some bytes decode to fewer characters, like the multi-byte characters of UTF-8.
+	 */
+	public static char[] decode(ByteBuffer bytes, Charset charset) throws CharacterCodingException {
+		CharsetDecoder decoder = DECODER.get();
+		if(decoder == null || !decoder.charset().equals(charset)) {
+			decoder = charset.newDecoder()
+					.onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			DECODER.set(decoder);
+		}
+		else {
+			decoder.reset();
+		}
+		CharBuffer chars = CharBuffer.allocate((int)Math.ceil(bytes.remaining() * (double)decoder.maxCharsPerByte()));
+		CoderResult result = decoder.decode(bytes, chars, true);
+		if(result.isUnderflow()) {
+			result = decoder.flush(chars);
+		}
+		if(!result.isUnderflow()) {
+			result.throwException();
+		}
+		char[] array = chars.array();
+		return chars.position() == array.length ? array : Arrays.copyOf(array, chars.position());
+	}
+
+	private static Map<String, String> compilerOptions() {
+		Map<String, String> options = JavaCore.getOptions();
+		options.put(JavaCore.COMPILER_CODEGEN_TARGET_PLATFORM, JavaCore.VERSION_1_8);
+		options.put(JavaCore.COMPILER_SOURCE, JavaCore.VERSION_1_8);
+		options.put(JavaCore.COMPILER_COMPLIANCE, JavaCore.VERSION_1_8);
+		return options;
+	}
+
 	private void processJavaFileContents(Map<String, String> javaFileContents) {
 		ASTParser parser = ASTParser.newParser(AST.JLS15);
 		for(String filePath : javaFileContents.keySet()) {
-			Map<String, String> options = JavaCore.getOptions();
-			options.put(JavaCore.COMPILER_CODEGEN_TARGET_PLATFORM, JavaCore.VERSION_1_8);
-			options.put(JavaCore.COMPILER_SOURCE, JavaCore.VERSION_1_8);
-			options.put(JavaCore.COMPILER_COMPLIANCE, JavaCore.VERSION_1_8);
-			parser.setCompilerOptions(options);
-			parser.setResolveBindings(false);
-			parser.setKind(ASTParser.K_COMPILATION_UNIT);
-			parser.setStatementsRecovery(true);
-			String javaFileContent = javaFileContents.get(filePath);
-			parser.setSource(javaFileContent.toCharArray());
-			if(javaFileContent.contains(FREE_MARKER_GENERATED) &&
-					!javaFileContent.contains("private static final String FREE_MARKER_GENERATED = \"generated using freemarker\";")) {
-				continue;
-			}
-			try {
-				CompilationUnit compilationUnit = (CompilationUnit)parser.createAST(null);
-				processCompilationUnit(filePath, compilationUnit, javaFileContent);
-			}
-			catch(Exception e) {
-				//e.printStackTrace();
+			processJavaFileContent(parser, filePath, javaFileContents.get(filePath).toCharArray());
+		}
+	}
+
+	private void processJavaFileContent(ASTParser parser, String filePath, char[] javaFileContent) {
+		if(isFreeMarkerGenerated(javaFileContent)) {
+			return;
+		}
+		//the parser is reset after each file, and copies the options
+		parser.setCompilerOptions(COMPILER_OPTIONS);
+		parser.setResolveBindings(false);
+		parser.setKind(ASTParser.K_COMPILATION_UNIT);
+		parser.setStatementsRecovery(true);
+		parser.setSource(javaFileContent);
+		FileParseEvent event = new FileParseEvent();
+		event.begin();
+		try {
+			CompilationUnit compilationUnit = (CompilationUnit)parser.createAST(null);
+			processCompilationUnit(filePath, compilationUnit, javaFileContent);
+		}
+		catch(Exception e) {
+			//e.printStackTrace();
+		}
+		if(event.shouldCommit()) {
+			event.filePath = filePath;
+			event.characters = javaFileContent.length;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Files generated with FreeMarker are skipped, unless they declare the marker themselves. The declaration contains the marker,
+	 * so it is only searched from the first marker on, in the files containing one.
+	 */
+	private static boolean isFreeMarkerGenerated(char[] javaFileContent) {
+		int marker = indexOf(javaFileContent, FREE_MARKER_GENERATED, 0);
+		if(marker < 0) {
+			return false;
+		}
+		int declarationStart = marker - FREE_MARKER_GENERATED_DECLARATION.indexOf(FREE_MARKER_GENERATED);
+		return indexOf(javaFileContent, FREE_MARKER_GENERATED_DECLARATION, declarationStart) < 0;
+	}
+
+	private static int indexOf(char[] chars, String target, int fromIndex) {
+		char first = target.charAt(0);
+		int max = chars.length - target.length();
+		for(int i = Math.max(fromIndex, 0); i <= max; i++) {
+			if(chars[i] == first) {
+				int j = 1;
+				while(j < target.length() && chars[i + j] == target.charAt(j)) {
+					j++;
+				}
+				if(j == target.length()) {
+					return i;
+				}
 			}
 		}
+		return -1;
 	}
 
 	public UMLModelASTReader(File rootFolder) throws IOException {
-		List<String> javaFilePaths = getJavaFilePaths(rootFolder);
-		Map<String, String> javaFileContents = new LinkedHashMap<String, String>();
+		this(rootFolder, Charset.defaultCharset(), true);
+	}
+
+	/**
+	 * Reads the Java files under the root folder in the order of their paths, with the given charset. The files are read and parsed
+	 * on a pool shared by all readers, whose size is set with the {@code refactoringminer.parseThreads} system property, and the classes
+	 * of each file are added to the model in the order of the paths, so the model does not depend on the number of threads.
+	 */
+	public UMLModelASTReader(File rootFolder, Charset charset, boolean extractComments) throws IOException {
+		this.extractComments = extractComments;
+		Path root = rootFolder.toPath().toAbsolutePath();
+		List<String> javaFilePaths = getJavaFilePaths(root);
 		Set<String> repositoryDirectories = new LinkedHashSet<String>();
 		for(String path : javaFilePaths) {
-			String fullPath = rootFolder + File.separator + path.replaceAll("/", systemFileSeparator);
-			String contents = FileUtils.readFileToString(new File(fullPath));
-			javaFileContents.put(path, contents);
-			String directory = new String(path);
+			String directory = path;
 			while(directory.contains("/")) {
 				directory = directory.substring(0, directory.lastIndexOf("/"));
 				repositoryDirectories.add(directory);
 			}
 		}
 		this.umlModel = new UMLModel(repositoryDirectories);
-		processJavaFileContents(javaFileContents);
+		if(THREADS <= 1 || javaFilePaths.size() <= 1) {
+			ASTParser parser = ASTParser.newParser(AST.JLS15);
+			for(String path : javaFilePaths) {
+				processJavaFileContent(parser, path, readJavaFile(root, path, charset));
+			}
+			return;
+		}
+		ExecutorService pool = pool();
+		List<Future<UMLModel>> futures = new ArrayList<Future<UMLModel>>(javaFilePaths.size());
+		for(String path : javaFilePaths) {
+			futures.add(pool.submit(() -> {
+				UMLModelASTReader fileReader = new UMLModelASTReader(repositoryDirectories, extractComments);
+				fileReader.processJavaFileContent(PARSER.get(), path, readJavaFile(root, path, charset));
+				return fileReader.umlModel;
+			}));
+		}
+		try {
+			for(Future<UMLModel> future : futures) {
+				UMLModel fileModel = future.get();
+				for(UMLClass umlClass : fileModel.getClassList()) {
+					umlModel.addClass(umlClass);
+				}
+				for(UMLGeneralization generalization : fileModel.getGeneralizationList()) {
+					umlModel.addGeneralization(generalization);
+				}
+				for(UMLRealization realization : fileModel.getRealizationList()) {
+					umlModel.addRealization(realization);
+				}
+			}
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while reading " + rootFolder);
+		}
+		catch(ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof IOException)
+				throw (IOException)cause;
+			if(cause instanceof Error)
+				throw (Error)cause;
+			throw new IllegalStateException(cause);
+		}
+		finally {
+			for(Future<UMLModel> future : futures) {
+				future.cancel(false);
+			}
+		}
+	}
+
+	private static synchronized ExecutorService pool() {
+		if(pool == null) {
+			AtomicInteger threadNumber = new AtomicInteger();
+			pool = Executors.newFixedThreadPool(THREADS, runnable -> {
+				Thread thread = new Thread(runnable, "refactoringminer-parser-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return pool;
+	}
+
+	private static List<String> getJavaFilePaths(Path root) throws IOException {
+		try(Stream<Path> walk = Files.walk(root)) {
+			return walk.filter(path -> path.toString().endsWith(".java") && Files.isRegularFile(path))
+					.map(path -> toRelativePath(root, path))
+					.sorted()
+					.collect(Collectors.toList());
+		}
+	}
+
+	private static String toRelativePath(Path root, Path file) {
+		StringBuilder sb = new StringBuilder();
+		for(Path name : root.relativize(file)) {
+			if(sb.length() > 0) {
+				sb.append('/');
+			}
+			sb.append(name.toString());
+		}
+		return sb.toString();
 	}
 
-	private static List<String> getJavaFilePaths(File folder) throws IOException {
-		Stream<Path> walk = Files.walk(Paths.get(folder.toURI()));
-		List<String> paths = walk.map(x -> x.toString())
-				.filter(f -> f.endsWith(".java"))
-				.map(x -> x.substring(folder.getPath().length()+1).replaceAll(systemFileSeparator, "/"))
-				.collect(Collectors.toList());
-		walk.close();
-		return paths;
+	/**
+	 * Reads small files into a heap buffer reused by the calling thread and maps large files, decoding them straight into the
+	 * characters handed to the parser.
+	 */
+	private static char[] readJavaFile(Path root, String path, Charset charset) throws IOException {
+		try(FileChannel channel = FileChannel.open(root.resolve(path), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if(size >= MAPPED_FILE_SIZE) {
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+				return decode(buffer, charset);
+			}
+			ByteBuffer buffer = READ_BUFFER.get();
+			if(buffer == null || buffer.capacity() < size) {
+				buffer = ByteBuffer.allocate((int)Math.max(size, 8192));
+				READ_BUFFER.set(buffer);
+			}
+			buffer.clear();
+			buffer.limit((int)size);
+			while(buffer.hasRemaining()) {
+				if(channel.read(buffer) < 0) {
+					break;
+				}
+			}
+			buffer.flip();
+			return decode(buffer, charset);
+		}
 	}
 
 	public UMLModel getUmlModel() {
 		return this.umlModel;
 	}
 
-	protected void processCompilationUnit(String sourceFilePath, CompilationUnit compilationUnit, String javaFileContent) {
-		List<UMLComment> comments = extractInternalComments(compilationUnit, sourceFilePath, javaFileContent);
+	protected void processCompilationUnit(String sourceFilePath, CompilationUnit compilationUnit, char[] javaFileContent) {
+		List<UMLComment> comments = extractComments ? extractInternalComments(compilationUnit, sourceFilePath, javaFileContent) : new ArrayList<UMLComment>();
 		PackageDeclaration packageDeclaration = compilationUnit.getPackage();
 		String packageName = null;
 		if(packageDeclaration != null)
-			packageName = packageDeclaration.getName().getFullyQualifiedName();
+			packageName = StringPool.intern(packageDeclaration.getName().getFullyQualifiedName());
 		else
 			packageName = "";
 		
@@ -152,7 +375,7 @@ public class UMLModelASTReader {
         }
 	}
 
-	private List<UMLComment> extractInternalComments(CompilationUnit cu, String sourceFile, String javaFileContent) {
+	private List<UMLComment> extractInternalComments(CompilationUnit cu, String sourceFile, char[] javaFileContent) {
 		List<Comment> astComments = cu.getCommentList();
 		List<UMLComment> comments = new ArrayList<UMLComment>();
 		for(Comment comment : astComments) {
@@ -166,7 +389,7 @@ public class UMLModelASTReader {
 			if(locationInfo != null) {
 				int start = comment.getStartPosition();
 				int end = start + comment.getLength();
-				String text = javaFileContent.substring(start, end);
+				String text = new String(javaFileContent, start, end - start);
 				UMLComment umlComment = new UMLComment(text, locationInfo);
 				comments.add(umlComment);
 			}
@@ -214,7 +437,7 @@ public class UMLModelASTReader {
 		if(javadoc != null && javadoc.containsIgnoreCase(FREE_MARKER_GENERATED)) {
 			return;
 		}
-		String className = enumDeclaration.getName().getFullyQualifiedName();
+		String className = StringPool.intern(enumDeclaration.getName().getFullyQualifiedName());
 		LocationInfo locationInfo = generateLocationInfo(cu, sourceFile, enumDeclaration, CodeElementType.TYPE_DECLARATION);
 		UMLClass umlClass = new UMLClass(packageName, className, locationInfo, enumDeclaration.isPackageMemberTypeDeclaration(), importedTypes);
 		umlClass.setJavadoc(javadoc);
@@ -279,7 +502,7 @@ public class UMLModelASTReader {
 		if(javadoc != null && javadoc.containsIgnoreCase(FREE_MARKER_GENERATED)) {
 			return;
 		}
-		String className = typeDeclaration.getName().getFullyQualifiedName();
+		String className = StringPool.intern(typeDeclaration.getName().getFullyQualifiedName());
 		LocationInfo locationInfo = generateLocationInfo(cu, sourceFile, typeDeclaration, CodeElementType.TYPE_DECLARATION);
 		UMLClass umlClass = new UMLClass(packageName, className, locationInfo, typeDeclaration.isPackageMemberTypeDeclaration(), importedTypes);
 		umlClass.setJavadoc(javadoc);
@@ -446,8 +669,8 @@ public class UMLModelASTReader {
 	}
 
 	private UMLOperation processMethodDeclaration(CompilationUnit cu, MethodDeclaration methodDeclaration, String packageName, boolean isInterfaceMethod, String sourceFile, List<UMLComment> comments) {
-		UMLJavadoc javadoc = generateJavadoc(cu, methodDeclaration, sourceFile);
-		String methodName = methodDeclaration.getName().getFullyQualifiedName();
+		UMLJavadoc javadoc = extractComments ? generateJavadoc(cu, methodDeclaration, sourceFile) : null;
+		String methodName = StringPool.intern(methodDeclaration.getName().getFullyQualifiedName());
 		LocationInfo locationInfo = generateLocationInfo(cu, sourceFile, methodDeclaration, CodeElementType.METHOD_DECLARATION);
 		UMLOperation umlOperation = new UMLOperation(methodName, locationInfo);
 		umlOperation.setJavadoc(javadoc);
@@ -523,7 +746,7 @@ public class UMLModelASTReader {
 		List<SingleVariableDeclaration> parameters = methodDeclaration.parameters();
 		for(SingleVariableDeclaration parameter : parameters) {
 			Type parameterType = parameter.getType();
-			String parameterName = parameter.getName().getFullyQualifiedName();
+			String parameterName = StringPool.intern(parameter.getName().getFullyQualifiedName());
 			UMLType type = UMLType.extractTypeObject(cu, sourceFile, parameterType, parameter.getExtraDimensions());
 			UMLParameter umlParameter = new UMLParameter(parameterName, type, "in", parameter.isVarargs());
 			VariableDeclaration variableDeclaration = new VariableDeclaration(cu, sourceFile, parameter, parameter.isVarargs());
@@ -540,7 +763,7 @@ public class UMLModelASTReader {
 	}
 
 	private void processEnumConstantDeclaration(CompilationUnit cu, EnumConstantDeclaration enumConstantDeclaration, String sourceFile, UMLClass umlClass, List<UMLComment> comments) {
-		UMLJavadoc javadoc = generateJavadoc(cu, enumConstantDeclaration, sourceFile);
+		UMLJavadoc javadoc = extractComments ? generateJavadoc(cu, enumConstantDeclaration, sourceFile) : null;
 		LocationInfo locationInfo = generateLocationInfo(cu, sourceFile, enumConstantDeclaration, CodeElementType.ENUM_CONSTANT_DECLARATION);
 		UMLEnumConstant enumConstant = new UMLEnumConstant(enumConstantDeclaration.getName().getIdentifier(), UMLType.extractTypeObject(umlClass.getName()), locationInfo);
 		VariableDeclaration variableDeclaration = new VariableDeclaration(cu, sourceFile, enumConstantDeclaration);
@@ -559,13 +782,13 @@ public class UMLModelASTReader {
 	}
 
 	private List<UMLAttribute> processFieldDeclaration(CompilationUnit cu, FieldDeclaration fieldDeclaration, boolean isInterfaceField, String sourceFile, List<UMLComment> comments) {
-		UMLJavadoc javadoc = generateJavadoc(cu, fieldDeclaration, sourceFile);
+		UMLJavadoc javadoc = extractComments ? generateJavadoc(cu, fieldDeclaration, sourceFile) : null;
 		List<UMLAttribute> attributes = new ArrayList<UMLAttribute>();
 		Type fieldType = fieldDeclaration.getType();
 		List<VariableDeclarationFragment> fragments = fieldDeclaration.fragments();
 		for(VariableDeclarationFragment fragment : fragments) {
 			UMLType type = UMLType.extractTypeObject(cu, sourceFile, fieldType, fragment.getExtraDimensions());
-			String fieldName = fragment.getName().getFullyQualifiedName();
+			String fieldName = StringPool.intern(fragment.getName().getFullyQualifiedName());
 			LocationInfo locationInfo = generateLocationInfo(cu, sourceFile, fragment, CodeElementType.FIELD_DECLARATION);
 			UMLAttribute umlAttribute = new UMLAttribute(fieldName, type, locationInfo);
 			VariableDeclaration variableDeclaration = new VariableDeclaration(cu, sourceFile, fragment);
@@ -0,0 +1,225 @@
+package gr.uom.java.xmi;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Versioned binary snapshot of a {@link UMLModel}, so that the model of files analyzed before is restored instead of parsed again.
+ * <p>
+ * A snapshot is a header with a magic number and the format version, followed by the Java serialization of the model with
+ * all its classes, operations, attributes, bodies and locations. Snapshots are read from a memory-mapped file, and the strings
+ * are pooled in the {@link StringPool} as they are read. A snapshot with another format version, or written by model classes that
+ * changed in an incompatible way, fails with an {@link InvalidClassException}. Only the model classes and the JDK collections and
+ * boxed types they hold are accepted when reading, but snapshots must still be read only from trusted directories.
+ */
+public class UMLModelSnapshot {
+	public static final int FORMAT_VERSION = 2;
+	public static final String EXTENSION = ".umlmodel";
+	private static final int MAGIC = 0x524D4D53;
+	private static final Set<String> ALLOWED_JDK_CLASSES = new HashSet<String>(Arrays.asList(
+			"java.lang.Object",
+			"java.lang.String",
+			"java.lang.Enum",
+			"java.lang.Number",
+			"java.lang.Boolean",
+			"java.lang.Character",
+			"java.lang.Integer",
+			"java.lang.Long",
+			"java.lang.Double",
+			"java.util.ArrayList",
+			"java.util.LinkedList",
+			"java.util.Arrays$ArrayList",
+			"java.util.HashMap",
+			"java.util.LinkedHashMap",
+			"java.util.TreeMap",
+			"java.util.HashSet",
+			"java.util.LinkedHashSet",
+			"java.util.TreeSet",
+			"java.util.Collections$EmptyList",
+			"java.util.Collections$EmptyMap",
+			"java.util.Collections$EmptySet",
+			"java.util.Collections$SingletonList",
+			"java.util.Collections$SingletonMap",
+			"java.util.Collections$SingletonSet",
+			"java.util.Collections$UnmodifiableCollection",
+			"java.util.Collections$UnmodifiableList",
+			"java.util.Collections$UnmodifiableRandomAccessList",
+			"java.util.Collections$UnmodifiableSet",
+			"java.util.Collections$UnmodifiableMap"));
+
+	private UMLModelSnapshot() {
+	}
+
+	/**
+	 * @return A hex SHA-256 hash of the files and repository directories a model is built from, used as the file name of its snapshot.
+	 */
+	public static String key(Map<String, String> fileContents, Set<String> repositoryDirectories) {
+		return key(fileContents, repositoryDirectories, true);
+	}
+
+	/**
+	 * @return A hex SHA-256 hash of the files and repository directories a model is built from, and of whether its comments are extracted.
+	 */
+	public static String key(Map<String, String> fileContents, Set<String> repositoryDirectories, boolean extractComments) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		update(digest, Integer.toString(FORMAT_VERSION));
+		update(digest, Integer.toString(fileContents.size()));
+		for(String filePath : new TreeSet<String>(fileContents.keySet())) {
+			update(digest, filePath);
+			update(digest, fileContents.get(filePath));
+		}
+		update(digest, Integer.toString(repositoryDirectories.size()));
+		for(String directory : new TreeSet<String>(repositoryDirectories)) {
+			update(digest, directory);
+		}
+		if(!extractComments) {
+			update(digest, "nocomments");
+		}
+		StringBuilder sb = new StringBuilder();
+		for(byte b : digest.digest()) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+
+	private static void update(MessageDigest digest, String s) {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+		digest.update(bytes);
+	}
+
+	/**
+	 * Writes the snapshot to a temporary file that replaces the given file when complete, so that concurrent readers
+	 * never see a partial snapshot. Must be called before the model is compared with another model.
+	 */
+	public static void write(UMLModel model, Path file) throws IOException {
+		Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+		try {
+			try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				ObjectOutputStream objects = new ObjectOutputStream(out);
+				objects.writeObject(model);
+				objects.flush();
+			}
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	public static UMLModel read(Path file) throws IOException {
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if(size > Integer.MAX_VALUE) {
+				throw new IOException("Snapshot too large to map: " + file);
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			if(buffer.remaining() < 2 * Integer.BYTES || buffer.getInt() != MAGIC) {
+				throw new StreamCorruptedException("Not a UMLModel snapshot: " + file);
+			}
+			int version = buffer.getInt();
+			if(version != FORMAT_VERSION) {
+				throw new InvalidClassException(UMLModel.class.getName(), "Snapshot format version " + version + " instead of " + FORMAT_VERSION);
+			}
+			try(ObjectInputStream objects = new SnapshotInputStream(new ByteBufferInputStream(buffer))) {
+				return (UMLModel)objects.readObject();
+			} catch (ClassNotFoundException | ClassCastException e) {
+				throw new InvalidClassException(e.getMessage());
+			}
+		}
+	}
+
+	private static class SnapshotInputStream extends ObjectInputStream {
+		private SnapshotInputStream(InputStream in) throws IOException {
+			super(in);
+			enableResolveObject(true);
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass descriptor) throws IOException, ClassNotFoundException {
+			String name = descriptor.getName();
+			int elementType = name.lastIndexOf('[') + 1;
+			String elementName = name.startsWith("L", elementType) ? name.substring(elementType + 1, name.length() - 1) : name.substring(elementType);
+			if(elementType > 0 && elementName.length() == 1) {
+				//array of primitives
+				return super.resolveClass(descriptor);
+			}
+			if(!elementName.startsWith("gr.uom.java.xmi.") && !ALLOWED_JDK_CLASSES.contains(elementName)) {
+				throw new InvalidClassException(name, "Class not allowed in a UMLModel snapshot");
+			}
+			return super.resolveClass(descriptor);
+		}
+
+		@Override
+		protected Object resolveObject(Object obj) {
+			return obj instanceof String ? StringPool.intern((String)obj) : obj;
+		}
+	}
+
+	private static class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		private ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if(len == 0) {
+				return 0;
+			}
+			if(!buffer.hasRemaining()) {
+				return -1;
+			}
+			int n = Math.min(len, buffer.remaining());
+			buffer.get(b, off, n);
+			return n;
+		}
+
+		@Override
+		public long skip(long n) {
+			int skipped = (int)Math.max(0, Math.min(n, buffer.remaining()));
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+}
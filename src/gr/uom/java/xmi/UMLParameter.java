@@ -6,6 +6,7 @@ import java.util.List;
 import gr.uom.java.xmi.decomposition.VariableDeclaration;
 
 public class UMLParameter implements Serializable, VariableDeclarationProvider {
+	private static final long serialVersionUID = 1L;
 	private String name;
 	private UMLType type;
 	private String kind;
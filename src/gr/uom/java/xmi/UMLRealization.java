@@ -1,6 +1,9 @@
 package gr.uom.java.xmi;
 
-public class UMLRealization implements Comparable<UMLRealization> {
+import java.io.Serializable;
+
+public class UMLRealization implements Comparable<UMLRealization>, Serializable {
+    private static final long serialVersionUID = 1L;
     private UMLClass client;
     private String supplier;
 
@@ -2,7 +2,10 @@ package gr.uom.java.xmi;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.jdt.core.dom.AnnotatableType;
 import org.eclipse.jdt.core.dom.Annotation;
@@ -22,10 +25,17 @@ import gr.uom.java.xmi.diff.CodeRange;
 import gr.uom.java.xmi.diff.StringDistance;
 
 public abstract class UMLType implements Serializable, LocationInfoProvider {
+	private static final long serialVersionUID = 1L;
+	public static final String TYPE_CACHE_SIZE_PROPERTY = "refactoringminer.typeCacheSize";
+	private static final int TYPE_CACHE_SIZE = Integer.getInteger(TYPE_CACHE_SIZE_PROPERTY, 8192);
+	private static final int TYPE_CACHE_SEGMENTS = 16;
+	//segments with their own lock, each evicting its least recently used type when full
+	private static final List<Map<String, LeafType>> TYPE_CACHE = typeCache();
 	private LocationInfo locationInfo;
 	private int arrayDimension;
 	private List<UMLType> typeArguments = new ArrayList<UMLType>();
 	protected List<UMLAnnotation> annotations = new ArrayList<UMLAnnotation>();
+	private transient boolean immutable;
 
 	public LocationInfo getLocationInfo() {
 		return locationInfo;
@@ -48,6 +58,9 @@ public abstract class UMLType implements Serializable, LocationInfoProvider {
 	}
 
 	public void setVarargs() {
+		if(immutable) {
+			throw new UnsupportedOperationException("Shared type " + this + " cannot be modified");
+		}
 		arrayDimension++;
 	}
 
@@ -173,63 +186,115 @@ public abstract class UMLType implements Serializable, LocationInfoProvider {
 		return normalized;
 	}
 
+	/**
+	 * Parses a type from its string representation. The parsed types are cached, so the returned type is shared and immutable,
+	 * and callers that need to modify it must use a {@link LeafType#copy()}.
+	 */
 	public static LeafType extractTypeObject(String qualifiedName) {
-		int arrayDimension = 0;
-		List<UMLType> typeArgumentDecomposition = new ArrayList<UMLType>();
-		if(qualifiedName.endsWith("[]")) {
-			while(qualifiedName.endsWith("[]")) {
-				qualifiedName = qualifiedName.substring(0, qualifiedName.lastIndexOf("[]"));
-				arrayDimension++;
+		int hash = qualifiedName.hashCode();
+		Map<String, LeafType> segment = TYPE_CACHE.get((hash ^ (hash >>> 16)) & (TYPE_CACHE_SEGMENTS - 1));
+		LeafType typeObject;
+		synchronized(segment) {
+			typeObject = segment.get(qualifiedName);
+		}
+		if(typeObject == null) {
+			typeObject = parseTypeObject(qualifiedName, 0, qualifiedName.length());
+			((UMLType)typeObject).freeze();
+			synchronized(segment) {
+				LeafType cachedTypeObject = segment.putIfAbsent(qualifiedName, typeObject);
+				if(cachedTypeObject != null) {
+					typeObject = cachedTypeObject;
+				}
 			}
 		}
-		if(qualifiedName.contains("<") && qualifiedName.contains(">") &&
-				!closingTagBeforeOpeningTag(qualifiedName.substring(qualifiedName.indexOf("<")+1, qualifiedName.lastIndexOf(">")))) {
-			String typeArguments = qualifiedName.substring(qualifiedName.indexOf("<")+1, qualifiedName.lastIndexOf(">"));
-			StringBuilder sb = new StringBuilder();
-			for(int i=0; i<typeArguments.length(); i++) {
-				char charAt = typeArguments.charAt(i);
-				if(charAt != ',') {
-					sb.append(charAt);
+		return typeObject;
+	}
+
+	private static List<Map<String, LeafType>> typeCache() {
+		int segmentSize = Math.max(1, TYPE_CACHE_SIZE / TYPE_CACHE_SEGMENTS);
+		List<Map<String, LeafType>> segments = new ArrayList<Map<String, LeafType>>(TYPE_CACHE_SEGMENTS);
+		for(int i=0; i<TYPE_CACHE_SEGMENTS; i++) {
+			segments.add(new LinkedHashMap<String, LeafType>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, LeafType> eldest) {
+					return size() > segmentSize;
+				}
+			});
+		}
+		return segments;
+	}
+
+	private static LeafType parseTypeObject(String qualifiedName, int from, int to) {
+		int arrayDimension = 0;
+		while(to - from >= 2 && qualifiedName.charAt(to - 1) == ']' && qualifiedName.charAt(to - 2) == '[') {
+			to -= 2;
+			arrayDimension++;
+		}
+		int firstOpeningTag = -1;
+		int secondOpeningTag = -1;
+		int lastClosingTag = -1;
+		int previousClosingTag = -1;
+		for(int i=from; i<to; i++) {
+			char charAt = qualifiedName.charAt(i);
+			if(charAt == '<') {
+				if(firstOpeningTag == -1) {
+					firstOpeningTag = i;
 				}
-				else {
-					if(sb.length() > 0 && equalOpeningClosingTags(sb.toString())) {
-						typeArgumentDecomposition.add(extractTypeObject(sb.toString()));
-						sb = new StringBuilder();
+				else if(secondOpeningTag == -1) {
+					secondOpeningTag = i;
+				}
+			}
+			else if(charAt == '>') {
+				previousClosingTag = lastClosingTag;
+				lastClosingTag = i;
+			}
+		}
+		List<UMLType> typeArgumentDecomposition = new ArrayList<UMLType>();
+		if(firstOpeningTag != -1 && lastClosingTag > firstOpeningTag) {
+			//the type arguments are parsed unless their last closing tag is before their first opening tag
+			int openingTagInTypeArguments = secondOpeningTag < lastClosingTag ? secondOpeningTag : -1;
+			int closingTagInTypeArguments = previousClosingTag > firstOpeningTag ? previousClosingTag : -1;
+			if(closingTagInTypeArguments >= openingTagInTypeArguments) {
+				//split at the commas where the preceding type argument has as many opening as closing tags
+				int typeArgumentStart = firstOpeningTag + 1;
+				int openTags = 0;
+				for(int i=typeArgumentStart; i<lastClosingTag; i++) {
+					char charAt = qualifiedName.charAt(i);
+					if(charAt == '<') {
+						openTags++;
+					}
+					else if(charAt == '>') {
+						openTags--;
 					}
-					else {
-						sb.append(charAt);
+					else if(charAt == ',' && i > typeArgumentStart && openTags == 0) {
+						typeArgumentDecomposition.add(parseTypeObject(qualifiedName, typeArgumentStart, i));
+						typeArgumentStart = i + 1;
 					}
 				}
+				if(lastClosingTag > typeArgumentStart) {
+					typeArgumentDecomposition.add(parseTypeObject(qualifiedName, typeArgumentStart, lastClosingTag));
+				}
+				to = firstOpeningTag;
 			}
-			if(sb.length() > 0) {
-				typeArgumentDecomposition.add(extractTypeObject(sb.toString()));
-			}
-			qualifiedName = qualifiedName.substring(0, qualifiedName.indexOf("<"));
 		}
-		UMLType typeObject = new LeafType(qualifiedName);
+		UMLType typeObject = new LeafType(qualifiedName.substring(from, to));
 		typeObject.arrayDimension = arrayDimension;
 		typeObject.typeArguments = typeArgumentDecomposition;
 		return (LeafType)typeObject;
 	}
 
-	private static boolean closingTagBeforeOpeningTag(String typeArguments) {
-		int indexOfOpeningTag = typeArguments.indexOf("<");
-		int indexOfClosingTag = typeArguments.lastIndexOf(">");
-		return indexOfClosingTag < indexOfOpeningTag;
+	private void freeze() {
+		for(UMLType typeArgument : typeArguments) {
+			typeArgument.freeze();
+		}
+		typeArguments = typeArguments.isEmpty() ? Collections.<UMLType>emptyList() : Collections.unmodifiableList(typeArguments);
+		annotations = Collections.unmodifiableList(annotations);
+		immutable = true;
 	}
 
-	private static boolean equalOpeningClosingTags(String typeArguments) {
-		int openingTags = 0;
-		int closingTags = 0;
-		for(int i=0; i<typeArguments.length(); i++) {
-			if(typeArguments.charAt(i) == '>') {
-				openingTags++;
-			}
-			else if(typeArguments.charAt(i) == '<') {
-				closingTags++;
-			}
-		}
-		return openingTags == closingTags;
+	protected void copyTypeArgumentsAndArrayDimension(UMLType type) {
+		this.arrayDimension = type.arrayDimension;
+		this.typeArguments = new ArrayList<UMLType>(type.typeArguments);
 	}
 
 	public static UMLType extractTypeObject(CompilationUnit cu, String filePath, Type type, int extraDimensions) {
@@ -241,7 +306,7 @@ public abstract class UMLType implements Serializable, LocationInfoProvider {
 
 	private static UMLType extractTypeObject(CompilationUnit cu, String filePath, Type type) {
 		if(type.isPrimitiveType() || type.isSimpleType()) {
-			LeafType leafType = extractTypeObject(type.toString());
+			LeafType leafType = extractTypeObject(type.toString()).copy();
 			AnnotatableType annotatableType = (AnnotatableType)type;
 			List<Annotation> annotations = annotatableType.annotations();
 			for(Annotation annotation : annotations) {
@@ -252,7 +317,7 @@ public abstract class UMLType implements Serializable, LocationInfoProvider {
 		else if(type instanceof QualifiedType) {
 			QualifiedType qualified = (QualifiedType)type;
 			UMLType leftType = extractTypeObject(cu, filePath, qualified.getQualifier());
-			LeafType rightType = extractTypeObject(qualified.getName().getFullyQualifiedName());
+			LeafType rightType = extractTypeObject(qualified.getName().getFullyQualifiedName()).copy();
 			AnnotatableType annotatableType = (AnnotatableType)qualified;
 			List<Annotation> annotations = annotatableType.annotations();
 			for(Annotation annotation : annotations) {
@@ -263,7 +328,7 @@ public abstract class UMLType implements Serializable, LocationInfoProvider {
 		else if(type instanceof NameQualifiedType) {
 			NameQualifiedType nameQualified = (NameQualifiedType)type;
 			LeafType leftType = extractTypeObject(nameQualified.getQualifier().getFullyQualifiedName());
-			LeafType rightType = extractTypeObject(nameQualified.getName().getFullyQualifiedName());
+			LeafType rightType = extractTypeObject(nameQualified.getName().getFullyQualifiedName()).copy();
 			AnnotatableType annotatableType = (AnnotatableType)nameQualified;
 			List<Annotation> annotations = annotatableType.annotations();
 			for(Annotation annotation : annotations) {
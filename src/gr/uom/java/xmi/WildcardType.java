@@ -1,6 +1,7 @@
 package gr.uom.java.xmi;
 
 public class WildcardType extends UMLType {
+	private static final long serialVersionUID = 1L;
 	private UMLType bound;
 	private boolean upperBound;
 	
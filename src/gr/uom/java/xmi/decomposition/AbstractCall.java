@@ -1,5 +1,6 @@
 package gr.uom.java.xmi.decomposition;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
@@ -15,7 +16,8 @@ import gr.uom.java.xmi.decomposition.replacement.Replacement;
 import gr.uom.java.xmi.decomposition.replacement.Replacement.ReplacementType;
 import gr.uom.java.xmi.diff.CodeRange;
 
-public abstract class AbstractCall implements LocationInfoProvider {
+public abstract class AbstractCall implements LocationInfoProvider, Serializable {
+	private static final long serialVersionUID = 1L;
 	protected int typeArguments;
 	protected String expression;
 	protected List<String> arguments;
@@ -1,7 +1,10 @@
 package gr.uom.java.xmi.decomposition;
 
+import java.io.Serializable;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -10,13 +13,55 @@ import gr.uom.java.xmi.LocationInfo.CodeElementType;
 import gr.uom.java.xmi.LocationInfoProvider;
 import gr.uom.java.xmi.decomposition.AbstractCall.StatementCoverageType;
 
-public abstract class AbstractCodeFragment implements LocationInfoProvider {
+public abstract class AbstractCodeFragment implements LocationInfoProvider, Serializable {
+	private static final long serialVersionUID = 1L;
 	private int depth;
 	private int index;
-	private String codeFragmentAfterReplacingParametersWithArguments;
+	private transient String codeFragmentAfterReplacingParametersWithArguments;
+	private static final ThreadLocal<ArgumentizationScope> ARGUMENTIZATION_SCOPE = new ThreadLocal<ArgumentizationScope>();
 
 	public String getArgumentizedString() {
-		return codeFragmentAfterReplacingParametersWithArguments != null ? codeFragmentAfterReplacingParametersWithArguments : getString();
+		String argumentizedString = argumentization();
+		return argumentizedString != null ? argumentizedString : getString();
+	}
+
+	/**
+	 * Until {@link #closeArgumentizationScope()} is called, the argumentization of the fragments by the current thread
+	 * is recorded in the returned scope, instead of the fragments shared with other threads.
+	 * The fragments themselves must not be changed while a scope recording the reads is open.
+	 * 
+	 * @param recordReads whether the scope also records the argumentization read from the fragments
+	 */
+	public static ArgumentizationScope openArgumentizationScope(boolean recordReads) {
+		ArgumentizationScope scope = new ArgumentizationScope(recordReads);
+		ARGUMENTIZATION_SCOPE.set(scope);
+		return scope;
+	}
+
+	public static void closeArgumentizationScope() {
+		ARGUMENTIZATION_SCOPE.remove();
+	}
+
+	public static boolean inArgumentizationScope() {
+		return ARGUMENTIZATION_SCOPE.get() != null;
+	}
+
+	private String argumentization() {
+		ArgumentizationScope scope = ARGUMENTIZATION_SCOPE.get();
+		if(scope != null) {
+			return scope.get(this);
+		}
+		return codeFragmentAfterReplacingParametersWithArguments;
+	}
+
+	private void setArgumentization(String argumentizedString) {
+		ArgumentizationScope scope = ARGUMENTIZATION_SCOPE.get();
+		if(scope != null) {
+			scope.written.put(this, argumentizedString);
+		}
+		else {
+			this.codeFragmentAfterReplacingParametersWithArguments = argumentizedString;
+		}
 	}
 
     public int getDepth() {
@@ -95,7 +140,7 @@ public abstract class AbstractCodeFragment implements LocationInfoProvider {
 				afterReplacements = sb.toString();
 			}
 		}
-		this.codeFragmentAfterReplacingParametersWithArguments = afterReplacements;
+		setArgumentization(afterReplacements);
 	}
 
 	private static boolean quoteBefore(String beforeMatch) {
@@ -146,17 +191,24 @@ public abstract class AbstractCodeFragment implements LocationInfoProvider {
 		else if(other.getString().contains(this.getString())) {
 			return true;
 		}
-		else if(this.codeFragmentAfterReplacingParametersWithArguments != null) {
-			return this.codeFragmentAfterReplacingParametersWithArguments.equals(other.getString());
+		else if(this.argumentization() != null) {
+			return this.argumentization().equals(other.getString());
 		}
-		else if(other.codeFragmentAfterReplacingParametersWithArguments != null) {
-			return other.codeFragmentAfterReplacingParametersWithArguments.equals(this.getString());
+		else if(other.argumentization() != null) {
+			return other.argumentization().equals(this.getString());
 		}
 		return false;
 	}
 
 	public void resetArgumentization() {
-		this.codeFragmentAfterReplacingParametersWithArguments = getString();
+		setArgumentization(getString());
+	}
+
+	/**
+	 * Clears the argumentization left by a model comparison, so that the fragment is compared again as if freshly parsed.
+	 */
+	public void clearArgumentization() {
+		setArgumentization(null);
 	}
 
 	public ObjectCreation creationCoveringEntireFragment() {
@@ -315,4 +367,57 @@ public abstract class AbstractCodeFragment implements LocationInfoProvider {
 		return !statement.equals("{") && !statement.startsWith("catch(") && !statement.startsWith("case ") && !statement.startsWith("default :") &&
 				!statement.startsWith("return true;") && !statement.startsWith("return false;") && !statement.startsWith("return this;") && !statement.startsWith("return null;") && !statement.startsWith("return;");
 	}
+
+	/**
+	 * The argumentization set by a thread inside a scope, and optionally the argumentization it read from the fragments.
+	 */
+	public static class ArgumentizationScope {
+		private final Map<AbstractCodeFragment, String> written = new IdentityHashMap<AbstractCodeFragment, String>();
+		private final Map<AbstractCodeFragment, String> read;
+
+		private ArgumentizationScope(boolean recordReads) {
+			this.read = recordReads ? new IdentityHashMap<AbstractCodeFragment, String>() : null;
+		}
+
+		private String get(AbstractCodeFragment fragment) {
+			if(written.containsKey(fragment)) {
+				return written.get(fragment);
+			}
+			String argumentization = fragment.codeFragmentAfterReplacingParametersWithArguments;
+			if(read != null && !read.containsKey(fragment)) {
+				read.put(fragment, argumentization);
+			}
+			return argumentization;
+		}
+
+		/**
+		 * @return true if every argumentization read in this scope is still the one found in the given scope, or in the fragments
+		 */
+		public boolean readSameAs(ArgumentizationScope scope) {
+			for(Map.Entry<AbstractCodeFragment, String> entry : read.entrySet()) {
+				AbstractCodeFragment fragment = entry.getKey();
+				String current = scope.written.containsKey(fragment) ? scope.written.get(fragment) : fragment.codeFragmentAfterReplacingParametersWithArguments;
+				if(!Objects.equals(current, entry.getValue())) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Records the argumentization set in the given scope as if it was set in this scope.
+		 */
+		public void putAll(ArgumentizationScope scope) {
+			written.putAll(scope.written);
+		}
+
+		/**
+		 * Stores the argumentization set in this scope to the fragments.
+		 */
+		public void apply() {
+			for(Map.Entry<AbstractCodeFragment, String> entry : written.entrySet()) {
+				entry.getKey().codeFragmentAfterReplacingParametersWithArguments = entry.getValue();
+			}
+		}
+	}
 }
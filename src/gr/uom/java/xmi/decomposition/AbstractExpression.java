@@ -8,57 +8,23 @@ import org.eclipse.jdt.core.dom.Expression;
 
 import gr.uom.java.xmi.LocationInfo;
 import gr.uom.java.xmi.LocationInfo.CodeElementType;
+import gr.uom.java.xmi.StringPool;
 import gr.uom.java.xmi.diff.CodeRange;
 
 public class AbstractExpression extends AbstractCodeFragment {
+	private static final long serialVersionUID = 1L;
 	
 	private String expression;
 	private LocationInfo locationInfo;
 	private CompositeStatementObject owner;
-	private List<String> variables;
-	private List<String> types;
-	private List<VariableDeclaration> variableDeclarations;
-	private Map<String, List<OperationInvocation>> methodInvocationMap;
-	private List<AnonymousClassDeclarationObject> anonymousClassDeclarations;
-	private List<String> stringLiterals;
-	private List<String> numberLiterals;
-	private List<String> nullLiterals;
-	private List<String> booleanLiterals;
-	private List<String> typeLiterals;
-	private Map<String, List<ObjectCreation>> creationMap;
-	private List<String> infixExpressions;
-	private List<String> infixOperators;
-	private List<String> arrayAccesses;
-	private List<String> prefixExpressions;
-	private List<String> postfixExpressions;
-	private List<String> arguments;
-	private List<TernaryOperatorExpression> ternaryOperatorExpressions;
-	private List<LambdaExpressionObject> lambdas;
+	private CodeFragmentElements elements;
     
     public AbstractExpression(CompilationUnit cu, String filePath, Expression expression, CodeElementType codeElementType) {
     	this.locationInfo = new LocationInfo(cu, filePath, expression, codeElementType);
     	Visitor visitor = new Visitor(cu, filePath);
     	expression.accept(visitor);
-		this.variables = visitor.getVariables();
-		this.types = visitor.getTypes();
-		this.variableDeclarations = visitor.getVariableDeclarations();
-		this.methodInvocationMap = visitor.getMethodInvocationMap();
-		this.anonymousClassDeclarations = visitor.getAnonymousClassDeclarations();
-		this.stringLiterals = visitor.getStringLiterals();
-		this.numberLiterals = visitor.getNumberLiterals();
-		this.nullLiterals = visitor.getNullLiterals();
-		this.booleanLiterals = visitor.getBooleanLiterals();
-		this.typeLiterals = visitor.getTypeLiterals();
-		this.creationMap = visitor.getCreationMap();
-		this.infixExpressions = visitor.getInfixExpressions();
-		this.infixOperators = visitor.getInfixOperators();
-		this.arrayAccesses = visitor.getArrayAccesses();
-		this.prefixExpressions = visitor.getPrefixExpressions();
-		this.postfixExpressions = visitor.getPostfixExpressions();
-		this.arguments = visitor.getArguments();
-		this.ternaryOperatorExpressions = visitor.getTernaryOperatorExpressions();
-		this.lambdas = visitor.getLambdas();
-    	this.expression = expression.toString();
+		this.elements = CodeFragmentElements.of(visitor);
+    	this.expression = StringPool.intern(expression.toString());
     	this.owner = null;
     }
 
@@ -89,97 +55,97 @@ public class AbstractExpression extends AbstractCodeFragment {
 
 	@Override
 	public List<String> getVariables() {
-		return variables;
+		return elements.getVariables();
 	}
 
 	@Override
 	public List<String> getTypes() {
-		return types;
+		return elements.getTypes();
 	}
 
 	@Override
 	public List<VariableDeclaration> getVariableDeclarations() {
-		return variableDeclarations;
+		return elements.getVariableDeclarations();
 	}
 
 	@Override
 	public Map<String, List<OperationInvocation>> getMethodInvocationMap() {
-		return methodInvocationMap;
+		return elements.getMethodInvocationMap();
 	}
 
 	@Override
 	public List<AnonymousClassDeclarationObject> getAnonymousClassDeclarations() {
-		return anonymousClassDeclarations;
+		return elements.getAnonymousClassDeclarations();
 	}
 
 	@Override
 	public List<String> getStringLiterals() {
-		return stringLiterals;
+		return elements.getStringLiterals();
 	}
 
 	@Override
 	public List<String> getNumberLiterals() {
-		return numberLiterals;
+		return elements.getNumberLiterals();
 	}
 
 	@Override
 	public List<String> getNullLiterals() {
-		return nullLiterals;
+		return elements.getNullLiterals();
 	}
 
 	@Override
 	public List<String> getBooleanLiterals() {
-		return booleanLiterals;
+		return elements.getBooleanLiterals();
 	}
 
 	@Override
 	public List<String> getTypeLiterals() {
-		return typeLiterals;
+		return elements.getTypeLiterals();
 	}
 
 	@Override
 	public Map<String, List<ObjectCreation>> getCreationMap() {
-		return creationMap;
+		return elements.getCreationMap();
 	}
 
 	@Override
 	public List<String> getInfixExpressions() {
-		return infixExpressions;
+		return elements.getInfixExpressions();
 	}
 
 	@Override
 	public List<String> getInfixOperators() {
-		return infixOperators;
+		return elements.getInfixOperators();
 	}
 
 	@Override
 	public List<String> getArrayAccesses() {
-		return arrayAccesses;
+		return elements.getArrayAccesses();
 	}
 
 	@Override
 	public List<String> getPrefixExpressions() {
-		return prefixExpressions;
+		return elements.getPrefixExpressions();
 	}
 
 	@Override
 	public List<String> getPostfixExpressions() {
-		return postfixExpressions;
+		return elements.getPostfixExpressions();
 	}
 
 	@Override
 	public List<String> getArguments() {
-		return arguments;
+		return elements.getArguments();
 	}
 
 	@Override
 	public List<TernaryOperatorExpression> getTernaryOperatorExpressions() {
-		return ternaryOperatorExpressions;
+		return elements.getTernaryOperatorExpressions();
 	}
 
 	@Override
 	public List<LambdaExpressionObject> getLambdas() {
-		return lambdas;
+		return elements.getLambdas();
 	}
 
 	public LocationInfo getLocationInfo() {
@@ -1,5 +1,6 @@
 package gr.uom.java.xmi.decomposition;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -13,9 +14,10 @@ import gr.uom.java.xmi.LocationInfo.CodeElementType;
 import gr.uom.java.xmi.diff.CodeRange;
 import gr.uom.java.xmi.LocationInfoProvider;
 
-public class AnonymousClassDeclarationObject implements LocationInfoProvider {
+public class AnonymousClassDeclarationObject implements LocationInfoProvider, Serializable {
+	private static final long serialVersionUID = 1L;
 	private LocationInfo locationInfo;
-	private AnonymousClassDeclaration astNode;
+	private transient AnonymousClassDeclaration astNode;
 	private String astNodeString;
 	private List<String> variables = new ArrayList<String>();
 	private List<String> types = new ArrayList<String>();
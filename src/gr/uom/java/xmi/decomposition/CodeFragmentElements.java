@@ -0,0 +1,223 @@
+package gr.uom.java.xmi.decomposition;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import gr.uom.java.xmi.StringPool;
+
+/**
+ * Compact storage of the elements extracted by a {@link Visitor} from a statement or expression.
+ * <p>
+ * All the element lists of a code fragment are packed in a single array, and each non-empty list is a read-only view of its range,
+ * created once and returned by every call of its accessor. Fragments without any element share a single instance,
+ * empty lists and maps are shared singletons, and the extracted strings are interned in the {@link StringPool}.
+ */
+final class CodeFragmentElements implements Serializable {
+	private static final long serialVersionUID = 1L;
+	private static final int VARIABLES = 0;
+	private static final int TYPES = 1;
+	private static final int VARIABLE_DECLARATIONS = 2;
+	private static final int ANONYMOUS_CLASS_DECLARATIONS = 3;
+	private static final int STRING_LITERALS = 4;
+	private static final int NUMBER_LITERALS = 5;
+	private static final int NULL_LITERALS = 6;
+	private static final int BOOLEAN_LITERALS = 7;
+	private static final int TYPE_LITERALS = 8;
+	private static final int INFIX_EXPRESSIONS = 9;
+	private static final int INFIX_OPERATORS = 10;
+	private static final int ARRAY_ACCESSES = 11;
+	private static final int PREFIX_EXPRESSIONS = 12;
+	private static final int POSTFIX_EXPRESSIONS = 13;
+	private static final int ARGUMENTS = 14;
+	private static final int TERNARY_OPERATOR_EXPRESSIONS = 15;
+	private static final int LAMBDAS = 16;
+	private static final int COLUMNS = 17;
+	private static final CodeFragmentElements EMPTY = new CodeFragmentElements(0, new Column<?>[0],
+			Collections.<String, List<OperationInvocation>>emptyMap(), Collections.<String, List<ObjectCreation>>emptyMap());
+
+	//one bit per non-empty list, whose view is at the index given by the number of non-empty lists before it
+	private final int nonEmptyColumns;
+	private final Column<?>[] columns;
+	private final Map<String, List<OperationInvocation>> methodInvocationMap;
+	private final Map<String, List<ObjectCreation>> creationMap;
+
+	private CodeFragmentElements(int nonEmptyColumns, Column<?>[] columns,
+			Map<String, List<OperationInvocation>> methodInvocationMap, Map<String, List<ObjectCreation>> creationMap) {
+		this.nonEmptyColumns = nonEmptyColumns;
+		this.columns = columns;
+		this.methodInvocationMap = methodInvocationMap;
+		this.creationMap = creationMap;
+	}
+
+	static CodeFragmentElements of(Visitor visitor) {
+		List<?>[] columns = new List<?>[COLUMNS];
+		columns[VARIABLES] = visitor.getVariables();
+		columns[TYPES] = visitor.getTypes();
+		columns[VARIABLE_DECLARATIONS] = visitor.getVariableDeclarations();
+		columns[ANONYMOUS_CLASS_DECLARATIONS] = visitor.getAnonymousClassDeclarations();
+		columns[STRING_LITERALS] = visitor.getStringLiterals();
+		columns[NUMBER_LITERALS] = visitor.getNumberLiterals();
+		columns[NULL_LITERALS] = visitor.getNullLiterals();
+		columns[BOOLEAN_LITERALS] = visitor.getBooleanLiterals();
+		columns[TYPE_LITERALS] = visitor.getTypeLiterals();
+		columns[INFIX_EXPRESSIONS] = visitor.getInfixExpressions();
+		columns[INFIX_OPERATORS] = visitor.getInfixOperators();
+		columns[ARRAY_ACCESSES] = visitor.getArrayAccesses();
+		columns[PREFIX_EXPRESSIONS] = visitor.getPrefixExpressions();
+		columns[POSTFIX_EXPRESSIONS] = visitor.getPostfixExpressions();
+		columns[ARGUMENTS] = visitor.getArguments();
+		columns[TERNARY_OPERATOR_EXPRESSIONS] = visitor.getTernaryOperatorExpressions();
+		columns[LAMBDAS] = visitor.getLambdas();
+		Map<String, List<OperationInvocation>> methodInvocationMap = compact(visitor.getMethodInvocationMap());
+		Map<String, List<ObjectCreation>> creationMap = compact(visitor.getCreationMap());
+		int size = 0;
+		int nonEmptyColumns = 0;
+		for(int i=0; i<COLUMNS; i++) {
+			if(!columns[i].isEmpty()) {
+				size += columns[i].size();
+				nonEmptyColumns |= 1 << i;
+			}
+		}
+		if(size == 0 && methodInvocationMap.isEmpty() && creationMap.isEmpty()) {
+			return EMPTY;
+		}
+		Object[] elements = new Object[size];
+		Column<?>[] views = new Column<?>[Integer.bitCount(nonEmptyColumns)];
+		int end = 0;
+		int view = 0;
+		for(int i=0; i<COLUMNS; i++) {
+			int start = end;
+			for(Object element : columns[i]) {
+				elements[end++] = element instanceof String ? StringPool.intern((String)element) : element;
+			}
+			if(end > start) {
+				views[view++] = new Column<Object>(elements, start, end - start);
+			}
+		}
+		return new CodeFragmentElements(nonEmptyColumns, views, methodInvocationMap, creationMap);
+	}
+
+	private Object readResolve() {
+		return columns.length == 0 && methodInvocationMap.isEmpty() && creationMap.isEmpty() ? EMPTY : this;
+	}
+
+	private static <V> Map<String, V> compact(Map<String, V> map) {
+		return map.isEmpty() ? Collections.<String, V>emptyMap() : map;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <E> List<E> column(int column) {
+		int bit = 1 << column;
+		if((nonEmptyColumns & bit) == 0) {
+			return Collections.emptyList();
+		}
+		return (List<E>)columns[Integer.bitCount(nonEmptyColumns & (bit - 1))];
+	}
+
+	List<String> getVariables() {
+		return column(VARIABLES);
+	}
+
+	List<String> getTypes() {
+		return column(TYPES);
+	}
+
+	List<VariableDeclaration> getVariableDeclarations() {
+		return column(VARIABLE_DECLARATIONS);
+	}
+
+	Map<String, List<OperationInvocation>> getMethodInvocationMap() {
+		return methodInvocationMap;
+	}
+
+	List<AnonymousClassDeclarationObject> getAnonymousClassDeclarations() {
+		return column(ANONYMOUS_CLASS_DECLARATIONS);
+	}
+
+	List<String> getStringLiterals() {
+		return column(STRING_LITERALS);
+	}
+
+	List<String> getNumberLiterals() {
+		return column(NUMBER_LITERALS);
+	}
+
+	List<String> getNullLiterals() {
+		return column(NULL_LITERALS);
+	}
+
+	List<String> getBooleanLiterals() {
+		return column(BOOLEAN_LITERALS);
+	}
+
+	List<String> getTypeLiterals() {
+		return column(TYPE_LITERALS);
+	}
+
+	Map<String, List<ObjectCreation>> getCreationMap() {
+		return creationMap;
+	}
+
+	List<String> getInfixExpressions() {
+		return column(INFIX_EXPRESSIONS);
+	}
+
+	List<String> getInfixOperators() {
+		return column(INFIX_OPERATORS);
+	}
+
+	List<String> getArrayAccesses() {
+		return column(ARRAY_ACCESSES);
+	}
+
+	List<String> getPrefixExpressions() {
+		return column(PREFIX_EXPRESSIONS);
+	}
+
+	List<String> getPostfixExpressions() {
+		return column(POSTFIX_EXPRESSIONS);
+	}
+
+	List<String> getArguments() {
+		return column(ARGUMENTS);
+	}
+
+	List<TernaryOperatorExpression> getTernaryOperatorExpressions() {
+		return column(TERNARY_OPERATOR_EXPRESSIONS);
+	}
+
+	List<LambdaExpressionObject> getLambdas() {
+		return column(LAMBDAS);
+	}
+
+	private static final class Column<E> extends AbstractList<E> implements RandomAccess, Serializable {
+		private static final long serialVersionUID = 1L;
+		private final Object[] elements;
+		private final int offset;
+		private final int size;
+
+		private Column(Object[] elements, int offset, int size) {
+			this.elements = elements;
+			this.offset = offset;
+			this.size = size;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public E get(int index) {
+			if(index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			}
+			return (E)elements[offset + index];
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
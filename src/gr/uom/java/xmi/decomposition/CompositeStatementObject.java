@@ -15,6 +15,7 @@ import gr.uom.java.xmi.LocationInfo.CodeElementType;
 import gr.uom.java.xmi.diff.CodeRange;
 
 public class CompositeStatementObject extends AbstractStatement {
+	private static final long serialVersionUID = 1L;
 
 	private List<AbstractStatement> statementList;
 	private List<AbstractExpression> expressionList;
@@ -97,6 +98,13 @@ public class CompositeStatementObject extends AbstractStatement {
 		}
 	}
 
+	public void clearArgumentization() {
+		super.clearArgumentization();
+		for(AbstractExpression expression : expressionList) {
+			expression.clearArgumentization();
+		}
+	}
+
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
 		sb.append(locationInfo.getCodeElementType().getName());
@@ -10,14 +10,16 @@ import org.eclipse.jdt.core.dom.Expression;
 
 import gr.uom.java.xmi.LocationInfo;
 import gr.uom.java.xmi.LocationInfo.CodeElementType;
+import gr.uom.java.xmi.StringPool;
 import gr.uom.java.xmi.UMLType;
 import gr.uom.java.xmi.diff.StringDistance;
 
 public class ObjectCreation extends AbstractCall {
+	private static final long serialVersionUID = 1L;
 	private UMLType type;
 	private String anonymousClassDeclaration;
 	private boolean isArray = false;
-	private volatile int hashCode = 0;
+	private transient volatile int hashCode = 0;
 	
 	public ObjectCreation(CompilationUnit cu, String filePath, ClassInstanceCreation creation) {
 		this.locationInfo = new LocationInfo(cu, filePath, creation, CodeElementType.CLASS_INSTANCE_CREATION);
@@ -26,10 +28,10 @@ public class ObjectCreation extends AbstractCall {
 		this.arguments = new ArrayList<String>();
 		List<Expression> args = creation.arguments();
 		for(Expression argument : args) {
-			this.arguments.add(argument.toString());
+			this.arguments.add(StringPool.intern(argument.toString()));
 		}
 		if(creation.getExpression() != null) {
-			this.expression = creation.getExpression().toString();
+			this.expression = StringPool.intern(creation.getExpression().toString());
 		}
 		if(creation.getAnonymousClassDeclaration() != null) {
 			this.anonymousClassDeclaration = creation.getAnonymousClassDeclaration().toString();
@@ -44,7 +46,7 @@ public class ObjectCreation extends AbstractCall {
 		this.arguments = new ArrayList<String>();
 		List<Expression> args = creation.dimensions();
 		for(Expression argument : args) {
-			this.arguments.add(argument.toString());
+			this.arguments.add(StringPool.intern(argument.toString()));
 		}
 		if(creation.getInitializer() != null) {
 			this.anonymousClassDeclaration = creation.getInitializer().toString();
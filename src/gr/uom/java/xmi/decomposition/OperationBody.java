@@ -1,5 +1,6 @@
 package gr.uom.java.xmi.decomposition;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -36,10 +37,11 @@ import org.eclipse.jdt.core.dom.WhileStatement;
 import gr.uom.java.xmi.LocationInfo;
 import gr.uom.java.xmi.LocationInfo.CodeElementType;
 
-public class OperationBody {
+public class OperationBody implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	private CompositeStatementObject compositeStatement;
-	private List<String> stringRepresentation;
+	private transient volatile List<String> stringRepresentation;
 
 	public OperationBody(CompilationUnit cu, String filePath, Block methodBody) {
 		this.compositeStatement = new CompositeStatementObject(cu, filePath, methodBody, 0, CodeElementType.BLOCK);
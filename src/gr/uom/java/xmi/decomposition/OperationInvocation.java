@@ -2,6 +2,7 @@ package gr.uom.java.xmi.decomposition;
 
 import gr.uom.java.xmi.LocationInfo;
 import gr.uom.java.xmi.LocationInfo.CodeElementType;
+import gr.uom.java.xmi.StringPool;
 import gr.uom.java.xmi.UMLOperation;
 import gr.uom.java.xmi.UMLParameter;
 import gr.uom.java.xmi.UMLType;
@@ -27,21 +28,22 @@ import org.eclipse.jdt.core.dom.SuperMethodInvocation;
 import org.refactoringminer.util.PrefixSuffixUtils;
 
 public class OperationInvocation extends AbstractCall {
+	private static final long serialVersionUID = 1L;
 	private String methodName;
 	private List<String> subExpressions = new ArrayList<String>();
-	private volatile int hashCode = 0;
+	private transient volatile int hashCode = 0;
 	
 	public OperationInvocation(CompilationUnit cu, String filePath, MethodInvocation invocation) {
 		this.locationInfo = new LocationInfo(cu, filePath, invocation, CodeElementType.METHOD_INVOCATION);
-		this.methodName = invocation.getName().getIdentifier();
+		this.methodName = StringPool.intern(invocation.getName().getIdentifier());
 		this.typeArguments = invocation.arguments().size();
 		this.arguments = new ArrayList<String>();
 		List<Expression> args = invocation.arguments();
 		for(Expression argument : args) {
-			this.arguments.add(argument.toString());
+			this.arguments.add(StringPool.intern(argument.toString()));
 		}
 		if(invocation.getExpression() != null) {
-			this.expression = invocation.getExpression().toString();
+			this.expression = StringPool.intern(invocation.getExpression().toString());
 			processExpression(invocation.getExpression(), this.subExpressions);
 		}
 	}
@@ -77,14 +79,14 @@ public class OperationInvocation extends AbstractCall {
 
 	public OperationInvocation(CompilationUnit cu, String filePath, SuperMethodInvocation invocation) {
 		this.locationInfo = new LocationInfo(cu, filePath, invocation, CodeElementType.SUPER_METHOD_INVOCATION);
-		this.methodName = invocation.getName().getIdentifier();
+		this.methodName = StringPool.intern(invocation.getName().getIdentifier());
 		this.typeArguments = invocation.arguments().size();
 		this.arguments = new ArrayList<String>();
 		this.expression = "super";
 		this.subExpressions.add("super");
 		List<Expression> args = invocation.arguments();
 		for(Expression argument : args) {
-			this.arguments.add(argument.toString());
+			this.arguments.add(StringPool.intern(argument.toString()));
 		}
 	}
 
@@ -95,10 +97,10 @@ public class OperationInvocation extends AbstractCall {
 		this.arguments = new ArrayList<String>();
 		List<Expression> args = invocation.arguments();
 		for(Expression argument : args) {
-			this.arguments.add(argument.toString());
+			this.arguments.add(StringPool.intern(argument.toString()));
 		}
 		if(invocation.getExpression() != null) {
-			this.expression = invocation.getExpression().toString();
+			this.expression = StringPool.intern(invocation.getExpression().toString());
 			processExpression(invocation.getExpression(), this.subExpressions);
 		}
 	}
@@ -110,7 +112,7 @@ public class OperationInvocation extends AbstractCall {
 		this.arguments = new ArrayList<String>();
 		List<Expression> args = invocation.arguments();
 		for(Expression argument : args) {
-			this.arguments.add(argument.toString());
+			this.arguments.add(StringPool.intern(argument.toString()));
 		}
 	}
 
@@ -9,6 +9,7 @@ import org.eclipse.jdt.core.dom.Statement;
 import gr.uom.java.xmi.LocationInfo.CodeElementType;
 
 public class TryStatementObject extends CompositeStatementObject {
+	private static final long serialVersionUID = 1L;
 	private List<CompositeStatementObject> catchClauses;
 	private CompositeStatementObject finallyClause;
 
@@ -49,7 +49,10 @@ import java.util.regex.Pattern;
 
 import org.refactoringminer.api.Refactoring;
 import org.refactoringminer.api.RefactoringMinerTimedOutException;
+import org.refactoringminer.util.CommitProfile;
 import org.refactoringminer.util.PrefixSuffixUtils;
+import org.refactoringminer.util.DetectionEvents.BodyMappingEvent;
+import org.refactoringminer.util.DetectionEvents.TimeoutEvent;
 
 public class UMLOperationBodyMapper implements Comparable<UMLOperationBodyMapper> {
 	private UMLOperation operation1;
@@ -74,6 +77,10 @@ public class UMLOperationBodyMapper implements Comparable<UMLOperationBodyMapper
 	private Map<AbstractCodeFragment, UMLOperation> codeFragmentOperationMap2 = new LinkedHashMap<AbstractCodeFragment, UMLOperation>();
 	
 	public UMLOperationBodyMapper(UMLOperation operation1, UMLOperation operation2, UMLClassBaseDiff classDiff) throws RefactoringMinerTimedOutException {
+		BodyMappingEvent event = new BodyMappingEvent();
+		event.begin();
+		CommitProfile profile = CommitProfile.current();
+		long start = profile != null ? System.nanoTime() : 0;
 		this.classDiff = classDiff;
 		if(classDiff != null)
 			this.modelDiff = classDiff.getModelDiff();
@@ -180,6 +187,29 @@ public class UMLOperationBodyMapper implements Comparable<UMLOperationBodyMapper
 				inlinedVariableAssignment(statement, nonMappedLeavesT2);
 			}
 		}
+		if(event.shouldCommit()) {
+			event.operation1 = operation1.getClassName() + "." + operation1.getName();
+			event.operation2 = operation2.getClassName() + "." + operation2.getName();
+			event.statements1 = body1 != null ? body1.statementCount() : 0;
+			event.statements2 = body2 != null ? body2.statementCount() : 0;
+			event.mappings = mappings.size();
+			event.commit();
+		}
+		if(profile != null) {
+			profile.addMapper(operation1.getClassName() + "." + operation1.getName(), operation2.getClassName() + "." + operation2.getName(), System.nanoTime() - start,
+					body1 != null ? body1.getCompositeStatement().getLeaves().size() : 0, body1 != null ? body1.getCompositeStatement().getInnerNodes().size() : 0,
+					body2 != null ? body2.getCompositeStatement().getLeaves().size() : 0, body2 != null ? body2.getCompositeStatement().getInnerNodes().size() : 0,
+					mappings.size());
+		}
+	}
+
+	private RefactoringMinerTimedOutException timedOut() {
+		TimeoutEvent event = new TimeoutEvent();
+		if(event.shouldCommit()) {
+			event.operation = operation1.getClassName() + "." + operation1.getName();
+			event.commit();
+		}
+		return new RefactoringMinerTimedOutException();
 	}
 
 	private UMLOperationBodyMapper(LambdaExpressionObject lambda1, LambdaExpressionObject lambda2, UMLOperationBodyMapper parentMapper) throws RefactoringMinerTimedOutException {
@@ -293,6 +323,16 @@ public class UMLOperationBodyMapper implements Comparable<UMLOperationBodyMapper
 
 	public UMLOperationBodyMapper(UMLOperationBodyMapper operationBodyMapper, UMLOperation addedOperation,
 			Map<String, String> parameterToArgumentMap1, Map<String, String> parameterToArgumentMap2, UMLClassBaseDiff classDiff) throws RefactoringMinerTimedOutException {
+		this(operationBodyMapper, operationBodyMapper.getNonMappedLeavesT1(), operationBodyMapper.getNonMappedInnerNodesT1(), addedOperation,
+				parameterToArgumentMap1, parameterToArgumentMap2, classDiff);
+	}
+
+	/**
+	 * Maps the added operation to the non-mapped statements of the parent mapper in {@code parentLeavesT1} and {@code parentInnerNodesT1},
+	 * from which the mapped statements are removed. With copies of the lists, the parent mapper is left unchanged.
+	 */
+	public UMLOperationBodyMapper(UMLOperationBodyMapper operationBodyMapper, List<StatementObject> parentLeavesT1, List<CompositeStatementObject> parentInnerNodesT1,
+			UMLOperation addedOperation, Map<String, String> parameterToArgumentMap1, Map<String, String> parameterToArgumentMap2, UMLClassBaseDiff classDiff) throws RefactoringMinerTimedOutException {
 		this.parentMapper = operationBodyMapper;
 		this.operation1 = operationBodyMapper.operation1;
 		this.callSiteOperation = operationBodyMapper.operation2;
@@ -307,12 +347,12 @@ public class UMLOperationBodyMapper implements Comparable<UMLOperationBodyMapper
 		OperationBody addedOperationBody = addedOperation.getBody();
 		if(addedOperationBody != null) {
 			CompositeStatementObject composite2 = addedOperationBody.getCompositeStatement();
-			List<StatementObject> leaves1 = operationBodyMapper.getNonMappedLeavesT1();
-			List<CompositeStatementObject> innerNodes1 = operationBodyMapper.getNonMappedInnerNodesT1();
+			List<StatementObject> leaves1 = parentLeavesT1;
+			List<CompositeStatementObject> innerNodes1 = parentInnerNodesT1;
 			//adding leaves that were mapped with replacements
 			Set<StatementObject> addedLeaves1 = new LinkedHashSet<StatementObject>();
 			Set<CompositeStatementObject> addedInnerNodes1 = new LinkedHashSet<CompositeStatementObject>();
-			for(StatementObject nonMappedLeaf1 : new ArrayList<>(operationBodyMapper.getNonMappedLeavesT1())) {
+			for(StatementObject nonMappedLeaf1 : new ArrayList<>(leaves1)) {
 				expandAnonymousAndLambdas(nonMappedLeaf1, leaves1, innerNodes1, addedLeaves1, addedInnerNodes1, operationBodyMapper);
 			}
 			for(AbstractCodeMapping mapping : operationBodyMapper.getMappings()) {
@@ -432,7 +472,7 @@ public class UMLOperationBodyMapper implements Comparable<UMLOperationBodyMapper
 			
 			//match expressions in inner nodes from T1 with leaves from T2
 			List<AbstractExpression> expressionsT1 = new ArrayList<AbstractExpression>();
-			for(CompositeStatementObject composite : operationBodyMapper.getNonMappedInnerNodesT1()) {
+			for(CompositeStatementObject composite : innerNodes1) {
 				for(AbstractExpression expression : composite.getExpressions()) {
 					expression.replaceParametersWithArguments(parameterToArgumentMap1);
 					expressionsT1.add(expression);
@@ -1906,7 +1946,7 @@ public class UMLOperationBodyMapper implements Comparable<UMLOperationBodyMapper
 				int minDistance = replacementInfo.getRawDistance();
 				for(String s2 : variablesAndMethodInvocations2) {
 					if(Thread.interrupted()) {
-						throw new RefactoringMinerTimedOutException();
+						throw timedOut();
 					}
 					String temp = ReplacementUtil.performReplacement(replacementInfo.getArgumentizedString1(), replacementInfo.getArgumentizedString2(), s1, s2);
 					int distanceRaw = StringDistance.editDistance(temp, replacementInfo.getArgumentizedString2(), minDistance);
@@ -3941,7 +3981,7 @@ public class UMLOperationBodyMapper implements Comparable<UMLOperationBodyMapper
 				TreeMap<Double, Replacement> replacementMap = new TreeMap<Double, Replacement>();
 				for(String s2 : strings2) {
 					if(Thread.interrupted()) {
-						throw new RefactoringMinerTimedOutException();
+						throw timedOut();
 					}
 					boolean containsMethodSignatureOfAnonymousClass1 = containsMethodSignatureOfAnonymousClass(s1);
 					boolean containsMethodSignatureOfAnonymousClass2 = containsMethodSignatureOfAnonymousClass(s2);
@@ -3990,7 +4030,7 @@ public class UMLOperationBodyMapper implements Comparable<UMLOperationBodyMapper
 				TreeMap<Double, Replacement> replacementMap = new TreeMap<Double, Replacement>();
 				for(String s1 : strings1) {
 					if(Thread.interrupted()) {
-						throw new RefactoringMinerTimedOutException();
+						throw timedOut();
 					}
 					boolean containsMethodSignatureOfAnonymousClass1 = containsMethodSignatureOfAnonymousClass(s1);
 					boolean containsMethodSignatureOfAnonymousClass2 = containsMethodSignatureOfAnonymousClass(s2);
@@ -1,5 +1,6 @@
 package gr.uom.java.xmi.decomposition;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,12 +20,14 @@ import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
 import gr.uom.java.xmi.LocationInfo;
 import gr.uom.java.xmi.LocationInfo.CodeElementType;
 import gr.uom.java.xmi.LocationInfoProvider;
+import gr.uom.java.xmi.StringPool;
 import gr.uom.java.xmi.UMLAnnotation;
 import gr.uom.java.xmi.UMLType;
 import gr.uom.java.xmi.VariableDeclarationProvider;
 import gr.uom.java.xmi.diff.CodeRange;
 
-public class VariableDeclaration implements LocationInfoProvider, VariableDeclarationProvider {
+public class VariableDeclaration implements LocationInfoProvider, VariableDeclarationProvider, Serializable {
+	private static final long serialVersionUID = 1L;
 	private String variableName;
 	private AbstractExpression initializer;
 	private UMLType type;
@@ -60,7 +63,7 @@ public class VariableDeclaration implements LocationInfoProvider, VariableDeclar
 			}
 		}
 		this.locationInfo = new LocationInfo(cu, filePath, fragment, extractVariableDeclarationType(fragment));
-		this.variableName = fragment.getName().getIdentifier();
+		this.variableName = StringPool.intern(fragment.getName().getIdentifier());
 		this.initializer = fragment.getInitializer() != null ? new AbstractExpression(cu, filePath, fragment.getInitializer(), CodeElementType.VARIABLE_DECLARATION_INITIALIZER) : null;
 		Type astType = extractType(fragment);
 		this.type = UMLType.extractTypeObject(cu, filePath, astType, fragment.getExtraDimensions());
@@ -87,7 +90,7 @@ public class VariableDeclaration implements LocationInfoProvider, VariableDeclar
 			}
 		}
 		this.locationInfo = new LocationInfo(cu, filePath, fragment, extractVariableDeclarationType(fragment));
-		this.variableName = fragment.getName().getIdentifier();
+		this.variableName = StringPool.intern(fragment.getName().getIdentifier());
 		this.initializer = fragment.getInitializer() != null ? new AbstractExpression(cu, filePath, fragment.getInitializer(), CodeElementType.VARIABLE_DECLARATION_INITIALIZER) : null;
 		Type astType = extractType(fragment);
 		this.type = UMLType.extractTypeObject(cu, filePath, astType, fragment.getExtraDimensions());
@@ -113,7 +116,7 @@ public class VariableDeclaration implements LocationInfoProvider, VariableDeclar
 			}
 		}
 		this.locationInfo = new LocationInfo(cu, filePath, fragment, CodeElementType.ENUM_CONSTANT_DECLARATION);
-		this.variableName = fragment.getName().getIdentifier();
+		this.variableName = StringPool.intern(fragment.getName().getIdentifier());
 		this.initializer = null;
 		if(fragment.getParent() instanceof EnumDeclaration) {
 			EnumDeclaration enumDeclaration = (EnumDeclaration)fragment.getParent();
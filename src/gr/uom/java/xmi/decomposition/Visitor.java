@@ -54,6 +54,8 @@ import org.eclipse.jdt.core.dom.TypeLiteral;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
 import org.eclipse.jdt.core.dom.WildcardType;
 
+import gr.uom.java.xmi.StringPool;
+
 public class Visitor extends ASTVisitor {
 	public static final Pattern METHOD_INVOCATION_PATTERN = Pattern.compile("!(\\w|\\.)*@\\w*");
 	public static final Pattern METHOD_SIGNATURE_PATTERN = Pattern.compile("(public|protected|private|static|\\s) +[\\w\\<\\>\\[\\]]+\\s+(\\w+) *\\([^\\)]*\\) *(\\{?|[^;])");
@@ -141,7 +143,7 @@ public class Visitor extends ASTVisitor {
 			processArgument(argument);
 		}
 		ObjectCreation creation = new ObjectCreation(cu, filePath, node);
-		String nodeAsString = node.toString();
+		String nodeAsString = StringPool.intern(node.toString());
 		if(creationMap.containsKey(nodeAsString)) {
 			creationMap.get(nodeAsString).add(creation);
 		}
@@ -167,7 +169,7 @@ public class Visitor extends ASTVisitor {
 
 	public boolean visit(ArrayCreation node) {
 		ObjectCreation creation = new ObjectCreation(cu, filePath, node);
-		String nodeAsString = node.toString();
+		String nodeAsString = StringPool.intern(node.toString());
 		if(creationMap.containsKey(nodeAsString)) {
 			creationMap.get(nodeAsString).add(creation);
 		}
@@ -504,10 +506,10 @@ public class Visitor extends ASTVisitor {
 		}
 		String methodInvocation = null;
 		if(METHOD_INVOCATION_PATTERN.matcher(node.toString()).matches()) {
-			methodInvocation = processMethodInvocation(node);
+			methodInvocation = StringPool.intern(processMethodInvocation(node));
 		}
 		else {
-			methodInvocation = node.toString();
+			methodInvocation = StringPool.intern(node.toString());
 		}
 		if(methodInvocationMap.isEmpty() && node.getExpression() instanceof MethodInvocation &&
 				!(node.getName().getIdentifier().equals("length") && node.arguments().size() == 0)) {
@@ -591,7 +593,7 @@ public class Visitor extends ASTVisitor {
 			processArgument(argument);
 		}
 		OperationInvocation invocation = new OperationInvocation(cu, filePath, node);
-		String nodeAsString = node.toString();
+		String nodeAsString = StringPool.intern(node.toString());
 		if(methodInvocationMap.containsKey(nodeAsString)) {
 			methodInvocationMap.get(nodeAsString).add(invocation);
 		}
@@ -621,7 +623,7 @@ public class Visitor extends ASTVisitor {
 			processArgument(argument);
 		}
 		OperationInvocation invocation = new OperationInvocation(cu, filePath, node);
-		String nodeAsString = node.toString();
+		String nodeAsString = StringPool.intern(node.toString());
 		if(methodInvocationMap.containsKey(nodeAsString)) {
 			methodInvocationMap.get(nodeAsString).add(invocation);
 		}
@@ -651,7 +653,7 @@ public class Visitor extends ASTVisitor {
 			processArgument(argument);
 		}
 		OperationInvocation invocation = new OperationInvocation(cu, filePath, node);
-		String nodeAsString = node.toString();
+		String nodeAsString = StringPool.intern(node.toString());
 		if(methodInvocationMap.containsKey(nodeAsString)) {
 			methodInvocationMap.get(nodeAsString).add(invocation);
 		}
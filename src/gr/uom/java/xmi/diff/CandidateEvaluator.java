@@ -0,0 +1,170 @@
+package gr.uom.java.xmi.diff;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.refactoringminer.api.RefactoringMinerTimedOutException;
+import org.refactoringminer.util.CommitProfile;
+
+import gr.uom.java.xmi.decomposition.AbstractCodeFragment;
+import gr.uom.java.xmi.decomposition.AbstractCodeFragment.ArgumentizationScope;
+
+/**
+ * Evaluates the candidates of a detection loop in parallel on the pool given by {@link UMLModelDiff#setCandidatePool(ExecutorService)}.
+ * <p>
+ * The results must be consumed in the order of the candidates with {@link #get(int)}, and the evaluator closed with {@link #close()}.
+ * Until then, the argumentization of the code fragments is only recorded in scopes: each candidate reads the fragments as they were
+ * before the evaluation, and the calling thread records the argumentization of the candidates it consumed and its own.
+ * A candidate that read an argumentization changed by the previous candidates or by the calling thread is evaluated again on the
+ * calling thread, so that each candidate sees what the previous ones wrote, as if they were evaluated one after the other.
+ * The recorded argumentization is stored to the fragments when the evaluator is closed, after all the candidates have finished.
+ * <p>
+ * A candidate must not change the objects read by the other candidates, and leaves these changes to the calling thread
+ * when its result is consumed. Without a pool, each candidate is evaluated on the calling thread when its result is consumed.
+ */
+class CandidateEvaluator<T> {
+	interface Candidate<T> {
+		T evaluate() throws RefactoringMinerTimedOutException;
+	}
+
+	private final List<? extends Candidate<T>> candidates;
+	private final List<Future<Evaluation<T>>> futures;
+	private final ArgumentizationScope scope;
+	private final Object lock = new Object();
+	private int running;
+	private boolean closed;
+
+	CandidateEvaluator(List<? extends Candidate<T>> candidates, ExecutorService pool) {
+		this.candidates = candidates;
+		//an evaluator opened by a candidate evaluates its own candidates on the same thread
+		if(pool != null && candidates.size() > 1 && !AbstractCodeFragment.inArgumentizationScope()) {
+			CommitProfile profile = CommitProfile.current();
+			this.scope = AbstractCodeFragment.openArgumentizationScope(false);
+			this.futures = new ArrayList<Future<Evaluation<T>>>(candidates.size());
+			for(Candidate<T> candidate : candidates) {
+				futures.add(pool.submit(() -> evaluate(candidate, profile)));
+			}
+		}
+		else {
+			this.scope = null;
+			this.futures = null;
+		}
+	}
+
+	private Evaluation<T> evaluate(Candidate<T> candidate, CommitProfile profile) throws RefactoringMinerTimedOutException {
+		synchronized(lock) {
+			if(closed) {
+				return null;
+			}
+			running++;
+		}
+		CommitProfile.bind(profile);
+		ArgumentizationScope argumentization = AbstractCodeFragment.openArgumentizationScope(true);
+		try {
+			return new Evaluation<T>(candidate.evaluate(), argumentization);
+		}
+		finally {
+			AbstractCodeFragment.closeArgumentizationScope();
+			CommitProfile.bind(null);
+			synchronized(lock) {
+				running--;
+				lock.notifyAll();
+			}
+		}
+	}
+
+	int size() {
+		return candidates.size();
+	}
+
+	/**
+	 * @return The result of the candidate at the given index. Must be called in increasing index order.
+	 */
+	T get(int index) throws RefactoringMinerTimedOutException {
+		if(futures == null) {
+			return candidates.get(index).evaluate();
+		}
+		try {
+			Evaluation<T> evaluation = futures.get(index).get();
+			if(evaluation.argumentization.readSameAs(scope)) {
+				scope.putAll(evaluation.argumentization);
+				return evaluation.result;
+			}
+			CommitProfile.countCandidatePair("candidatesEvaluatedAgain");
+			return candidates.get(index).evaluate();
+		} catch (InterruptedException e) {
+			throw new RefactoringMinerTimedOutException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RefactoringMinerTimedOutException) {
+				throw (RefactoringMinerTimedOutException)cause;
+			}
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException)cause;
+			}
+			if(cause instanceof Error) {
+				throw (Error)cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * Waits until all the candidates are evaluated, before the calling thread changes the state they depend on.
+	 */
+	void awaitAll() throws RefactoringMinerTimedOutException {
+		if(futures == null) {
+			return;
+		}
+		for(Future<Evaluation<T>> future : futures) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				throw new RefactoringMinerTimedOutException();
+			} catch (ExecutionException e) {
+				//reported when the result is consumed
+			}
+		}
+	}
+
+	/**
+	 * Cancels the candidates not consumed, waits until none of them is running, and stores the recorded argumentization to the fragments.
+	 */
+	void close() {
+		if(futures == null) {
+			return;
+		}
+		for(Future<Evaluation<T>> future : futures) {
+			future.cancel(true);
+		}
+		boolean interrupted = false;
+		synchronized(lock) {
+			closed = true;
+			while(running > 0) {
+				try {
+					lock.wait();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		AbstractCodeFragment.closeArgumentizationScope();
+		scope.apply();
+		if(interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static class Evaluation<T> {
+		private final T result;
+		private final ArgumentizationScope argumentization;
+
+		private Evaluation(T result, ArgumentizationScope argumentization) {
+			this.result = result;
+			this.argumentization = argumentization;
+		}
+	}
+}
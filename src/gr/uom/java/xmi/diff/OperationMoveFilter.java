@@ -0,0 +1,291 @@
+package gr.uom.java.xmi.diff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.refactoringminer.util.MetricsRegistry;
+import org.refactoringminer.util.MetricsRegistry.Counter;
+
+import gr.uom.java.xmi.UMLOperation;
+import gr.uom.java.xmi.decomposition.AbstractCodeFragment;
+import gr.uom.java.xmi.decomposition.CompositeStatementObject;
+import gr.uom.java.xmi.decomposition.OperationBody;
+import gr.uom.java.xmi.decomposition.StatementObject;
+import gr.uom.java.xmi.decomposition.VariableDeclaration;
+
+/**
+ * Pre-filter for the (removed, added) operation pairs evaluated as move candidates, computed once per operation.
+ * <p>
+ * {@link Mode#PROVABLE} skips the pairs that cannot satisfy {@code UMLModelDiff.mappedElementsMoreThanNonMappedT1AndT2}
+ * whatever their mappings, unless they are two abstract methods with the same signature. The mapper maps each statement at most
+ * once on the side it iterates, so the mappings are at most the statements of the smaller body, and every statement not mapped
+ * is counted as non-mapped, less the statements that the acceptance condition discounts (declarations of the same variable,
+ * loops over the same variable, and temporary variables in the added operation). Comparing the largest possible number of
+ * mappings with the smallest possible number of non-mapped statements gives a bound that never skips an accepted pair. The
+ * pairs whose bodies both contain lambdas or anonymous classes are not skipped, since their nested bodies are mapped too.
+ * <p>
+ * {@link Mode#BOUNDED} additionally skips pairs whose bags of normalized statement hashes (identifiers and literals abstracted)
+ * have a Jaccard similarity below the threshold. The statement matcher can still map statements with different structure
+ * through replacements, so this bound is not exact. {@link Mode#PARITY} builds all mappers as with {@link Mode#OFF} and reports
+ * the accepted pairs that either bound would have skipped; the {@code oracleParity} build task runs the oracle in this mode
+ * and with {@link Mode#BOUNDED}.
+ */
+public class OperationMoveFilter {
+	public enum Mode {
+		OFF, PROVABLE, BOUNDED, PARITY;
+	}
+
+	public static final String MODE_PROPERTY = "refactoringminer.moveFilter";
+	public static final String JACCARD_PROPERTY = "refactoringminer.moveFilter.minJaccard";
+	private static final Counter SKIPPED_PAIRS = MetricsRegistry.getDefault().counter("refactoringminer_move_candidates_skipped_total", "Move candidate pairs skipped by the pre-filter");
+	private static final Counter FALSE_REJECTIONS = MetricsRegistry.getDefault().counter("refactoringminer_move_filter_false_rejections_total", "Accepted move candidate pairs that the bounded pre-filter would have skipped");
+	private static final Counter PROVABLE_FALSE_REJECTIONS = MetricsRegistry.getDefault().counter("refactoringminer_move_filter_provable_false_rejections_total", "Accepted move candidate pairs that the provable pre-filter would have skipped");
+	private static final Pattern LITERAL = Pattern.compile("\"(?:[^\"\\\\]|\\\\.)*\"|'(?:[^'\\\\]|\\\\.)*'|\\b\\d[\\w.]*");
+	private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_$][\\w$]*");
+	private static final Set<String> KEYWORDS = new HashSet<String>(Arrays.asList(
+			"abstract", "assert", "break", "case", "catch", "class", "continue", "default", "do", "else", "final", "finally",
+			"for", "if", "instanceof", "new", "return", "super", "switch", "synchronized", "this", "throw", "try", "while",
+			"null", "true", "false"));
+
+	private final Mode mode;
+	private final double minJaccard;
+	private final Map<UMLOperation, Summary> summaries = new IdentityHashMap<UMLOperation, Summary>();
+	private final List<String> falseRejections = new ArrayList<String>();
+	private final List<String> provableFalseRejections = new ArrayList<String>();
+
+	public OperationMoveFilter() {
+		this(Mode.valueOf(System.getProperty(MODE_PROPERTY, Mode.PROVABLE.name())),
+				Double.parseDouble(System.getProperty(JACCARD_PROPERTY, "0.05")));
+	}
+
+	public OperationMoveFilter(Mode mode, double minJaccard) {
+		this.mode = mode;
+		this.minJaccard = minJaccard;
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	/**
+	 * @return True if the mapper of the pair must not be built. In {@link Mode#PARITY} this is always false.
+	 */
+	public boolean skip(UMLOperation removedOperation, UMLOperation addedOperation) {
+		if(mode == Mode.OFF || mode == Mode.PARITY) {
+			return false;
+		}
+		boolean skip = mode == Mode.BOUNDED ? boundedSkip(removedOperation, addedOperation) : provableSkip(removedOperation, addedOperation);
+		if(skip) {
+			SKIPPED_PAIRS.increment();
+		}
+		return skip;
+	}
+
+	/**
+	 * Called for the pairs accepted as move candidates. In {@link Mode#PARITY} reports the pairs that {@link Mode#PROVABLE}
+	 * or {@link Mode#BOUNDED} would have skipped.
+	 */
+	public void accepted(UMLOperation removedOperation, UMLOperation addedOperation) {
+		if(mode != Mode.PARITY) {
+			return;
+		}
+		String pair = removedOperation.getClassName() + "." + removedOperation + " -> " + addedOperation.getClassName() + "." + addedOperation;
+		if(provableSkip(removedOperation, addedOperation)) {
+			PROVABLE_FALSE_REJECTIONS.increment();
+			synchronized(provableFalseRejections) {
+				provableFalseRejections.add(pair);
+			}
+		}
+		if(boundedSkip(removedOperation, addedOperation)) {
+			FALSE_REJECTIONS.increment();
+			synchronized(falseRejections) {
+				falseRejections.add(pair);
+			}
+		}
+	}
+
+	/**
+	 * @return The accepted pairs that {@link Mode#BOUNDED} would have skipped.
+	 */
+	public List<String> getFalseRejections() {
+		synchronized(falseRejections) {
+			return new ArrayList<String>(falseRejections);
+		}
+	}
+
+	/**
+	 * @return The accepted pairs that {@link Mode#PROVABLE} would have skipped, which is always empty unless the bound is wrong.
+	 */
+	public List<String> getProvableFalseRejections() {
+		synchronized(provableFalseRejections) {
+			return new ArrayList<String>(provableFalseRejections);
+		}
+	}
+
+	private boolean provableSkip(UMLOperation removedOperation, UMLOperation addedOperation) {
+		if(abstractMethodsWithEqualSignature(removedOperation, addedOperation)) {
+			return false;
+		}
+		Summary summary1 = summary(removedOperation);
+		Summary summary2 = summary(addedOperation);
+		if(summary1.nestedBodies && summary2.nestedBodies) {
+			return false;
+		}
+		return !acceptable(summary1, summary2);
+	}
+
+	/**
+	 * Evaluates the acceptance condition with the largest possible number of mappings and the smallest possible numbers of
+	 * non-mapped statements, which are its most favorable values since each term of the condition is monotonic in them.
+	 */
+	static boolean acceptable(Summary summary1, Summary summary2) {
+		int maxMappings = Math.min(summary1.statements(), summary2.statements());
+		if(maxMappings == 0) {
+			return false;
+		}
+		//the non-mapped statements discounted as declarations of the same variable and loops over the same variable
+		int discounted = summary1.sameVariableDeclarations(summary2) + summary1.loops * summary2.loops;
+		//a countable statement can also be mapped to a statement that is not countable
+		int minNonMappedT1 = Math.max(summary1.countableStatements - maxMappings - summary2.uncountableStatements, 0);
+		int minNonMappedT2 = Math.max(summary2.countableStatements - maxMappings - summary1.uncountableStatements - summary2.variableDeclarations, 0);
+		int minDiscountedT1 = minNonMappedT1 - discounted;
+		int minDiscountedT2 = minNonMappedT2 - discounted;
+		return (maxMappings > minDiscountedT1 && maxMappings > minDiscountedT2) ||
+				(minDiscountedT1 <= 0 && maxMappings > minNonMappedT2/2) ||
+				(minDiscountedT2 <= 0 && maxMappings > minNonMappedT1/2);
+	}
+
+	private boolean boundedSkip(UMLOperation removedOperation, UMLOperation addedOperation) {
+		if(abstractMethodsWithEqualSignature(removedOperation, addedOperation)) {
+			return false;
+		}
+		Summary summary1 = summary(removedOperation);
+		Summary summary2 = summary(addedOperation);
+		if(summary1.countableStatements == 0 || summary2.countableStatements == 0) {
+			return true;
+		}
+		int intersection = summary1.intersection(summary2);
+		double jaccard = (double)intersection / (summary1.countableStatements + summary2.countableStatements - intersection);
+		return jaccard < minJaccard;
+	}
+
+	private static boolean abstractMethodsWithEqualSignature(UMLOperation removedOperation, UMLOperation addedOperation) {
+		return removedOperation.equalSignatureForAbstractMethods(addedOperation) || addedOperation.equalSignatureForAbstractMethods(removedOperation);
+	}
+
+	private Summary summary(UMLOperation operation) {
+		synchronized(summaries) {
+			Summary summary = summaries.get(operation);
+			if(summary == null) {
+				summary = new Summary(operation.getBody());
+				summaries.put(operation, summary);
+			}
+			return summary;
+		}
+	}
+
+	static String normalize(String statement) {
+		Matcher literalMatcher = LITERAL.matcher(statement);
+		String withoutLiterals = literalMatcher.replaceAll("#");
+		Matcher identifierMatcher = IDENTIFIER.matcher(withoutLiterals);
+		StringBuffer sb = new StringBuffer();
+		while(identifierMatcher.find()) {
+			String identifier = identifierMatcher.group();
+			identifierMatcher.appendReplacement(sb, KEYWORDS.contains(identifier) ? identifier : "\\$");
+		}
+		identifierMatcher.appendTail(sb);
+		return sb.toString();
+	}
+
+	static class Summary {
+		private int countableStatements;
+		private int uncountableStatements;
+		private int loops;
+		//statements declaring a variable, which can be temporary variables of an extracted expression
+		private int variableDeclarations;
+		//statements declaring a single variable with an initializer, which can match an attribute of the target class
+		private int initializedDeclarations;
+		private boolean nestedBodies;
+		private final Map<String, Integer> singleDeclarations = new HashMap<String, Integer>();
+		private final Map<Integer, Integer> bag = new HashMap<Integer, Integer>();
+
+		Summary(OperationBody body) {
+			if(body != null) {
+				CompositeStatementObject composite = body.getCompositeStatement();
+				List<StatementObject> leaves = composite.getLeaves();
+				add(leaves);
+				List<CompositeStatementObject> innerNodes = composite.getInnerNodes();
+				innerNodes.remove(composite);
+				add(innerNodes);
+				for(StatementObject leaf : leaves) {
+					List<VariableDeclaration> declarations = leaf.getVariableDeclarations();
+					if(!declarations.isEmpty() && leaf.countableStatement()) {
+						variableDeclarations++;
+					}
+					if(declarations.size() == 1) {
+						singleDeclarations.merge(declarations.get(0).getVariableName(), 1, Integer::sum);
+						if(declarations.get(0).getInitializer() != null) {
+							initializedDeclarations++;
+						}
+					}
+				}
+				for(CompositeStatementObject innerNode : innerNodes) {
+					if(innerNode.isLoop()) {
+						loops++;
+					}
+				}
+				nestedBodies = !body.getAllAnonymousClassDeclarations().isEmpty() || !body.getAllLambdas().isEmpty();
+			}
+		}
+
+		private void add(List<? extends AbstractCodeFragment> fragments) {
+			for(AbstractCodeFragment fragment : fragments) {
+				if(fragment.countableStatement()) {
+					countableStatements++;
+					bag.merge(normalize(fragment.getString()).hashCode(), 1, Integer::sum);
+				}
+				else {
+					uncountableStatements++;
+				}
+			}
+		}
+
+		private int statements() {
+			return countableStatements + uncountableStatements;
+		}
+
+		/**
+		 * @return The largest number of non-mapped statement pairs declaring the same variable, with the declarations that can
+		 * match an attribute of the target class.
+		 */
+		private int sameVariableDeclarations(Summary other) {
+			int pairs = initializedDeclarations;
+			for(Map.Entry<String, Integer> entry : singleDeclarations.entrySet()) {
+				Integer count = other.singleDeclarations.get(entry.getKey());
+				if(count != null) {
+					pairs += count * entry.getValue();
+				}
+			}
+			return pairs;
+		}
+
+		private int intersection(Summary other) {
+			int intersection = 0;
+			for(Map.Entry<Integer, Integer> entry : bag.entrySet()) {
+				Integer count = other.bag.get(entry.getKey());
+				if(count != null) {
+					intersection += Math.min(count, entry.getValue());
+				}
+			}
+			return intersection;
+		}
+	}
+}
@@ -12,6 +12,9 @@ import java.util.TreeSet;
 
 import org.refactoringminer.api.Refactoring;
 import org.refactoringminer.api.RefactoringMinerTimedOutException;
+import org.refactoringminer.util.CommitProfile;
+import org.refactoringminer.util.DetectionEvents.ClassDiffEvent;
+import org.refactoringminer.util.DetectionEvents.ExtractInlineDetectionEvent;
 import org.refactoringminer.util.PrefixSuffixUtils;
 
 import gr.uom.java.xmi.UMLAnnotation;
@@ -98,6 +101,8 @@ public abstract class UMLClassBaseDiff implements Comparable<UMLClassBaseDiff> {
 	}
 
 	public void process() throws RefactoringMinerTimedOutException {
+		ClassDiffEvent event = new ClassDiffEvent();
+		event.begin();
 		processAnnotations();
 		processEnumConstants();
 		processInheritance();
@@ -109,6 +114,14 @@ public abstract class UMLClassBaseDiff implements Comparable<UMLClassBaseDiff> {
 		checkForAttributeChanges();
 		checkForInlinedOperations();
 		checkForExtractedOperations();
+		if(event.shouldCommit()) {
+			event.originalClass = getOriginalClassName();
+			event.nextClass = getNextClassName();
+			event.operationBodyMappers = operationBodyMapperList.size();
+			event.removedOperations = removedOperations.size();
+			event.addedOperations = addedOperations.size();
+			event.commit();
+		}
 	}
 
 	private void processAnnotations() {
@@ -1149,6 +1162,7 @@ public abstract class UMLClassBaseDiff implements Comparable<UMLClassBaseDiff> {
 	}
 
 	private void updateMapperSet(TreeSet<UMLOperationBodyMapper> mapperSet, UMLOperation removedOperation, UMLOperation addedOperation, int differenceInPosition) throws RefactoringMinerTimedOutException {
+		CommitProfile.countCandidatePair("operationSignatureChanges");
 		UMLOperationBodyMapper operationBodyMapper = new UMLOperationBodyMapper(removedOperation, addedOperation, this);
 		List<AbstractCodeMapping> totalMappings = new ArrayList<AbstractCodeMapping>(operationBodyMapper.getMappings());
 		int mappings = operationBodyMapper.mappingsWithoutBlocks();
@@ -1198,6 +1212,7 @@ public abstract class UMLClassBaseDiff implements Comparable<UMLClassBaseDiff> {
 	}
 
 	private void updateMapperSet(TreeSet<UMLOperationBodyMapper> mapperSet, UMLOperation removedOperation, UMLOperation operationInsideAnonymousClass, UMLOperation addedOperation, int differenceInPosition) throws RefactoringMinerTimedOutException {
+		CommitProfile.countCandidatePair("operationSignatureChanges");
 		UMLOperationBodyMapper operationBodyMapper = new UMLOperationBodyMapper(removedOperation, operationInsideAnonymousClass, this);
 		int mappings = operationBodyMapper.mappingsWithoutBlocks();
 		if(mappings > 0) {
@@ -1653,6 +1668,9 @@ public abstract class UMLClassBaseDiff implements Comparable<UMLClassBaseDiff> {
 	}
 
 	private void checkForInlinedOperations() throws RefactoringMinerTimedOutException {
+		ExtractInlineDetectionEvent event = new ExtractInlineDetectionEvent();
+		event.begin();
+		int candidatePairs = removedOperations.size() * getOperationBodyMapperList().size();
 		List<UMLOperation> operationsToBeRemoved = new ArrayList<UMLOperation>();
 		for(Iterator<UMLOperation> removedOperationIterator = removedOperations.iterator(); removedOperationIterator.hasNext();) {
 			UMLOperation removedOperation = removedOperationIterator.next();
@@ -1669,9 +1687,27 @@ public abstract class UMLClassBaseDiff implements Comparable<UMLClassBaseDiff> {
 			}
 		}
 		removedOperations.removeAll(operationsToBeRemoved);
+		commitExtractInlineDetectionEvent(event, "inline", candidatePairs, operationsToBeRemoved.size());
+	}
+
+	private void commitExtractInlineDetectionEvent(ExtractInlineDetectionEvent event, String kind, int candidatePairs, int refactorings) {
+		CommitProfile profile = CommitProfile.current();
+		if(profile != null) {
+			profile.addCandidatePairs(kind, candidatePairs);
+		}
+		if(event.shouldCommit()) {
+			event.className = getNextClassName();
+			event.kind = kind;
+			event.candidatePairs = candidatePairs;
+			event.refactorings = refactorings;
+			event.commit();
+		}
 	}
 
 	private void checkForExtractedOperations() throws RefactoringMinerTimedOutException {
+		ExtractInlineDetectionEvent event = new ExtractInlineDetectionEvent();
+		event.begin();
+		int candidatePairs = addedOperations.size() * getOperationBodyMapperList().size();
 		List<UMLOperation> operationsToBeRemoved = new ArrayList<UMLOperation>();
 		for(Iterator<UMLOperation> addedOperationIterator = addedOperations.iterator(); addedOperationIterator.hasNext();) {
 			UMLOperation addedOperation = addedOperationIterator.next();
@@ -1689,6 +1725,7 @@ public abstract class UMLClassBaseDiff implements Comparable<UMLClassBaseDiff> {
 			}
 		}
 		addedOperations.removeAll(operationsToBeRemoved);
+		commitExtractInlineDetectionEvent(event, "extract", candidatePairs, operationsToBeRemoved.size());
 	}
 
 	private void checkForInconsistentVariableRenames(UMLOperationBodyMapper mapper) {
@@ -36,12 +36,14 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.refactoringminer.api.Refactoring;
 import org.refactoringminer.api.RefactoringMinerTimedOutException;
 import org.refactoringminer.api.RefactoringType;
+import org.refactoringminer.util.CommitProfile;
 import org.refactoringminer.util.PrefixSuffixUtils;
 
 public class UMLModelDiff {
@@ -64,7 +66,30 @@ public class UMLModelDiff {
    private List<Refactoring> refactorings;
    private Set<String> deletedFolderPaths;
    private Set<Pair<UMLOperation, UMLOperation>> processedOperationPairs = new HashSet<Pair<UMLOperation, UMLOperation>>();
+   private OperationMoveFilter operationMoveFilter = new OperationMoveFilter();
+   private ExecutorService candidatePool;
    
+   /**
+    * Replaces the pre-filter of move candidate pairs, which defaults to {@link OperationMoveFilter.Mode#PROVABLE}
+    * or the mode in the {@value OperationMoveFilter#MODE_PROPERTY} system property.
+    */
+   public void setOperationMoveFilter(OperationMoveFilter operationMoveFilter) {
+      this.operationMoveFilter = operationMoveFilter;
+   }
+
+   public OperationMoveFilter getOperationMoveFilter() {
+      return operationMoveFilter;
+   }
+
+   /**
+    * Sets the pool building the body mappers of the move candidates of an operation, or null to build them on the calling thread.
+    * A candidate that read the argumentization of a statement changed by the previous candidates is built again on the calling thread,
+    * so the detected refactorings are the same with or without a pool.
+    */
+   public void setCandidatePool(ExecutorService candidatePool) {
+      this.candidatePool = candidatePool;
+   }
+
    public UMLModelDiff() {
       this.addedClasses = new ArrayList<UMLClass>();
       this.removedClasses = new ArrayList<UMLClass>();
@@ -1753,6 +1778,7 @@ public class UMLModelDiff {
 									parameterToArgumentMap2.put(expression + ".", "");
 									parameterToArgumentMap1.put("this.", "");
 								}
+								CommitProfile.countCandidatePair("moveAndInline");
 								UMLOperationBodyMapper operationBodyMapper = new UMLOperationBodyMapper(removedOperation, mapper, parameterToArgumentMap1, parameterToArgumentMap2, getUMLClassDiff(removedOperation.getClassName()));
 								if(moveAndInlineMatchCondition(operationBodyMapper, mapper)) {
 									InlineOperationRefactoring inlineOperationRefactoring =	new InlineOperationRefactoring(operationBodyMapper, mapper.getOperation1(), removedOperationInvocations);
@@ -1816,6 +1842,7 @@ public class UMLModelDiff {
    private void checkForExtractedAndMovedOperations(List<UMLOperationBodyMapper> mappers, List<UMLOperation> addedOperations) throws RefactoringMinerTimedOutException {
       for(Iterator<UMLOperation> addedOperationIterator = addedOperations.iterator(); addedOperationIterator.hasNext();) {
     	  UMLOperation addedOperation = addedOperationIterator.next();
+    	  List<ExtractAndMoveCandidate> candidates = new ArrayList<ExtractAndMoveCandidate>();
     	  for(UMLOperationBodyMapper mapper : mappers) {
     		  if((mapper.nonMappedElementsT1() > 0 || !mapper.getReplacementsInvolvingMethodInvocation().isEmpty()) && !mapper.containsExtractOperationRefactoring(addedOperation)) {
                List<OperationInvocation> operationInvocations = ExtractOperationDetection.getInvocationsInSourceOperationAfterExtraction(mapper);
@@ -1887,58 +1914,82 @@ public class UMLModelDiff {
             		  parameterToArgumentMap1.put(addedOperationInvocation.getExpression() + ".", "");
             		  parameterToArgumentMap2.put("this.", "");
             	  }
-                  UMLOperationBodyMapper operationBodyMapper = new UMLOperationBodyMapper(mapper, addedOperation, parameterToArgumentMap1, parameterToArgumentMap2, getUMLClassDiff(addedOperation.getClassName()));
-                  if(!anotherAddedMethodExistsWithBetterMatchingInvocationExpression(addedOperationInvocation, addedOperation, addedOperations) &&
-                		  !conflictingExpression(addedOperationInvocation, addedOperation, mapper.getOperation2().variableDeclarationMap()) &&
-                		  extractAndMoveMatchCondition(operationBodyMapper, mapper)) {
-                	  if(className.equals(addedOperation.getClassName())) {
-                		  //extract inside moved or renamed class
-                		  ExtractOperationRefactoring extractOperationRefactoring =
-   	                           new ExtractOperationRefactoring(operationBodyMapper, mapper.getOperation2(), addedOperationInvocations);
-   	                      refactorings.add(extractOperationRefactoring);
-   	                      deleteAddedOperation(addedOperation);
-                	  }
-                	  else if(isSubclassOf(className, addedOperation.getClassName())) {
-                		  //extract and pull up method
-                		  ExtractOperationRefactoring extractOperationRefactoring =
-   	                           new ExtractOperationRefactoring(operationBodyMapper, mapper.getOperation2(), addedOperationInvocations);
-   	                      refactorings.add(extractOperationRefactoring);
-   	                      deleteAddedOperation(addedOperation);
-                	  }
-                	  else if(isSubclassOf(addedOperation.getClassName(), className)) {
-                		  //extract and push down method
-                		  ExtractOperationRefactoring extractOperationRefactoring =
-   	                           new ExtractOperationRefactoring(operationBodyMapper, mapper.getOperation2(), addedOperationInvocations);
-   	                      refactorings.add(extractOperationRefactoring);
-   	                      deleteAddedOperation(addedOperation);
-                	  }
-                	  else if(addedOperation.getClassName().startsWith(className + ".")) {
-                		  //extract and move to inner class
-                		  ExtractOperationRefactoring extractOperationRefactoring =
-      	                       new ExtractOperationRefactoring(operationBodyMapper, mapper.getOperation2(), addedOperationInvocations);
-      	                  refactorings.add(extractOperationRefactoring);
-      	                  deleteAddedOperation(addedOperation);
-                	  }
-                	  else if(className.startsWith(addedOperation.getClassName() + ".")) {
-                		  //extract and move to outer class
-                		  ExtractOperationRefactoring extractOperationRefactoring =
-      	                       new ExtractOperationRefactoring(operationBodyMapper, mapper.getOperation2(), addedOperationInvocations);
-      	                  refactorings.add(extractOperationRefactoring);
-      	                  deleteAddedOperation(addedOperation);
-                	  }
-                	  else if(sourceClassImportsTargetClass(className, addedOperation.getClassName()) ||
-                			  sourceClassImportsSuperclassOfTargetClass(className, addedOperation.getClassName()) ||
-                			  targetClassImportsSourceClass(className, addedOperation.getClassName())) {
-                		  //extract and move
-	                      ExtractOperationRefactoring extractOperationRefactoring =
-	                           new ExtractOperationRefactoring(operationBodyMapper, mapper.getOperation2(), addedOperationInvocations);
-	                      refactorings.add(extractOperationRefactoring);
-	                      deleteAddedOperation(addedOperation);
-                	  }
-                  }
+                  CommitProfile.countCandidatePair("extractAndMove");
+                  candidates.add(new ExtractAndMoveCandidate(mapper, addedOperation, addedOperationInvocations, parameterToArgumentMap1, parameterToArgumentMap2, addedOperations));
                }
             }
          }
+    	  UMLClassBaseDiff addedOperationClassDiff = getUMLClassDiff(addedOperation.getClassName());
+    	  int next = 0;
+    	  while(next < candidates.size()) {
+    		  CandidateEvaluator<ExtractAndMoveCandidate> evaluator = new CandidateEvaluator<ExtractAndMoveCandidate>(candidates.subList(next, candidates.size()), candidatePool);
+    		  int evaluated = 0;
+    		  try {
+    			  boolean addedOperationDeleted = false;
+    			  while(evaluated < evaluator.size() && !addedOperationDeleted) {
+    				  ExtractAndMoveCandidate candidate = evaluator.get(evaluated++);
+    				  if(candidate.matches()) {
+    					  evaluator.awaitAll();
+    					  UMLOperationBodyMapper mapper = candidate.mapper;
+    					  UMLOperationBodyMapper operationBodyMapper = candidate.operationBodyMapper;
+    					  List<OperationInvocation> addedOperationInvocations = candidate.addedOperationInvocations;
+    					  String className = mapper.getOperation2().getClassName();
+    					  int addedOperationCount = addedOperationClassDiff != null ? addedOperationClassDiff.getAddedOperations().size() : 0;
+                		  if(className.equals(addedOperation.getClassName())) {
+                			  //extract inside moved or renamed class
+                			  ExtractOperationRefactoring extractOperationRefactoring =
+   		                           new ExtractOperationRefactoring(operationBodyMapper, mapper.getOperation2(), addedOperationInvocations);
+   		                      refactorings.add(extractOperationRefactoring);
+   		                      deleteAddedOperation(addedOperation);
+                		  }
+                		  else if(isSubclassOf(className, addedOperation.getClassName())) {
+                			  //extract and pull up method
+                			  ExtractOperationRefactoring extractOperationRefactoring =
+   		                           new ExtractOperationRefactoring(operationBodyMapper, mapper.getOperation2(), addedOperationInvocations);
+   		                      refactorings.add(extractOperationRefactoring);
+   		                      deleteAddedOperation(addedOperation);
+                		  }
+                		  else if(isSubclassOf(addedOperation.getClassName(), className)) {
+                			  //extract and push down method
+                			  ExtractOperationRefactoring extractOperationRefactoring =
+   		                           new ExtractOperationRefactoring(operationBodyMapper, mapper.getOperation2(), addedOperationInvocations);
+   		                      refactorings.add(extractOperationRefactoring);
+   		                      deleteAddedOperation(addedOperation);
+                		  }
+                		  else if(addedOperation.getClassName().startsWith(className + ".")) {
+                			  //extract and move to inner class
+                			  ExtractOperationRefactoring extractOperationRefactoring =
+      		                       new ExtractOperationRefactoring(operationBodyMapper, mapper.getOperation2(), addedOperationInvocations);
+      		                  refactorings.add(extractOperationRefactoring);
+      		                  deleteAddedOperation(addedOperation);
+                		  }
+                		  else if(className.startsWith(addedOperation.getClassName() + ".")) {
+                			  //extract and move to outer class
+                			  ExtractOperationRefactoring extractOperationRefactoring =
+      		                       new ExtractOperationRefactoring(operationBodyMapper, mapper.getOperation2(), addedOperationInvocations);
+      		                  refactorings.add(extractOperationRefactoring);
+      		                  deleteAddedOperation(addedOperation);
+                		  }
+                		  else if(sourceClassImportsTargetClass(className, addedOperation.getClassName()) ||
+                				  sourceClassImportsSuperclassOfTargetClass(className, addedOperation.getClassName()) ||
+                				  targetClassImportsSourceClass(className, addedOperation.getClassName())) {
+                			  //extract and move
+		                      ExtractOperationRefactoring extractOperationRefactoring =
+		                           new ExtractOperationRefactoring(operationBodyMapper, mapper.getOperation2(), addedOperationInvocations);
+		                      refactorings.add(extractOperationRefactoring);
+		                      deleteAddedOperation(addedOperation);
+                		  }
+    					  //the following candidates were evaluated before the added operation was deleted from its class diff
+    					  addedOperationDeleted = addedOperationClassDiff != null && addedOperationClassDiff.getAddedOperations().size() < addedOperationCount;
+    				  }
+    			  }
+    		  }
+    		  finally {
+    			  evaluator.close();
+    		  }
+    		  //the following candidates did not change the parent mappers, and are evaluated again
+    		  next += evaluated;
+    	  }
       }
    }
 
@@ -2081,15 +2132,31 @@ public class UMLModelDiff {
 	      for(Iterator<UMLOperation> addedOperationIterator = addedOperations.iterator(); addedOperationIterator.hasNext();) {
 	         UMLOperation addedOperation = addedOperationIterator.next();
 	         TreeMap<Integer, List<UMLOperationBodyMapper>> operationBodyMapperMap = new TreeMap<Integer, List<UMLOperationBodyMapper>>();
+	         List<OperationMoveCandidate> candidates = new ArrayList<OperationMoveCandidate>();
 	         for(Iterator<UMLOperation> removedOperationIterator = removedOperations.iterator(); removedOperationIterator.hasNext();) {
 	            UMLOperation removedOperation = removedOperationIterator.next();
 	            
 	            Pair<UMLOperation, UMLOperation> pair = Pair.of(removedOperation, addedOperation);
 	            if(!processedOperationPairs.contains(pair)) {
-		            UMLOperationBodyMapper operationBodyMapper = new UMLOperationBodyMapper(removedOperation, addedOperation, getUMLClassDiff(removedOperation.getClassName()));
+		            if(operationMoveFilter.skip(removedOperation, addedOperation)) {
+		            	processedOperationPairs.add(pair);
+		            	CommitProfile.countCandidatePair("operationMovesSkipped");
+		            	continue;
+		            }
+		            CommitProfile.countCandidatePair("operationMoves");
 		            processedOperationPairs.add(pair);
+		            candidates.add(new OperationMoveCandidate(removedOperation, addedOperation));
+	            }
+	         }
+	         CandidateEvaluator<OperationMoveCandidate> evaluator = new CandidateEvaluator<OperationMoveCandidate>(candidates, candidatePool);
+	         try {
+		         for(int i=0; i<evaluator.size(); i++) {
+		            OperationMoveCandidate candidate = evaluator.get(i);
+		            UMLOperation removedOperation = candidate.removedOperation;
+		            UMLOperationBodyMapper operationBodyMapper = candidate.operationBodyMapper;
 		            int mappings = operationBodyMapper.mappingsWithoutBlocks();
 		            if((mappings > 0 && mappedElementsMoreThanNonMappedT1AndT2(mappings, operationBodyMapper)) || addedOperation.equalSignatureForAbstractMethods(removedOperation)) {
+		               operationMoveFilter.accepted(removedOperation, addedOperation);
 		               int exactMatches = operationBodyMapper.exactMatches();
 		               List<AbstractCodeMapping> exactMappings = operationBodyMapper.getExactMatches();
 		               for(AbstractCodeMapping mapping : exactMappings) {
@@ -2108,7 +2175,10 @@ public class UMLModelDiff {
 		                  operationBodyMapperMap.put(exactMatches, mapperList);
 		               }
 		            }
-	            }
+		         }
+	         }
+	         finally {
+		         evaluator.close();
 	         }
 	         if(!operationBodyMapperMap.isEmpty()) {
 	            List<UMLOperationBodyMapper> firstMappers = firstMappers(operationBodyMapperMap);
@@ -2177,15 +2247,31 @@ public class UMLModelDiff {
     	  for(Iterator<UMLOperation> removedOperationIterator = removedOperations.iterator(); removedOperationIterator.hasNext();) {
 	         UMLOperation removedOperation = removedOperationIterator.next();
 	         TreeMap<Integer, List<UMLOperationBodyMapper>> operationBodyMapperMap = new TreeMap<Integer, List<UMLOperationBodyMapper>>();
+	         List<OperationMoveCandidate> candidates = new ArrayList<OperationMoveCandidate>();
 	         for(Iterator<UMLOperation> addedOperationIterator = addedOperations.iterator(); addedOperationIterator.hasNext();) {
 	            UMLOperation addedOperation = addedOperationIterator.next();
 	            
 	            Pair<UMLOperation, UMLOperation> pair = Pair.of(removedOperation, addedOperation);
 	            if(!processedOperationPairs.contains(pair)) {
-		            UMLOperationBodyMapper operationBodyMapper = new UMLOperationBodyMapper(removedOperation, addedOperation, getUMLClassDiff(removedOperation.getClassName()));
+		            if(operationMoveFilter.skip(removedOperation, addedOperation)) {
+		            	processedOperationPairs.add(pair);
+		            	CommitProfile.countCandidatePair("operationMovesSkipped");
+		            	continue;
+		            }
+		            CommitProfile.countCandidatePair("operationMoves");
 		            processedOperationPairs.add(pair);
+		            candidates.add(new OperationMoveCandidate(removedOperation, addedOperation));
+	            }
+	         }
+	         CandidateEvaluator<OperationMoveCandidate> evaluator = new CandidateEvaluator<OperationMoveCandidate>(candidates, candidatePool);
+	         try {
+		         for(int i=0; i<evaluator.size(); i++) {
+		            OperationMoveCandidate candidate = evaluator.get(i);
+		            UMLOperation addedOperation = candidate.addedOperation;
+		            UMLOperationBodyMapper operationBodyMapper = candidate.operationBodyMapper;
 		            int mappings = operationBodyMapper.mappingsWithoutBlocks();
 		            if((mappings > 0 && mappedElementsMoreThanNonMappedT1AndT2(mappings, operationBodyMapper)) || removedOperation.equalSignatureForAbstractMethods(addedOperation)) {
+		               operationMoveFilter.accepted(removedOperation, addedOperation);
 		               int exactMatches = operationBodyMapper.exactMatches();
 		               List<AbstractCodeMapping> exactMappings = operationBodyMapper.getExactMatches();
 		               for(AbstractCodeMapping mapping : exactMappings) {
@@ -2204,7 +2290,10 @@ public class UMLModelDiff {
 		                  operationBodyMapperMap.put(exactMatches, mapperList);
 		               }
 		            }
-	            }
+		         }
+	         }
+	         finally {
+		         evaluator.close();
 	         }
 	         if(!operationBodyMapperMap.isEmpty()) {
 	            List<UMLOperationBodyMapper> firstMappers = firstMappers(operationBodyMapperMap);
@@ -2592,4 +2681,66 @@ public class UMLModelDiff {
 		}
 		return true;
 	}
+
+   private class OperationMoveCandidate implements CandidateEvaluator.Candidate<OperationMoveCandidate> {
+      private final UMLOperation removedOperation;
+      private final UMLOperation addedOperation;
+      private UMLOperationBodyMapper operationBodyMapper;
+
+      private OperationMoveCandidate(UMLOperation removedOperation, UMLOperation addedOperation) {
+         this.removedOperation = removedOperation;
+         this.addedOperation = addedOperation;
+      }
+
+      public OperationMoveCandidate evaluate() throws RefactoringMinerTimedOutException {
+         operationBodyMapper = new UMLOperationBodyMapper(removedOperation, addedOperation, getUMLClassDiff(removedOperation.getClassName()));
+         return this;
+      }
+   }
+
+   private class ExtractAndMoveCandidate implements CandidateEvaluator.Candidate<ExtractAndMoveCandidate> {
+      private final UMLOperationBodyMapper mapper;
+      private final UMLOperation addedOperation;
+      private final List<OperationInvocation> addedOperationInvocations;
+      private final Map<String, String> parameterToArgumentMap1;
+      private final Map<String, String> parameterToArgumentMap2;
+      private final List<UMLOperation> addedOperations;
+      private List<StatementObject> nonMappedLeavesT1;
+      private List<CompositeStatementObject> nonMappedInnerNodesT1;
+      private UMLOperationBodyMapper operationBodyMapper;
+
+      private ExtractAndMoveCandidate(UMLOperationBodyMapper mapper, UMLOperation addedOperation, List<OperationInvocation> addedOperationInvocations,
+            Map<String, String> parameterToArgumentMap1, Map<String, String> parameterToArgumentMap2, List<UMLOperation> addedOperations) {
+         this.mapper = mapper;
+         this.addedOperation = addedOperation;
+         this.addedOperationInvocations = addedOperationInvocations;
+         this.parameterToArgumentMap1 = parameterToArgumentMap1;
+         this.parameterToArgumentMap2 = parameterToArgumentMap2;
+         this.addedOperations = addedOperations;
+      }
+
+      public ExtractAndMoveCandidate evaluate() throws RefactoringMinerTimedOutException {
+         //the mapper of the extracted operation consumes the non-mapped statements of the parent mapper, from copies until the result is consumed
+         nonMappedLeavesT1 = new ArrayList<StatementObject>(mapper.getNonMappedLeavesT1());
+         nonMappedInnerNodesT1 = new ArrayList<CompositeStatementObject>(mapper.getNonMappedInnerNodesT1());
+         operationBodyMapper = new UMLOperationBodyMapper(mapper, nonMappedLeavesT1, nonMappedInnerNodesT1, addedOperation,
+               parameterToArgumentMap1, parameterToArgumentMap2, getUMLClassDiff(addedOperation.getClassName()));
+         return this;
+      }
+
+      /**
+       * Consumes the result on the calling thread: the statements mapped by the extracted operation are removed from the parent mapper,
+       * and the candidate is checked with the state left by the previous candidates, as if they were evaluated one after the other.
+       */
+      private boolean matches() {
+         mapper.getNonMappedLeavesT1().clear();
+         mapper.getNonMappedLeavesT1().addAll(nonMappedLeavesT1);
+         mapper.getNonMappedInnerNodesT1().clear();
+         mapper.getNonMappedInnerNodesT1().addAll(nonMappedInnerNodesT1);
+         OperationInvocation addedOperationInvocation = addedOperationInvocations.get(0);
+         return !anotherAddedMethodExistsWithBetterMatchingInvocationExpression(addedOperationInvocation, addedOperation, addedOperations) &&
+               !conflictingExpression(addedOperationInvocation, addedOperation, mapper.getOperation2().variableDeclarationMap()) &&
+               extractAndMoveMatchCondition(operationBodyMapper, mapper);
+      }
+   }
 }
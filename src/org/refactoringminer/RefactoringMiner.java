@@ -1,18 +1,73 @@
 package org.refactoringminer;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.apache.commons.text.StringEscapeUtils;
 import org.eclipse.jgit.lib.Repository;
 import org.refactoringminer.api.GitHistoryRefactoringMiner;
 import org.refactoringminer.api.GitService;
 import org.refactoringminer.api.Refactoring;
 import org.refactoringminer.api.RefactoringHandler;
+import org.refactoringminer.rm1.BatchMiner;
 import org.refactoringminer.rm1.GitHistoryRefactoringMinerImpl;
+import org.refactoringminer.util.CommitProfile;
 import org.refactoringminer.util.GitServiceImpl;
 
 public class RefactoringMiner {
+	private static final int DEFAULT_PROFILED_MAPPERS = 10;
+
+	/**
+	 * Opens the repository in a folder. The caller closes the returned repository.
+	 */
+	interface RepositoryOpener {
+		Repository open(String folder) throws Exception;
+	}
 
 	public static void main(String[] args) throws Exception {
+		if (args.length > 0 && args[0].equalsIgnoreCase("-daemon")) {
+			RefactoringMinerDaemon.serve(args);
+			return;
+		}
+		if (args.length > 0 && args[0].equalsIgnoreCase("-client")) {
+			System.exit(RefactoringMinerDaemon.send(args));
+		}
+		GitService gitService = new GitServiceImpl();
+		execute(args, folder -> gitService.openRepository(folder), System.out, System.err);
+	}
+
+	static void execute(String[] args, RepositoryOpener repositories, PrintStream out, PrintStream err) throws Exception {
+		String[] commandLine = args;
+		int profiledMappers = -1;
+		List<String> arguments = new ArrayList<String>(Arrays.asList(args));
+		int profileIndex = arguments.indexOf("-profile");
+		if (profileIndex >= 0) {
+			arguments.remove(profileIndex);
+			profiledMappers = DEFAULT_PROFILED_MAPPERS;
+			if (profileIndex < arguments.size() && arguments.get(profileIndex).matches("\\d+")) {
+				profiledMappers = Integer.parseInt(arguments.remove(profileIndex));
+			}
+		}
+		File snapshotDirectory = null;
+		int snapshotsIndex = arguments.indexOf("-snapshots");
+		if (snapshotsIndex >= 0) {
+			arguments.remove(snapshotsIndex);
+			if (snapshotsIndex >= arguments.size()) {
+				throw argumentException();
+			}
+			snapshotDirectory = new File(arguments.remove(snapshotsIndex));
+		}
+		boolean extractComments = !arguments.remove("-nocomments");
+		boolean streamArchives = arguments.remove("-streamarchives");
+		args = arguments.toArray(new String[arguments.size()]);
 		if (args.length < 1) {
 			throw argumentException();
 		}
@@ -20,28 +75,45 @@ public class RefactoringMiner {
 		final String option = args[0];
 		if (option.equalsIgnoreCase("-h") || option.equalsIgnoreCase("--h") || option.equalsIgnoreCase("-help")
 				|| option.equalsIgnoreCase("--help")) {
-			printTips();
+			printTips(out);
 			return;
 		}
 
+		GitHistoryRefactoringMinerImpl detector = new GitHistoryRefactoringMinerImpl();
+		detector.setProfiling(profiledMappers);
+		detector.setModelSnapshotDirectory(snapshotDirectory);
+		detector.setExtractComments(extractComments);
+		if (streamArchives) {
+			detector.setStreamArchives(true);
+		}
 		if (option.equalsIgnoreCase("-a")) {
-			detectAll(args);
+			detectAll(args, detector, repositories, out, err);
 		} else if (option.equalsIgnoreCase("-bc")) {
-			detectBetweenCommits(args);
+			detectBetweenCommits(args, detector, repositories, out, err);
 		} else if (option.equalsIgnoreCase("-bt")) {
-			detectBetweenTags(args);
+			detectBetweenTags(args, detector, repositories, out, err);
 		} else if (option.equalsIgnoreCase("-c")) {
-			detectAtCommit(args);
+			detectAtCommit(args, detector, repositories, out, err);
+		} else if (option.equalsIgnoreCase("-wt")) {
+			detectAtWorkingTree(args, detector, repositories, out, err);
+		} else if (option.equalsIgnoreCase("-bd")) {
+			detectBetweenDirectories(args, detector, out, err);
+		} else if (option.equalsIgnoreCase("-batch")) {
+			detectAllInBatch(args, detector, err);
+		} else if (option.equalsIgnoreCase("-sharded")) {
+			RefactoringMinerShards.coordinate(args, commandLine, repositories, out, err);
+		} else if (option.equalsIgnoreCase("-shard")) {
+			RefactoringMinerShards.runShard(args, detector, repositories, err);
 		} else if (option.equalsIgnoreCase("-gc")) {
-			detectAtGitHubCommit(args);
+			detectAtGitHubCommit(args, detector, out, err);
 		} else if (option.equalsIgnoreCase("-gp")) {
-			detectAtGitHubPullRequest(args);
+			detectAtGitHubPullRequest(args, detector, out, err);
 		} else {
 			throw argumentException();
 		}
 	}
 
-	private static void detectAll(String[] args) throws Exception {
+	private static void detectAll(String[] args, GitHistoryRefactoringMiner detector, RepositoryOpener repositories, PrintStream out, PrintStream err) throws Exception {
 		if (args.length > 3) {
 			throw argumentException();
 		}
@@ -50,214 +122,236 @@ public class RefactoringMiner {
 		if (args.length == 3) {
 			branch = args[2];
 		}
-		GitService gitService = new GitServiceImpl();
-		try (Repository repo = gitService.openRepository(folder)) {
+		try (Repository repo = repositories.open(folder)) {
 			String gitURL = repo.getConfig().getString("remote", "origin", "url");
-			GitHistoryRefactoringMiner detector = new GitHistoryRefactoringMinerImpl();
 			StringBuilder sb = new StringBuilder();
 			startJSON(sb);
-			detector.detectAll(repo, branch, new RefactoringHandler() {
-				private int commitCount = 0;
-				@Override
-				public void handle(String commitId, List<Refactoring> refactorings) {
-					if(commitCount > 0) {
-						sb.append(",").append("\n");
-					}
-					commitJSON(sb, gitURL, commitId, refactorings);
-					commitCount++;
-				}
-
-				@Override
-				public void onFinish(int refactoringsCount, int commitsCount, int errorCommitsCount) {
-					//System.out.println(String.format("Total count: [Commits: %d, Errors: %d, Refactorings: %d]",
-					//		commitsCount, errorCommitsCount, refactoringsCount));
-				}
-
-				@Override
-				public void handleException(String commit, Exception e) {
-					System.err.println("Error processing commit " + commit);
-					e.printStackTrace(System.err);
-				}
-			});
+			out.print(sb);
+			detector.detectAll(repo, branch, new CommitJSONHandler(out, err, gitURL));
+			sb.setLength(0);
 			endJSON(sb);
-			System.out.println(sb.toString());
+			out.println(sb.toString());
+			out.flush();
 		}
 	}
 
-	private static void detectBetweenCommits(String[] args) throws Exception {
+	private static void detectBetweenCommits(String[] args, GitHistoryRefactoringMiner detector, RepositoryOpener repositories, PrintStream out, PrintStream err) throws Exception {
 		if (!(args.length == 3 || args.length == 4)) {
 			throw argumentException();
 		}
 		String folder = args[1];
 		String startCommit = args[2];
 		String endCommit = (args.length == 4) ? args[3] : null;
-		GitService gitService = new GitServiceImpl();
-		try (Repository repo = gitService.openRepository(folder)) {
+		try (Repository repo = repositories.open(folder)) {
 			String gitURL = repo.getConfig().getString("remote", "origin", "url");
-			GitHistoryRefactoringMiner detector = new GitHistoryRefactoringMinerImpl();
 			StringBuilder sb = new StringBuilder();
 			startJSON(sb);
-			detector.detectBetweenCommits(repo, startCommit, endCommit, new RefactoringHandler() {
-				private int commitCount = 0;
-				@Override
-				public void handle(String commitId, List<Refactoring> refactorings) {
-					if(commitCount > 0) {
-						sb.append(",").append("\n");
-					}
-					commitJSON(sb, gitURL, commitId, refactorings);
-					commitCount++;
-				}
-
-				@Override
-				public void onFinish(int refactoringsCount, int commitsCount, int errorCommitsCount) {
-					//System.out.println(String.format("Total count: [Commits: %d, Errors: %d, Refactorings: %d]",
-					//		commitsCount, errorCommitsCount, refactoringsCount));
-				}
-
-				@Override
-				public void handleException(String commit, Exception e) {
-					System.err.println("Error processing commit " + commit);
-					e.printStackTrace(System.err);
-				}
-			});
+			out.print(sb);
+			detector.detectBetweenCommits(repo, startCommit, endCommit, new CommitJSONHandler(out, err, gitURL));
+			sb.setLength(0);
 			endJSON(sb);
-			System.out.println(sb.toString());
+			out.println(sb.toString());
+			out.flush();
 		}
 	}
 
-	private static void detectBetweenTags(String[] args) throws Exception {
+	private static void detectBetweenTags(String[] args, GitHistoryRefactoringMiner detector, RepositoryOpener repositories, PrintStream out, PrintStream err) throws Exception {
 		if (!(args.length == 3 || args.length == 4)) {
 			throw argumentException();
 		}
 		String folder = args[1];
 		String startTag = args[2];
 		String endTag = (args.length == 4) ? args[3] : null;
-		GitService gitService = new GitServiceImpl();
-		try (Repository repo = gitService.openRepository(folder)) {
+		try (Repository repo = repositories.open(folder)) {
 			String gitURL = repo.getConfig().getString("remote", "origin", "url");
-			GitHistoryRefactoringMiner detector = new GitHistoryRefactoringMinerImpl();
 			StringBuilder sb = new StringBuilder();
 			startJSON(sb);
-			detector.detectBetweenTags(repo, startTag, endTag, new RefactoringHandler() {
-				private int commitCount = 0;
-				@Override
-				public void handle(String commitId, List<Refactoring> refactorings) {
-					if(commitCount > 0) {
-						sb.append(",").append("\n");
-					}
-					commitJSON(sb, gitURL, commitId, refactorings);
-					commitCount++;
-				}
-
-				@Override
-				public void onFinish(int refactoringsCount, int commitsCount, int errorCommitsCount) {
-					//System.out.println(String.format("Total count: [Commits: %d, Errors: %d, Refactorings: %d]",
-					//		commitsCount, errorCommitsCount, refactoringsCount));
-				}
-
-				@Override
-				public void handleException(String commit, Exception e) {
-					System.err.println("Error processing commit " + commit);
-					e.printStackTrace(System.err);
-				}
-			});
+			out.print(sb);
+			detector.detectBetweenTags(repo, startTag, endTag, new CommitJSONHandler(out, err, gitURL));
+			sb.setLength(0);
 			endJSON(sb);
-			System.out.println(sb.toString());
+			out.println(sb.toString());
+			out.flush();
 		}
 	}
 
-	private static void detectAtCommit(String[] args) throws Exception {
+	private static void detectAtCommit(String[] args, GitHistoryRefactoringMiner detector, RepositoryOpener repositories, PrintStream out, PrintStream err) throws Exception {
 		if (args.length != 3) {
 			throw argumentException();
 		}
 		String folder = args[1];
 		String commitId = args[2];
-		GitService gitService = new GitServiceImpl();
-		try (Repository repo = gitService.openRepository(folder)) {
+		try (Repository repo = repositories.open(folder)) {
 			String gitURL = repo.getConfig().getString("remote", "origin", "url");
-			GitHistoryRefactoringMiner detector = new GitHistoryRefactoringMinerImpl();
 			StringBuilder sb = new StringBuilder();
 			startJSON(sb);
-			detector.detectAtCommit(repo, commitId, new RefactoringHandler() {
-				@Override
-				public void handle(String commitId, List<Refactoring> refactorings) {
-					commitJSON(sb, gitURL, commitId, refactorings);
-				}
+			out.print(sb);
+			detector.detectAtCommit(repo, commitId, new CommitJSONHandler(out, err, gitURL));
+			sb.setLength(0);
+			endJSON(sb);
+			out.println(sb.toString());
+			out.flush();
+		}
+	}
 
-				@Override
-				public void handleException(String commit, Exception e) {
-					System.err.println("Error processing commit " + commit);
-					e.printStackTrace(System.err);
-				}
-			});
+	private static void detectAtWorkingTree(String[] args, GitHistoryRefactoringMiner detector, RepositoryOpener repositories, PrintStream out, PrintStream err) throws Exception {
+		if (!(args.length == 2 || (args.length == 3 && args[2].equalsIgnoreCase("-cached")))) {
+			throw argumentException();
+		}
+		String folder = args[1];
+		boolean index = args.length == 3;
+		try (Repository repo = repositories.open(folder)) {
+			StringBuilder sb = new StringBuilder();
+			startJSON(sb);
+			out.print(sb);
+			detector.detectAtWorkingTree(repo, index, new CommitJSONHandler(out, err, null));
+			sb.setLength(0);
 			endJSON(sb);
-			System.out.println(sb.toString());
+			out.println(sb.toString());
+			out.flush();
 		}
 	}
 
-	private static void detectAtGitHubCommit(String[] args) throws Exception {
+	private static void detectBetweenDirectories(String[] args, GitHistoryRefactoringMiner detector, PrintStream out, PrintStream err) throws Exception {
+		if (args.length != 3) {
+			throw argumentException();
+		}
+		File previousFolder = new File(args[1]);
+		File nextFolder = new File(args[2]);
+		if (!previousFolder.isDirectory() || !nextFolder.isDirectory()) {
+			throw new IllegalArgumentException("Both arguments of -bd must be existing folders.");
+		}
+		StringBuilder sb = new StringBuilder();
+		startJSON(sb);
+		out.print(sb);
+		detector.detectBetweenDirectories(previousFolder, nextFolder, new CommitJSONHandler(out, err, null));
+		sb.setLength(0);
+		endJSON(sb);
+		out.println(sb.toString());
+		out.flush();
+	}
+
+	private static void detectAllInBatch(String[] args, GitHistoryRefactoringMinerImpl detector, PrintStream err) throws Exception {
+		if (!(args.length == 3 || args.length == 4)) {
+			throw argumentException();
+		}
+		File manifest = new File(args[1]);
+		File outputFolder = new File(args[2]);
+		int threads = (args.length == 4) ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+		List<BatchMiner.Job> jobs = BatchMiner.readManifest(manifest);
+		if (!outputFolder.isDirectory() && !outputFolder.mkdirs()) {
+			throw new IllegalArgumentException("Cannot create the folder " + outputFolder);
+		}
+		//one result file per line of the manifest, even when the same repository is mined for several branches
+		Map<BatchMiner.Job, File> outputFiles = new HashMap<BatchMiner.Job, File>();
+		Set<String> fileNames = new HashSet<String>();
+		for (BatchMiner.Job job : jobs) {
+			String name = job.getFolder().getName() + (job.getBranch() != null ? "-" + job.getBranch().replaceAll("[^\\w.-]", "_") : "");
+			String fileName = name + ".json";
+			for (int i = 2; !fileNames.add(fileName); i++) {
+				fileName = name + "-" + i + ".json";
+			}
+			outputFiles.put(job, new File(outputFolder, fileName));
+		}
+		new BatchMiner(detector, threads).run(jobs, (job, repository) -> {
+			String gitURL = repository.getConfig().getString("remote", "origin", "url");
+			PrintStream out = new PrintStream(new FileOutputStream(outputFiles.get(job)), false, "UTF-8");
+			StringBuilder sb = new StringBuilder();
+			startJSON(sb);
+			out.print(sb);
+			return new CommitJSONHandler(out, err, gitURL) {
+				@Override
+				public void onFinish(int refactoringsCount, int commitsCount, int errorCommitsCount) {
+					StringBuilder end = new StringBuilder();
+					endJSON(end);
+					out.println(end.toString());
+					out.close();
+				}
+			};
+		});
+	}
+
+	private static void detectAtGitHubCommit(String[] args, GitHistoryRefactoringMiner detector, PrintStream out, PrintStream err) throws Exception {
 		if (args.length != 4) {
 			throw argumentException();
 		}
 		String gitURL = args[1];
 		String commitId = args[2];
 		int timeout = Integer.parseInt(args[3]);
-		GitHistoryRefactoringMiner detector = new GitHistoryRefactoringMinerImpl();
 		StringBuilder sb = new StringBuilder();
 		startJSON(sb);
-		detector.detectAtCommit(gitURL, commitId, new RefactoringHandler() {
-			@Override
-			public void handle(String commitId, List<Refactoring> refactorings) {
-				commitJSON(sb, gitURL, commitId, refactorings);
-			}
-
-			@Override
-			public void handleException(String commit, Exception e) {
-				System.err.println("Error processing commit " + commit);
-				e.printStackTrace(System.err);
-			}
-		}, timeout);
+		out.print(sb);
+		detector.detectAtCommit(gitURL, commitId, new CommitJSONHandler(out, err, gitURL), timeout);
+		sb.setLength(0);
 		endJSON(sb);
-		System.out.println(sb.toString());
+		out.println(sb.toString());
+		out.flush();
 	}
 
-	private static void detectAtGitHubPullRequest(String[] args) throws Exception {
+	private static void detectAtGitHubPullRequest(String[] args, GitHistoryRefactoringMiner detector, PrintStream out, PrintStream err) throws Exception {
 		if (args.length != 4) {
 			throw argumentException();
 		}
 		String gitURL = args[1];
 		int pullId = Integer.parseInt(args[2]);
 		int timeout = Integer.parseInt(args[3]);
-		GitHistoryRefactoringMiner detector = new GitHistoryRefactoringMinerImpl();
 		StringBuilder sb = new StringBuilder();
 		startJSON(sb);
-		detector.detectAtPullRequest(gitURL, pullId, new RefactoringHandler() {
-			private int commitCount = 0;
-			@Override
-			public void handle(String commitId, List<Refactoring> refactorings) {
-				if(commitCount > 0) {
-					sb.append(",").append("\n");
-				}
-				commitJSON(sb, gitURL, commitId, refactorings);
-				commitCount++;
-			}
+		out.print(sb);
+		detector.detectAtPullRequest(gitURL, pullId, new CommitJSONHandler(out, err, gitURL), timeout);
+		sb.setLength(0);
+		endJSON(sb);
+		out.println(sb.toString());
+		out.flush();
+	}
+
+	private static class CommitJSONHandler extends RefactoringHandler {
+		private final PrintStream out;
+		private final PrintStream err;
+		private final String gitURL;
+		private final Map<String, CommitProfile> profiles = new HashMap<String, CommitProfile>();
+		private int commitCount = 0;
+
+		private CommitJSONHandler(PrintStream out, PrintStream err, String gitURL) {
+			this.out = out;
+			this.err = err;
+			this.gitURL = gitURL;
+		}
+
+		@Override
+		public synchronized void handleProfile(String commitId, CommitProfile profile) {
+			profiles.put(commitId, profile);
+		}
 
-			@Override
-			public void handleException(String commit, Exception e) {
-				System.err.println("Error processing commit " + commit);
-				e.printStackTrace(System.err);
+		@Override
+		public synchronized void handle(String commitId, List<Refactoring> refactorings) {
+			StringBuilder sb = new StringBuilder();
+			if(commitCount > 0) {
+				sb.append(",").append("\n");
 			}
-		}, timeout);
-		endJSON(sb);
-		System.out.println(sb.toString());
+			commitJSON(sb, gitURL, commitId, refactorings, profiles.remove(commitId));
+			commitCount++;
+			out.print(sb);
+			out.flush();
+		}
+
+		@Override
+		public synchronized void handleException(String commit, Exception e) {
+			err.println("Error processing commit " + commit);
+			e.printStackTrace(err);
+		}
 	}
 
-	private static void commitJSON(StringBuilder sb, String cloneURL, String currentCommitId, List<Refactoring> refactoringsAtRevision) {
+	static void commitJSON(StringBuilder sb, String cloneURL, String currentCommitId, List<Refactoring> refactoringsAtRevision, CommitProfile profile) {
 		sb.append("{").append("\n");
-		sb.append("\t").append("\"").append("repository").append("\"").append(": ").append("\"").append(cloneURL).append("\"").append(",").append("\n");
-		sb.append("\t").append("\"").append("sha1").append("\"").append(": ").append("\"").append(currentCommitId).append("\"").append(",").append("\n");
-		String url = GitHistoryRefactoringMinerImpl.extractCommitURL(cloneURL, currentCommitId);
-		sb.append("\t").append("\"").append("url").append("\"").append(": ").append("\"").append(url).append("\"").append(",").append("\n");
+		if(cloneURL != null) {
+			sb.append("\t").append("\"").append("repository").append("\"").append(": ").append("\"").append(cloneURL).append("\"").append(",").append("\n");
+		}
+		sb.append("\t").append("\"").append("sha1").append("\"").append(": ").append("\"").append(StringEscapeUtils.escapeJson(currentCommitId)).append("\"").append(",").append("\n");
+		if(cloneURL != null) {
+			String url = GitHistoryRefactoringMinerImpl.extractCommitURL(cloneURL, currentCommitId);
+			sb.append("\t").append("\"").append("url").append("\"").append(": ").append("\"").append(url).append("\"").append(",").append("\n");
+		}
 		sb.append("\t").append("\"").append("refactorings").append("\"").append(": ");
 		sb.append("[");
 		int counter = 0;
@@ -269,38 +363,63 @@ public class RefactoringMiner {
 			sb.append("\n");
 			counter++;
 		}
-		sb.append("]").append("\n");
+		sb.append("]");
+		if(profile != null) {
+			sb.append(",").append("\n");
+			sb.append("\t").append("\"").append("profile").append("\"").append(": ").append(profile.toJSON());
+		}
+		sb.append("\n");
 		sb.append("}");
 	}
 
-	private static void startJSON(StringBuilder sb) {
+	static void startJSON(StringBuilder sb) {
 		sb.append("{").append("\n");
 		sb.append("\"").append("commits").append("\"").append(": ");
 		sb.append("[").append("\n");
 	}
 
-	private static void endJSON(StringBuilder sb) {
+	static void endJSON(StringBuilder sb) {
 		sb.append("]").append("\n");
 		sb.append("}");
 	}
 
-	private static void printTips() {
-		System.out.println("-h\t\t\t\t\t\t\t\tShow tips");
-		System.out.println(
+	private static void printTips(PrintStream out) {
+		out.println("-h\t\t\t\t\t\t\t\tShow tips");
+		out.println(
 				"-a <git-repo-folder> <branch>\t\t\t\t\tDetect all refactorings at <branch> for <git-repo-folder>. If <branch> is not specified, commits from all branches are analyzed.");
-		System.out.println(
+		out.println(
 				"-bc <git-repo-folder> <start-commit-sha1> <end-commit-sha1>\tDetect refactorings Between <start-commit-sha1> and <end-commit-sha1> for project <git-repo-folder>");
-		System.out.println(
+		out.println(
 				"-bt <git-repo-folder> <start-tag> <end-tag>\t\t\tDetect refactorings Between <start-tag> and <end-tag> for project <git-repo-folder>");
-		System.out.println(
+		out.println(
 				"-c <git-repo-folder> <commit-sha1>\t\t\t\tDetect refactorings at specified commit <commit-sha1> for project <git-repo-folder>");
-		System.out.println(
+		out.println(
+				"-wt <git-repo-folder> -cached\t\t\t\t\tDetect refactorings in the uncommitted changes of <git-repo-folder>, between HEAD and the working tree, or the index with -cached. In the daemon, the parsed files are reused by the following commands, so that only the files modified since are parsed");
+		out.println(
+				"-bd <folder1> <folder2>\t\t\t\t\tDetect refactorings between the Java files of <folder1> and <folder2>, which are not required to be git repositories. Only the files that differ are parsed, and deleted and added files with similar contents are matched as renamed files");
+		out.println(
+				"-sharded <shards> <checkpoint-folder> <git-repo-folder> <start-commit-sha1> <end-commit-sha1>\tDetect refactorings like -bc, with the commits split by their sha1 among <shards> JVMs started on this machine. The results of each shard are saved in <checkpoint-folder>, so that running the same command again after a failure only analyzes the remaining commits");
+		out.println(
+				"-batch <manifest> <output-folder> <threads>\t\t\tDetect all refactorings of the repositories listed in <manifest>, with a <git-repo-folder> and optionally a <branch> per line, using <threads> workers (default number of processors) shared by all repositories. The commits of each repository are written to a JSON file in <output-folder>");
+		out.println(
 				"-gc <git-URL> <commit-sha1> <timeout>\t\t\t\tDetect refactorings at specified commit <commit-sha1> for project <git-URL> within the given <timeout> in seconds. All required information is obtained directly from GitHub using the OAuth token in github-oauth.properties");
-		System.out.println(
+		out.println(
 				"-gp <git-URL> <pull-request> <timeout>\t\t\t\tDetect refactorings at specified pull request <pull-request> for project <git-URL> within the given <timeout> in seconds for each commit in the pull request. All required information is obtained directly from GitHub using the OAuth token in github-oauth.properties");
+		out.println(
+				"-daemon <port> <threads>\t\t\t\t\tStart a daemon that keeps a warm JVM and the opened repositories, and executes the commands sent with -client on the loopback <port> (default 6790) using <threads> workers (default number of processors). Only the same user can send commands, with the token the daemon writes in ~/.refactoringminer/daemon-<port>.token");
+		out.println(
+				"-client <port> <command>\t\t\t\t\tSend any <command> above (e.g. -c <git-repo-folder> <commit-sha1>) to the daemon listening on <port> (default 6790) and print its output. -batch, -sharded, -snapshots, -gc and -gp must be run without -client");
+		out.println(
+				"-profile <top-mappers>\t\t\t\t\tCan be combined with any option above. Adds to each commit a \"profile\" with the time per phase, the model sizes, the candidate pairs evaluated by each detector and the <top-mappers> (default 10) most expensive operation body mappers");
+		out.println(
+				"-snapshots <folder>\t\t\t\t\tCan be combined with any option above. Stores the model of the files analyzed at each commit in <folder>, keyed by a hash of their contents, and restores it instead of parsing the same files again");
+		out.println(
+				"-nocomments\t\t\t\t\t\tCan be combined with any option above. Does not extract the comments and javadoc while parsing, which makes parsing faster without affecting the detected refactorings");
+		out.println(
+				"-streamarchives\t\t\t\t\t\tCan be combined with any option above. Reads the archives downloaded for commits that are not in the local repository as a stream, keeping only the changed Java files in memory, instead of extracting them next to the repository folder");
 	}
 
-	private static IllegalArgumentException argumentException() {
+	static IllegalArgumentException argumentException() {
 		return new IllegalArgumentException("Type `RefactoringMiner -h` to show usage.");
 	}
 }
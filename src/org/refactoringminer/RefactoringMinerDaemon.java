@@ -0,0 +1,295 @@
+package org.refactoringminer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.jgit.lib.Repository;
+import org.refactoringminer.api.GitService;
+import org.refactoringminer.util.GitServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a warm JVM that executes {@link RefactoringMiner} commands sent by thin clients over a loopback port.
+ * The repositories opened by the commands stay open between requests.
+ * <p>
+ * Only the user running the daemon can send commands: the daemon writes a random token to a file readable only by its owner,
+ * and rejects the requests that do not start with it. The commands that write files of their choice, start processes or use the
+ * GitHub OAuth token of the owner are rejected too, and the archives of missing commits are always streamed, never extracted.
+ * <p>
+ * A request is the token, the number of arguments and the arguments, written with {@link DataOutputStream#writeUTF(String)}.
+ * The response is a sequence of frames, each one a channel byte, a length and the bytes of the standard output or
+ * standard error of the command, terminated by an exit frame carrying the exit status.
+ */
+public class RefactoringMinerDaemon {
+	static final int DEFAULT_PORT = 6790;
+	/**
+	 * The folder of the token files, by default {@code .refactoringminer} in the home folder of the user.
+	 */
+	public static final String TOKEN_FOLDER_PROPERTY = "refactoringminer.daemonTokenFolder";
+	private static final Set<String> REJECTED_OPTIONS = new HashSet<String>(Arrays.asList("-batch", "-sharded", "-shard", "-snapshots", "-gc", "-gp"));
+	private static final byte STDOUT = 1;
+	private static final byte STDERR = 2;
+	private static final byte EXIT = 3;
+	private static final Logger logger = LoggerFactory.getLogger(RefactoringMinerDaemon.class);
+
+	private final Map<String, Repository> repositories = new ConcurrentHashMap<String, Repository>();
+	private final GitService gitService = new GitServiceImpl();
+
+	/**
+	 * {@code -daemon [port] [threads]}
+	 */
+	static void serve(String[] args) throws IOException {
+		int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		new RefactoringMinerDaemon().serve(port, threads);
+	}
+
+	/**
+	 * {@code -client [port] <command>}
+	 *
+	 * @return The exit status of the command.
+	 */
+	static int send(String[] args) throws IOException {
+		int port = DEFAULT_PORT;
+		int commandIndex = 1;
+		if (args.length > 1 && args[1].matches("\\d+")) {
+			port = Integer.parseInt(args[1]);
+			commandIndex = 2;
+		}
+		String[] command = Arrays.copyOfRange(args, commandIndex, args.length);
+		return send(port, command, System.out, System.err);
+	}
+
+	static int send(int port, String[] command, PrintStream out, PrintStream err) throws IOException {
+		String token;
+		try {
+			token = new String(Files.readAllBytes(tokenFile(port).toPath()), StandardCharsets.US_ASCII);
+		} catch (NoSuchFileException e) {
+			throw new IOException(String.format("No token in %s. Is the daemon running on port %d?", tokenFile(port), port), e);
+		}
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+			DataOutputStream request = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			request.writeUTF(token);
+			request.writeInt(command.length);
+			for (int i = 0; i < command.length; i++) {
+				request.writeUTF(takesFolder(command[0], i) ? new File(command[i]).getAbsolutePath() : command[i]);
+			}
+			request.flush();
+			DataInputStream response = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			while (true) {
+				byte channel = response.readByte();
+				int length = response.readInt();
+				if (channel == EXIT) {
+					out.flush();
+					err.flush();
+					return length;
+				}
+				byte[] bytes = new byte[length];
+				response.readFully(bytes);
+				(channel == STDERR ? err : out).write(bytes);
+			}
+		}
+	}
+
+	private static boolean takesFolder(String option, int argument) {
+		if (option.equalsIgnoreCase("-bd")) {
+			return argument == 1 || argument == 2;
+		}
+		return argument == 1 && (option.equalsIgnoreCase("-a") || option.equalsIgnoreCase("-bc") || option.equalsIgnoreCase("-bt") || option.equalsIgnoreCase("-c")
+				|| option.equalsIgnoreCase("-wt"));
+	}
+
+	static File tokenFile(int port) {
+		String folder = System.getProperty(TOKEN_FOLDER_PROPERTY, new File(System.getProperty("user.home"), ".refactoringminer").getPath());
+		return new File(folder, "daemon-" + port + ".token");
+	}
+
+	/**
+	 * Writes a new random token to a file created readable only by its owner.
+	 */
+	private static byte[] createToken(File tokenFile) throws IOException {
+		byte[] random = new byte[32];
+		new SecureRandom().nextBytes(random);
+		StringBuilder token = new StringBuilder();
+		for (byte b : random) {
+			token.append(String.format("%02x", b));
+		}
+		Path path = tokenFile.toPath();
+		Files.createDirectories(path.getParent());
+		Files.deleteIfExists(path);
+		if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+			Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+		}
+		else {
+			Files.createFile(path);
+			File file = path.toFile();
+			file.setReadable(false, false);
+			file.setWritable(false, false);
+			file.setReadable(true, true);
+			file.setWritable(true, true);
+		}
+		byte[] bytes = token.toString().getBytes(StandardCharsets.US_ASCII);
+		Files.write(path, bytes);
+		return bytes;
+	}
+
+	void serve(int port, int threads) throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		File tokenFile = tokenFile(port);
+		try (ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+			byte[] token = createToken(tokenFile);
+			logger.info(String.format("RefactoringMiner daemon listening on %s with the token in %s", serverSocket.getLocalSocketAddress(), tokenFile));
+			while (true) {
+				Socket socket = serverSocket.accept();
+				executor.execute(() -> handle(socket, token));
+			}
+		} finally {
+			Files.deleteIfExists(tokenFile.toPath());
+			executor.shutdownNow();
+			for (Repository repository : repositories.values()) {
+				repository.close();
+			}
+		}
+	}
+
+	private void handle(Socket socket, byte[] token) {
+		try (Socket s = socket) {
+			DataInputStream request = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+			DataOutputStream response = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+			if (!MessageDigest.isEqual(token, request.readUTF().getBytes(StandardCharsets.US_ASCII))) {
+				logger.warn("Rejected a request with an invalid token");
+				PrintStream err = new PrintStream(new FrameOutputStream(response, STDERR), false, "UTF-8");
+				err.println("Invalid daemon token");
+				err.flush();
+				exit(response, 1);
+				return;
+			}
+			String[] args = new String[request.readInt()];
+			for (int i = 0; i < args.length; i++) {
+				args[i] = request.readUTF();
+			}
+			PrintStream out = new PrintStream(new FrameOutputStream(response, STDOUT), false, "UTF-8");
+			PrintStream err = new PrintStream(new FrameOutputStream(response, STDERR), false, "UTF-8");
+			int status = 0;
+			try {
+				RefactoringMiner.execute(checkOptions(args), this::openRepository, out, err);
+			} catch (Exception e) {
+				e.printStackTrace(err);
+				status = 1;
+			}
+			out.flush();
+			err.flush();
+			exit(response, status);
+		} catch (EOFException e) {
+			// client disconnected
+		} catch (IOException e) {
+			logger.warn("Failed to handle request", e);
+		}
+	}
+
+	private static void exit(DataOutputStream response, int status) throws IOException {
+		synchronized (response) {
+			response.writeByte(EXIT);
+			response.writeInt(status);
+			response.flush();
+		}
+	}
+
+	/**
+	 * @return The arguments of the command, with the archives of missing commits streamed.
+	 * @throws IllegalArgumentException If the command has an option rejected by the daemon.
+	 */
+	static String[] checkOptions(String[] args) {
+		for (String arg : args) {
+			if (REJECTED_OPTIONS.contains(arg.toLowerCase(Locale.ROOT))) {
+				throw new IllegalArgumentException(String.format("The daemon does not accept %s. Run the command without -client.", arg));
+			}
+		}
+		if (Arrays.asList(args).contains("-streamarchives")) {
+			return args;
+		}
+		String[] streamed = Arrays.copyOf(args, args.length + 1);
+		streamed[args.length] = "-streamarchives";
+		return streamed;
+	}
+
+	/**
+	 * Returns a cached repository with its use count incremented, so that the command closing it does not release it.
+	 */
+	private Repository openRepository(String folder) throws Exception {
+		String key = new File(folder).getCanonicalPath();
+		Repository repository = repositories.get(key);
+		if (repository == null) {
+			synchronized (repositories) {
+				repository = repositories.get(key);
+				if (repository == null) {
+					repository = gitService.openRepository(key);
+					repositories.put(key, repository);
+				}
+			}
+		}
+		repository.incrementOpen();
+		return repository;
+	}
+
+	private static class FrameOutputStream extends OutputStream {
+		private final DataOutputStream response;
+		private final byte channel;
+
+		private FrameOutputStream(DataOutputStream response, byte channel) {
+			this.response = response;
+			this.channel = channel;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] {(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return;
+			}
+			synchronized (response) {
+				response.writeByte(channel);
+				response.writeInt(len);
+				response.write(b, off, len);
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			synchronized (response) {
+				response.flush();
+			}
+		}
+	}
+}
@@ -1,32 +1,60 @@
 package org.refactoringminer;
 
+import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.commons.io.IOUtils;
+import org.eclipse.jgit.lib.Repository;
 import org.refactoringminer.api.GitHistoryRefactoringMiner;
 import org.refactoringminer.api.Refactoring;
 import org.refactoringminer.api.RefactoringHandler;
 import org.refactoringminer.rm1.GitHistoryRefactoringMinerImpl;
+import org.refactoringminer.rm1.UMLModelCache;
+import org.refactoringminer.util.GitServiceImpl;
+import org.refactoringminer.util.MetricsRegistry;
+import org.refactoringminer.util.MetricsRegistry.Counter;
 
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import com.sun.net.httpserver.Headers;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
 
 public class RefactoringMinerHttpServer {
+	private static final Counter REJECTED_JOBS = MetricsRegistry.getDefault().counter("refactoringminer_jobs_rejected_total", "Job submissions rejected because the queue was full");
+	private static final Counter DEDUPLICATED_JOBS = MetricsRegistry.getDefault().counter("refactoringminer_jobs_deduplicated_total", "Job submissions joined to an identical in-flight job");
+	private static final Counter CACHED_JOBS = MetricsRegistry.getDefault().counter("refactoringminer_jobs_cached_total", "Job submissions answered from the result cache");
+	private static UMLModelCache modelCache;
 
 	public static void main(String[] args) throws Exception {
 		Properties prop = new Properties();
@@ -34,15 +62,42 @@ public class RefactoringMinerHttpServer {
 		prop.load(input);
 		String hostName = prop.getProperty("hostname");
 		int port = Integer.parseInt(prop.getProperty("port"));
+		int jobWorkers = Integer.parseInt(prop.getProperty("job-workers", "4"));
+		int jobQueueSize = Integer.parseInt(prop.getProperty("job-queue-size", "100"));
+		int resultCacheSize = Integer.parseInt(prop.getProperty("result-cache-size", "256"));
+		int batchWorkers = Integer.parseInt(prop.getProperty("batch-workers", String.valueOf(jobWorkers)));
+		int batchLimit = Integer.parseInt(prop.getProperty("batch-limit", "4"));
+		String repositoriesFolder = prop.getProperty("repositories-folder", "");
+		long modelCacheMegabytes = Long.parseLong(prop.getProperty("model-cache-mb", "0"));
+		double modelCachePressureThreshold = Double.parseDouble(prop.getProperty("model-cache-pressure-threshold", "0"));
+		if (modelCacheMegabytes > 0) {
+			if (modelCachePressureThreshold > 0) {
+				UMLModelCache.setCollectionUsageThresholds(modelCachePressureThreshold);
+			}
+			modelCache = new UMLModelCache(modelCacheMegabytes << 20);
+			MetricsRegistry.getDefault().gauge("refactoringminer_model_cache_bytes", "Estimated heap retained by the models in the model cache", modelCache::getSizeBytes);
+		}
 		
 		InetSocketAddress inetSocketAddress = new InetSocketAddress(InetAddress.getByName(hostName), port);
 		HttpServer server = HttpServer.create(inetSocketAddress, 0);
+		JobManager jobManager = new JobManager(jobWorkers, jobQueueSize, resultCacheSize);
 		server.createContext("/RefactoringMiner", new MyHandler());
+		server.createContext("/RefactoringMiner/jobs", new JobHandler(jobManager));
+		server.createContext("/RefactoringMiner/metrics", new MetricsHandler());
+		if (!repositoriesFolder.isEmpty()) {
+			server.createContext("/RefactoringMiner/local", new LocalRepositoryHandler(new File(repositoriesFolder), batchWorkers, batchLimit));
+		}
 		server.setExecutor(new ThreadPoolExecutor(4, 8, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(100)));
 		server.start();
 		System.out.println(InetAddress.getLocalHost());
 	}
 
+	private static GitHistoryRefactoringMiner newMiner() {
+		GitHistoryRefactoringMinerImpl miner = new GitHistoryRefactoringMinerImpl();
+		miner.setModelCache(modelCache);
+		return miner;
+	}
+
 	static class MyHandler implements HttpHandler {
 		@Override
 		public void handle(HttpExchange exchange) throws IOException {
@@ -56,7 +111,7 @@ public class RefactoringMinerHttpServer {
 			int timeout = Integer.parseInt(queryToMap.get("timeout"));
 			List<Refactoring> detectedRefactorings = new ArrayList<Refactoring>();
 
-			GitHistoryRefactoringMiner miner = new GitHistoryRefactoringMinerImpl();
+			GitHistoryRefactoringMiner miner = newMiner();
 			miner.detectAtCommit(gitURL, commitId, new RefactoringHandler() {
 				@Override
 				public void handle(String commitId, List<Refactoring> refactorings) {
@@ -74,8 +129,471 @@ public class RefactoringMinerHttpServer {
 		}
 	}
 
+	enum JobStatus {
+		QUEUED, RUNNING, COMPLETED, FAILED, TIMED_OUT;
+	}
+
+	static class Job {
+		private final String id;
+		private final String gitURL;
+		private final String commitId;
+		private volatile JobStatus status;
+		private volatile String result;
+		private volatile String error;
+
+		private Job(String gitURL, String commitId) {
+			this.id = UUID.randomUUID().toString();
+			this.gitURL = gitURL;
+			this.commitId = commitId;
+			this.status = JobStatus.QUEUED;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public JobStatus getStatus() {
+			return status;
+		}
+
+		public String getResult() {
+			return result;
+		}
+
+		public boolean isDone() {
+			return status != JobStatus.QUEUED && status != JobStatus.RUNNING;
+		}
+
+		public String toJSON() {
+			StringBuilder sb = new StringBuilder();
+			JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+			sb.append("{").append("\n");
+			sb.append("\t").append("\"").append("id").append("\"").append(": ").append("\"").append(id).append("\"").append(",").append("\n");
+			sb.append("\t").append("\"").append("repository").append("\"").append(": ").append("\"");
+			encoder.quoteAsString(gitURL, sb);
+			sb.append("\"").append(",").append("\n");
+			sb.append("\t").append("\"").append("sha1").append("\"").append(": ").append("\"");
+			encoder.quoteAsString(commitId, sb);
+			sb.append("\"").append(",").append("\n");
+			sb.append("\t").append("\"").append("status").append("\"").append(": ").append("\"").append(status).append("\"");
+			if(error != null) {
+				sb.append(",").append("\n");
+				sb.append("\t").append("\"").append("error").append("\"").append(": ").append("\"");
+				encoder.quoteAsString(error, sb);
+				sb.append("\"");
+			}
+			sb.append("\n").append("}");
+			return sb.toString();
+		}
+	}
+
+	/**
+	 * Runs the submitted commits on a bounded worker pool. Identical in-flight (gitURL, commitId) submissions share
+	 * the same job, and the JSON results of completed commits are kept in an LRU cache, so that popular commits are
+	 * returned without being analyzed again.
+	 * <p>
+	 * The queued and running jobs are kept until they are done, and only the done jobs are evicted from the LRU map of jobs.
+	 */
+	static class JobManager {
+		private final ThreadPoolExecutor executor;
+		private final Map<String, Job> jobs;
+		private final Map<String, Job> inFlightJobs = new HashMap<String, Job>();
+		private final Map<String, Job> inFlightJobsById = new HashMap<String, Job>();
+		private final Map<String, String> resultCache;
+
+		JobManager(int workers, int queueSize, int resultCacheSize) {
+			this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(queueSize));
+			this.jobs = lruMap(workers + queueSize + resultCacheSize);
+			this.resultCache = lruMap(resultCacheSize);
+			MetricsRegistry.getDefault().gauge("refactoringminer_job_queue_depth", "Jobs waiting for a worker", () -> executor.getQueue().size());
+			MetricsRegistry.getDefault().gauge("refactoringminer_job_active_workers", "Workers currently analyzing a job", () -> executor.getActiveCount());
+		}
+
+		private static <V> Map<String, V> lruMap(int maxEntries) {
+			return new LinkedHashMap<String, V>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+					return size() > maxEntries;
+				}
+			};
+		}
+
+		/**
+		 * @throws RejectedExecutionException when the job queue is full.
+		 */
+		public synchronized Job submit(String gitURL, String commitId, int timeout) {
+			String key = gitURL + " " + commitId;
+			Job inFlightJob = inFlightJobs.get(key);
+			if(inFlightJob != null) {
+				DEDUPLICATED_JOBS.increment();
+				return inFlightJob;
+			}
+			Job job = new Job(gitURL, commitId);
+			String cachedResult = resultCache.get(key);
+			if(cachedResult != null) {
+				CACHED_JOBS.increment();
+				job.result = cachedResult;
+				job.status = JobStatus.COMPLETED;
+				jobs.put(job.getId(), job);
+			}
+			else {
+				executor.execute(() -> run(job, key, timeout));
+				inFlightJobs.put(key, job);
+				inFlightJobsById.put(job.getId(), job);
+			}
+			return job;
+		}
+
+		public synchronized Job getJob(String id) {
+			Job job = inFlightJobsById.get(id);
+			return job != null ? job : jobs.get(id);
+		}
+
+		private void run(Job job, String key, int timeout) {
+			job.status = JobStatus.RUNNING;
+			List<Refactoring> detectedRefactorings = new ArrayList<Refactoring>();
+			AtomicBoolean handled = new AtomicBoolean(false);
+			try {
+				GitHistoryRefactoringMiner miner = newMiner();
+				//the detection keeps running after a timeout, so its late callbacks are ignored once the job is done
+				miner.detectAtCommit(job.gitURL, job.commitId, new RefactoringHandler() {
+					@Override
+					public void handle(String commitId, List<Refactoring> refactorings) {
+						synchronized(JobManager.this) {
+							if(!job.isDone()) {
+								detectedRefactorings.addAll(refactorings);
+								handled.set(true);
+							}
+						}
+					}
+
+					@Override
+					public void handleException(String commitId, Exception e) {
+						synchronized(JobManager.this) {
+							if(!job.isDone()) {
+								job.error = e.toString();
+							}
+						}
+					}
+				}, timeout);
+			}
+			catch(RuntimeException e) {
+				synchronized(this) {
+					job.error = e.toString();
+				}
+			}
+			synchronized(this) {
+				if(job.error != null) {
+					job.status = JobStatus.FAILED;
+				}
+				else if(!handled.get()) {
+					job.status = JobStatus.TIMED_OUT;
+				}
+				else {
+					job.result = JSON(job.gitURL, job.commitId, detectedRefactorings);
+					job.status = JobStatus.COMPLETED;
+					resultCache.put(key, job.result);
+				}
+				inFlightJobs.remove(key);
+				inFlightJobsById.remove(job.getId());
+				jobs.put(job.getId(), job);
+			}
+		}
+	}
+
+	/**
+	 * {@code /RefactoringMiner/jobs?gitURL=...&commitId=...&timeout=...} submits a commit and returns the job,
+	 * {@code /RefactoringMiner/jobs/<id>} returns the job status, and
+	 * {@code /RefactoringMiner/jobs/<id>/result} returns the detected refactorings once the job is completed.
+	 */
+	static class JobHandler implements HttpHandler {
+		private static final String CONTEXT = "/RefactoringMiner/jobs";
+		private final JobManager jobManager;
+
+		JobHandler(JobManager jobManager) {
+			this.jobManager = jobManager;
+		}
+
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			printRequestInfo(exchange);
+			URI requestURI = exchange.getRequestURI();
+			String path = requestURI.getPath().substring(CONTEXT.length());
+			if(path.isEmpty() || path.equals("/")) {
+				Map<String, String> queryToMap = queryToMap(requestURI.getQuery());
+				String gitURL = queryToMap.get("gitURL");
+				String commitId = queryToMap.get("commitId");
+				if(gitURL == null || commitId == null) {
+					sendResponse(exchange, 400, "{\"error\": \"gitURL and commitId are required\"}");
+					return;
+				}
+				int timeout = queryToMap.containsKey("timeout") ? Integer.parseInt(queryToMap.get("timeout")) : 60;
+				try {
+					Job job = jobManager.submit(gitURL, commitId, timeout);
+					sendResponse(exchange, 202, job.toJSON());
+				}
+				catch(RejectedExecutionException e) {
+					REJECTED_JOBS.increment();
+					sendResponse(exchange, 429, "{\"error\": \"job queue is full\"}");
+				}
+				return;
+			}
+			String[] segments = path.substring(1).split("/");
+			Job job = jobManager.getJob(segments[0]);
+			if(job == null || segments.length > 2 || (segments.length == 2 && !segments[1].equals("result"))) {
+				sendResponse(exchange, 404, "{\"error\": \"job not found\"}");
+			}
+			else if(segments.length == 1) {
+				sendResponse(exchange, 200, job.toJSON());
+			}
+			else if(job.getStatus() == JobStatus.COMPLETED) {
+				sendResponse(exchange, 200, job.getResult());
+			}
+			else if(job.isDone()) {
+				sendResponse(exchange, 500, job.toJSON());
+			}
+			else {
+				sendResponse(exchange, 202, job.toJSON());
+			}
+		}
+	}
+
+	/**
+	 * {@code /RefactoringMiner/local?repository=<name>&commitIds=<sha1>,<sha1>&timeout=...} analyzes commits of a repository
+	 * cloned under the {@code repositories-folder} of server.properties. The commit ids can also be sent in the request body,
+	 * one per line. The results are streamed back as newline-delimited JSON in the order the commits complete.
+	 * Opened repositories are kept open, so that subsequent requests reuse the same object store.
+	 * <p>
+	 * The commits of the batches are queued on their own worker pool, separate from the jobs. At most {@code batch-limit}
+	 * batches are in progress at a time, whatever their size, and further batches are rejected.
+	 */
+	static class LocalRepositoryHandler implements HttpHandler {
+		private final File repositoriesFolder;
+		private final ThreadPoolExecutor executor;
+		private final Semaphore batches;
+		private final Map<String, Repository> repositories = new ConcurrentHashMap<String, Repository>();
+
+		LocalRepositoryHandler(File repositoriesFolder, int workers, int batchLimit) {
+			this.repositoriesFolder = repositoriesFolder;
+			this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+			this.batches = new Semaphore(batchLimit);
+			MetricsRegistry.getDefault().gauge("refactoringminer_batch_commits_queued", "Commits of local repository batches waiting for a worker", () -> executor.getQueue().size());
+		}
+
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			printRequestInfo(exchange);
+			Map<String, String> queryToMap = queryToMap(exchange.getRequestURI().getQuery());
+			String repositoryName = queryToMap.get("repository");
+			int timeout = queryToMap.containsKey("timeout") ? Integer.parseInt(queryToMap.get("timeout")) : 60;
+			List<String> commitIds = new ArrayList<String>();
+			if(queryToMap.containsKey("commitIds")) {
+				for(String commitId : queryToMap.get("commitIds").split(",")) {
+					if(!commitId.isEmpty()) {
+						commitIds.add(commitId);
+					}
+				}
+			}
+			for(String line : IOUtils.readLines(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+				if(!line.trim().isEmpty()) {
+					commitIds.add(line.trim());
+				}
+			}
+			if(repositoryName == null || commitIds.isEmpty()) {
+				sendResponse(exchange, 400, "{\"error\": \"repository and commitIds are required\"}");
+				return;
+			}
+			Repository repository;
+			try {
+				repository = openRepository(repositoryName);
+			}
+			catch(Exception e) {
+				sendResponse(exchange, 404, "{\"error\": \"repository not found\"}");
+				return;
+			}
+			if(!batches.tryAcquire()) {
+				REJECTED_JOBS.increment();
+				sendResponse(exchange, 429, "{\"error\": \"too many batches in progress\"}");
+				return;
+			}
+			try {
+				detect(exchange, repository, commitIds, timeout);
+			}
+			finally {
+				batches.release();
+			}
+		}
+
+		private void detect(HttpExchange exchange, Repository repository, List<String> commitIds, int timeout) throws IOException {
+			String gitURL = repository.getConfig().getString("remote", "origin", "url");
+			CompletionService<String> completionService = new ExecutorCompletionService<String>(executor);
+			List<Future<String>> futures = new ArrayList<Future<String>>();
+			Map<Future<String>, String> commitIdsByFuture = new HashMap<Future<String>, String>();
+			for(String commitId : commitIds) {
+				Future<String> future = completionService.submit(() -> detectAtCommit(repository, gitURL, commitId, timeout));
+				futures.add(future);
+				commitIdsByFuture.put(future, commitId);
+			}
+			exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
+			exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson");
+			exchange.sendResponseHeaders(200, 0);
+			//every commit gets a line, so that a client can tell a failed commit from a truncated response
+			Set<Future<String>> pendingFutures = new LinkedHashSet<Future<String>>(futures);
+			try (OutputStream os = exchange.getResponseBody()) {
+				try {
+					for(int i=0; i<futures.size(); i++) {
+						Future<String> future = completionService.take();
+						pendingFutures.remove(future);
+						String line;
+						try {
+							line = future.get();
+						}
+						catch(ExecutionException e) {
+							line = NDJSON(gitURL, commitIdsByFuture.get(future), JobStatus.FAILED, e.getCause().toString(), Collections.emptyList());
+						}
+						writeLine(os, line);
+					}
+				}
+				catch(InterruptedException e) {
+					for(Future<String> future : pendingFutures) {
+						future.cancel(true);
+						writeLine(os, NDJSON(gitURL, commitIdsByFuture.get(future), JobStatus.FAILED, "interrupted", Collections.emptyList()));
+					}
+					Thread.currentThread().interrupt();
+				}
+			}
+			finally {
+				for(Future<String> future : pendingFutures) {
+					future.cancel(true);
+				}
+			}
+		}
+
+		private static void writeLine(OutputStream os, String line) throws IOException {
+			os.write(line.getBytes(StandardCharsets.UTF_8));
+			os.write('\n');
+			os.flush();
+		}
+
+		private Repository openRepository(String repositoryName) throws Exception {
+			File folder = new File(repositoriesFolder, repositoryName).getCanonicalFile();
+			if(!folder.getParentFile().equals(repositoriesFolder.getCanonicalFile())) {
+				throw new FileNotFoundException(repositoryName);
+			}
+			Repository repository = repositories.get(folder.getPath());
+			if(repository == null) {
+				repository = new GitServiceImpl().openRepository(folder.getPath());
+				Repository previous = repositories.putIfAbsent(folder.getPath(), repository);
+				if(previous != null) {
+					repository.close();
+					repository = previous;
+				}
+			}
+			return repository;
+		}
+
+		private static String detectAtCommit(Repository repository, String gitURL, String commitId, int timeout) {
+			List<Refactoring> detectedRefactorings = new ArrayList<Refactoring>();
+			AtomicBoolean handled = new AtomicBoolean(false);
+			StringBuilder error = new StringBuilder();
+			AtomicBoolean done = new AtomicBoolean(false);
+			GitHistoryRefactoringMiner miner = newMiner();
+			//the detection keeps running after a timeout, so its late callbacks are ignored
+			miner.detectAtCommit(repository, commitId, new RefactoringHandler() {
+				@Override
+				public void handle(String commitId, List<Refactoring> refactorings) {
+					synchronized(detectedRefactorings) {
+						if(!done.get()) {
+							detectedRefactorings.addAll(refactorings);
+							handled.set(true);
+						}
+					}
+				}
+
+				@Override
+				public void handleException(String commitId, Exception e) {
+					synchronized(detectedRefactorings) {
+						if(!done.get()) {
+							error.append(e.toString());
+						}
+					}
+				}
+			}, timeout);
+			synchronized(detectedRefactorings) {
+				done.set(true);
+				JobStatus status = error.length() > 0 ? JobStatus.FAILED : (handled.get() ? JobStatus.COMPLETED : JobStatus.TIMED_OUT);
+				return NDJSON(gitURL, commitId, status, error.toString(), detectedRefactorings);
+			}
+		}
+	}
+
+	static class MetricsHandler implements HttpHandler {
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			byte[] bytes = MetricsRegistry.getDefault().toPrometheus().getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+			exchange.sendResponseHeaders(200, bytes.length);
+			OutputStream os = exchange.getResponseBody();
+			os.write(bytes);
+			os.close();
+		}
+	}
+
+	private static String NDJSON(String gitURL, String currentCommitId, JobStatus status, String error, List<Refactoring> refactoringsAtRevision) {
+		StringBuilder sb = new StringBuilder();
+		JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+		sb.append("{");
+		if(gitURL != null) {
+			sb.append("\"").append("repository").append("\"").append(": ").append("\"");
+			encoder.quoteAsString(gitURL, sb);
+			sb.append("\"").append(", ");
+		}
+		sb.append("\"").append("sha1").append("\"").append(": ").append("\"");
+		encoder.quoteAsString(currentCommitId, sb);
+		sb.append("\"").append(", ");
+		if(gitURL != null) {
+			String url = GitHistoryRefactoringMinerImpl.extractCommitURL(gitURL, currentCommitId);
+			sb.append("\"").append("url").append("\"").append(": ").append("\"");
+			encoder.quoteAsString(url, sb);
+			sb.append("\"").append(", ");
+		}
+		sb.append("\"").append("status").append("\"").append(": ").append("\"").append(status).append("\"").append(", ");
+		if(!error.isEmpty()) {
+			sb.append("\"").append("error").append("\"").append(": ").append("\"");
+			encoder.quoteAsString(error, sb);
+			sb.append("\"").append(", ");
+		}
+		sb.append("\"").append("refactorings").append("\"").append(": ");
+		sb.append("[");
+		int counter = 0;
+		for(Refactoring refactoring : refactoringsAtRevision) {
+			//formatting line breaks are not allowed in newline-delimited JSON
+			sb.append(refactoring.toJSON().replace('\n', ' ').replace('\r', ' '));
+			if(counter < refactoringsAtRevision.size()-1) {
+				sb.append(",");
+			}
+			counter++;
+		}
+		sb.append("]");
+		sb.append("}");
+		return sb.toString();
+	}
+
+	private static void sendResponse(HttpExchange exchange, int statusCode, String response) throws IOException {
+		byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(statusCode, bytes.length);
+		OutputStream os = exchange.getResponseBody();
+		os.write(bytes);
+		os.close();
+	}
+
 	private static Map<String, String> queryToMap(String query) {
 		Map<String, String> result = new HashMap<>();
+		if (query == null) {
+			return result;
+		}
 		for (String param : query.split("&")) {
 			String[] entry = param.split("=");
 			if (entry.length > 1) {
@@ -0,0 +1,216 @@
+package org.refactoringminer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.refactoringminer.api.Refactoring;
+import org.refactoringminer.api.RefactoringHandler;
+import org.refactoringminer.rm1.GitHistoryRefactoringMinerImpl;
+import org.refactoringminer.util.CommitProfile;
+import org.refactoringminer.util.GitServiceImpl;
+
+/**
+ * Splits the commits of a {@code -bc} range among several JVMs on the same machine, so that the range is not limited by the heap
+ * of a single JVM.
+ * <p>
+ * Each commit belongs to the shard given by {@link GitHistoryRefactoringMinerImpl#shardOf(String, int)}. A shard writes the JSON
+ * of each analyzed commit to its own file in the checkpoint folder of the shard, and skips the commits that already have one, so
+ * that a failed or interrupted run resumes where it stopped. Once all shards completed, the files are merged in the order of
+ * {@code -bc}, which produces the same output.
+ */
+class RefactoringMinerShards {
+	private static final String RESULT_EXTENSION = ".json";
+
+	/**
+	 * {@code -sharded <shards> <checkpoint-folder> <git-repo-folder> <start-commit-sha1> [<end-commit-sha1>]}
+	 *
+	 * @param commandLine The arguments of the command, including the options shared with the shards.
+	 */
+	static void coordinate(String[] args, String[] commandLine, RefactoringMiner.RepositoryOpener repositories, PrintStream out, PrintStream err) throws Exception {
+		if (!(args.length == 5 || args.length == 6)) {
+			throw RefactoringMiner.argumentException();
+		}
+		int shards = Integer.parseInt(args[1]);
+		if (shards < 1) {
+			throw new IllegalArgumentException("The number of shards must be positive.");
+		}
+		File checkpointFolder = new File(args[2]);
+		String folder = args[3];
+		String startCommit = args[4];
+		String endCommit = (args.length == 6) ? args[5] : null;
+
+		List<Process> processes = new ArrayList<Process>();
+		List<Thread> outputThreads = new ArrayList<Thread>();
+		try {
+			for (int shard = 0; shard < shards; shard++) {
+				Process process = new ProcessBuilder(shardCommand(commandLine, shard)).redirectErrorStream(true).start();
+				processes.add(process);
+				Thread outputThread = new Thread(copyOutput(process, shard, err), "refactoringminer-shard-" + shard);
+				outputThread.start();
+				outputThreads.add(outputThread);
+			}
+			List<Integer> failedShards = new ArrayList<Integer>();
+			for (int shard = 0; shard < shards; shard++) {
+				if (processes.get(shard).waitFor() != 0) {
+					failedShards.add(shard);
+				}
+				outputThreads.get(shard).join();
+			}
+			if (!failedShards.isEmpty()) {
+				throw new IllegalStateException(String.format("Shards %s failed. Run the same command again to resume from the checkpoints in %s", failedShards, checkpointFolder));
+			}
+		} finally {
+			for (Process process : processes) {
+				process.destroy();
+			}
+		}
+
+		try (Repository repo = repositories.open(folder)) {
+			String gitURL = repo.getConfig().getString("remote", "origin", "url");
+			StringBuilder sb = new StringBuilder();
+			RefactoringMiner.startJSON(sb);
+			out.print(sb);
+			int commitCount = 0;
+			for (RevCommit commit : new GitServiceImpl().createRevsWalkBetweenCommits(repo, startCommit, endCommit)) {
+				//commits that failed in their shard have no result, as in -bc
+				File result = resultFile(checkpointFolder, GitHistoryRefactoringMinerImpl.shardOf(commit.getName(), shards), shards, commit.getName());
+				if (result.isFile()) {
+					if (commitCount > 0) {
+						out.print(",\n");
+					}
+					out.print(new String(Files.readAllBytes(result.toPath()), StandardCharsets.UTF_8));
+					commitCount++;
+				}
+			}
+			sb.setLength(0);
+			RefactoringMiner.endJSON(sb);
+			out.println(sb.toString());
+			out.flush();
+		}
+	}
+
+	/**
+	 * {@code -shard <shard> <shards> <checkpoint-folder> <git-repo-folder> <start-commit-sha1> [<end-commit-sha1>]}
+	 */
+	static void runShard(String[] args, GitHistoryRefactoringMinerImpl detector, RefactoringMiner.RepositoryOpener repositories, PrintStream err) throws Exception {
+		if (!(args.length == 6 || args.length == 7)) {
+			throw RefactoringMiner.argumentException();
+		}
+		int shard = Integer.parseInt(args[1]);
+		int shards = Integer.parseInt(args[2]);
+		File shardFolder = shardFolder(new File(args[3]), shard, shards);
+		String folder = args[4];
+		String startCommit = args[5];
+		String endCommit = (args.length == 7) ? args[6] : null;
+		Files.createDirectories(shardFolder.toPath());
+		try (Repository repo = repositories.open(folder)) {
+			String gitURL = repo.getConfig().getString("remote", "origin", "url");
+			detector.detectBetweenCommits(repo, startCommit, endCommit, shard, shards, new CheckpointHandler(shardFolder, gitURL, err));
+		}
+	}
+
+	/**
+	 * @return The command line of a JVM running the given shard with the options of this JVM.
+	 */
+	private static List<String> shardCommand(String[] commandLine, int shard) {
+		List<String> command = new ArrayList<String>();
+		command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getPath());
+		for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+			if (argument.startsWith("-D") || argument.startsWith("-Xm") || argument.startsWith("-Xss") || argument.startsWith("-XX:")) {
+				command.add(argument);
+			}
+		}
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(RefactoringMiner.class.getName());
+		List<String> arguments = new ArrayList<String>(Arrays.asList(commandLine));
+		int optionIndex = arguments.indexOf("-sharded");
+		arguments.set(optionIndex, "-shard");
+		arguments.add(optionIndex + 1, String.valueOf(shard));
+		command.addAll(arguments);
+		return command;
+	}
+
+	private static Runnable copyOutput(Process process, int shard, PrintStream err) {
+		return () -> {
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					err.println("[shard " + shard + "] " + line);
+				}
+			} catch (IOException e) {
+				//the process was destroyed
+			}
+		};
+	}
+
+	private static File shardFolder(File checkpointFolder, int shard, int shards) {
+		return new File(checkpointFolder, "shard-" + shard + "-of-" + shards);
+	}
+
+	private static File resultFile(File checkpointFolder, int shard, int shards, String commitId) {
+		return new File(shardFolder(checkpointFolder, shard, shards), commitId + RESULT_EXTENSION);
+	}
+
+	private static class CheckpointHandler extends RefactoringHandler {
+		private final File shardFolder;
+		private final String gitURL;
+		private final PrintStream err;
+		private final Map<String, CommitProfile> profiles = new HashMap<String, CommitProfile>();
+
+		private CheckpointHandler(File shardFolder, String gitURL, PrintStream err) {
+			this.shardFolder = shardFolder;
+			this.gitURL = gitURL;
+			this.err = err;
+		}
+
+		@Override
+		public boolean skipCommit(String commitId) {
+			return new File(shardFolder, commitId + RESULT_EXTENSION).isFile();
+		}
+
+		@Override
+		public void handleProfile(String commitId, CommitProfile profile) {
+			profiles.put(commitId, profile);
+		}
+
+		/**
+		 * Writes the result of the commit to a temporary file renamed atomically, so that an interrupted shard leaves no partial result.
+		 */
+		@Override
+		public void handle(String commitId, List<Refactoring> refactorings) {
+			StringBuilder sb = new StringBuilder();
+			RefactoringMiner.commitJSON(sb, gitURL, commitId, refactorings, profiles.remove(commitId));
+			Path result = new File(shardFolder, commitId + RESULT_EXTENSION).toPath();
+			Path temporary = new File(shardFolder, commitId + RESULT_EXTENSION + ".tmp").toPath();
+			try {
+				Files.write(temporary, sb.toString().getBytes(StandardCharsets.UTF_8));
+				Files.move(temporary, result, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void handleException(String commit, Exception e) {
+			err.println("Error processing commit " + commit);
+			e.printStackTrace(err);
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package org.refactoringminer.api;
 
+import java.io.File;
+
 import org.eclipse.jgit.lib.Repository;
 
 /**
@@ -98,6 +100,29 @@ public interface GitHistoryRefactoringMiner {
 	 */
 	void detectAtPullRequest(String gitURL, int pullRequest, RefactoringHandler handler, int timeout) throws Exception;
 
+	/**
+	 * Detect refactorings performed between two source directories, without git. Only the Java files that differ
+	 * between the directories are parsed.
+	 *
+	 * @param previousDirectory The directory with the source code before the refactorings.
+	 * @param nextDirectory The directory with the source code after the refactorings.
+	 * @param handler A handler object that is responsible to process the detected refactorings, which are passed
+	 *                with the path of the next directory as commit id.
+	 */
+	void detectBetweenDirectories(File previousDirectory, File nextDirectory, RefactoringHandler handler);
+
+	/**
+	 * Detect refactorings performed in the uncommitted changes, between {@code HEAD} and the index or the working tree.
+	 * The files are parsed once per version and reused by the following calls, so that analyzing the changes again
+	 * only parses the files modified since.
+	 *
+	 * @param repository A git repository (from JGit library).
+	 * @param index Detect the refactorings in the changes added to the index instead of all the changes in the working tree.
+	 * @param handler A handler object that is responsible to process the detected refactorings, which are passed
+	 *                with {@code INDEX} or {@code WORKING_TREE} as commit id.
+	 */
+	void detectAtWorkingTree(Repository repository, boolean index, RefactoringHandler handler);
+
 	/**
 	 * Detect refactorings performed in the specified commit. 
 	 * 
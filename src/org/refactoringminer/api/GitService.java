@@ -3,6 +3,7 @@ package org.refactoringminer.api;
 import java.util.List;
 import java.util.Map;
 
+import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevWalk;
@@ -44,4 +45,13 @@ public interface GitService {
 	void fileTreeDiff(Repository repository, RevCommit currentCommit, List<String> filesBefore, List<String> filesCurrent, Map<String, String> renamedFilesHint) throws Exception;
 
 	Churn churn(Repository repository, RevCommit currentCommit) throws Exception;
+
+	/**
+	 * Compare the Java files of {@code HEAD} with the index, or with the working tree, detecting renames like {@link #fileTreeDiff}.
+	 * 
+	 * @param repository The repository.
+	 * @param index Compare with the index instead of the working tree.
+	 * @return The changed Java files. The ids of the working tree files are the ids of their contents.
+	 */
+	List<DiffEntry> workingTreeDiff(Repository repository, boolean index) throws Exception;
 }
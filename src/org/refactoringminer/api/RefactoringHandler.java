@@ -2,6 +2,8 @@ package org.refactoringminer.api;
 
 import java.util.List;
 
+import org.refactoringminer.util.CommitProfile;
+
 /**
  * Handler object that works in conjunction with {@link org.refactoringminer.api.GitHistoryRefactoringMiner}.
  * 
@@ -28,6 +30,15 @@ public abstract class RefactoringHandler {
 	 */
 	public void handle(String commitId, List<Refactoring> refactorings) {}
 
+	/**
+	 * This method is called before {@link #handle(String, List)} when profiling is enabled
+	 * with {@link org.refactoringminer.rm1.GitHistoryRefactoringMinerImpl#setProfiling(int)}.
+	 * 
+	 * @param commitId The sha of the analyzed commit.
+	 * @param profile The cost profile of the analysis of the commit.
+	 */
+	public void handleProfile(String commitId, CommitProfile profile) {}
+
 	/**
      * This method is called whenever an exception is thrown during the analysis of the given commit.
      * You should override this method to do your custom logic in the case of exceptions (e.g. skip or rethrow).
@@ -0,0 +1,449 @@
+package org.refactoringminer.rm1;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.refactoringminer.api.GitService;
+import org.refactoringminer.api.Refactoring;
+import org.refactoringminer.api.RefactoringHandler;
+import org.refactoringminer.util.GitServiceImpl;
+import org.refactoringminer.util.MetricsRegistry;
+import org.refactoringminer.util.MetricsRegistry.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Mines the commits of many repositories on a single pool of workers, as {@link GitHistoryRefactoringMinerImpl#detectAll}
+ * for each repository.
+ * <p>
+ * At most two repositories per worker are open at a time, and the workers take the next commit from the open repositories in
+ * turn, so that a large repository does not hold back the others. A new commit is not started while a heap pool is above the
+ * fraction {@value #DEFAULT_HEAP_THRESHOLD} of its maximum after the last garbage collection, unless no commit is in progress.
+ * The threshold can be changed with the system property {@value #HEAP_THRESHOLD_PROPERTY}.
+ * <p>
+ * The handler of each repository receives the results of its commits from several workers, and {@link RefactoringHandler#onFinish}
+ * once all of them are analyzed. The repositories are opened, and their handlers finished, outside the lock of the batch.
+ */
+public class BatchMiner {
+	public static final String HEAP_THRESHOLD_PROPERTY = "refactoringminer.batchHeapThreshold";
+	private static final double DEFAULT_HEAP_THRESHOLD = 0.8;
+	private static final int OPEN_REPOSITORIES_PER_WORKER = 2;
+	private static final long PROGRESS_INTERVAL_MILLIS = 20000;
+	private static final Counter REPOSITORIES = MetricsRegistry.getDefault().counter("refactoringminer_batch_repositories_total", "Repositories mined in batch mode");
+	private static final Counter ADMISSION_WAITS = MetricsRegistry.getDefault().counter("refactoringminer_batch_admission_waits_total", "Commits delayed in batch mode because the heap was above the threshold");
+	private static final Logger logger = LoggerFactory.getLogger(BatchMiner.class);
+
+	/**
+	 * Creates the handler of a repository, once it is opened.
+	 */
+	public interface HandlerFactory {
+		RefactoringHandler create(Job job, Repository repository) throws Exception;
+	}
+
+	private final GitHistoryRefactoringMinerImpl miner;
+	private final int workers;
+	private final double heapThreshold;
+	private final Deque<Job> pendingJobs = new ArrayDeque<Job>();
+	private final List<RepositoryState> openRepositories = new ArrayList<RepositoryState>();
+	private HandlerFactory handlerFactory;
+	private int cursor;
+	private int openingRepositories;
+	private int inFlightCommits;
+	private int totalRepositories;
+	private int completedRepositories;
+	private int commitsCount;
+	private int errorCommitsCount;
+	private int refactoringsCount;
+	private long lastProgress;
+
+	public BatchMiner(GitHistoryRefactoringMinerImpl miner, int workers) {
+		this.miner = miner;
+		this.workers = workers;
+		this.heapThreshold = Double.parseDouble(System.getProperty(HEAP_THRESHOLD_PROPERTY, String.valueOf(DEFAULT_HEAP_THRESHOLD)));
+	}
+
+	/**
+	 * Reads a manifest with a repository folder, optionally followed by a branch, per line. Empty lines and lines starting with
+	 * {@code #} are ignored, and relative folders are resolved against the folder of the manifest.
+	 */
+	public static List<Job> readManifest(File manifest) throws IOException {
+		List<Job> jobs = new ArrayList<Job>();
+		File baseFolder = manifest.getAbsoluteFile().getParentFile();
+		for (String line : Files.readAllLines(manifest.toPath(), StandardCharsets.UTF_8)) {
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			String[] tokens = line.split("\\s+");
+			if (tokens.length > 2) {
+				throw new IllegalArgumentException("Expected <git-repo-folder> <branch> in manifest line: " + line);
+			}
+			File folder = new File(tokens[0]);
+			if (!folder.isAbsolute()) {
+				folder = new File(baseFolder, tokens[0]);
+			}
+			jobs.add(new Job(folder, tokens.length == 2 ? tokens[1] : null));
+		}
+		return jobs;
+	}
+
+	/**
+	 * Mines the given repositories and returns when all of them are mined. The repositories that cannot be opened are logged
+	 * and skipped.
+	 *
+	 * @throws IllegalStateException If the workers stopped before all repositories were mined.
+	 */
+	public void run(List<Job> jobs, HandlerFactory handlerFactory) throws InterruptedException {
+		synchronized (this) {
+			if (this.handlerFactory != null) {
+				throw new IllegalStateException("Already running");
+			}
+			this.handlerFactory = handlerFactory;
+			pendingJobs.addAll(jobs);
+			totalRepositories = jobs.size();
+			lastProgress = System.currentTimeMillis();
+		}
+		LongSupplier pendingGauge = this::getPendingRepositories;
+		LongSupplier openGauge = this::getOpenRepositories;
+		LongSupplier inFlightGauge = this::getInFlightCommits;
+		MetricsRegistry.getDefault().gauge("refactoringminer_batch_repositories_pending", "Repositories waiting to be mined in batch mode", pendingGauge);
+		MetricsRegistry.getDefault().gauge("refactoringminer_batch_repositories_open", "Repositories being mined in batch mode", openGauge);
+		MetricsRegistry.getDefault().gauge("refactoringminer_batch_commits_in_flight", "Commits being analyzed in batch mode", inFlightGauge);
+		AtomicInteger threadCount = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+			Thread thread = new Thread(runnable, "refactoringminer-batch-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			for (int i = 0; i < workers; i++) {
+				executor.execute(this::work);
+			}
+			executor.shutdown();
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+		} finally {
+			executor.shutdownNow();
+			MetricsRegistry.getDefault().removeGauge("refactoringminer_batch_repositories_pending", pendingGauge);
+			MetricsRegistry.getDefault().removeGauge("refactoringminer_batch_repositories_open", openGauge);
+			MetricsRegistry.getDefault().removeGauge("refactoringminer_batch_commits_in_flight", inFlightGauge);
+			synchronized (this) {
+				this.handlerFactory = null;
+			}
+		}
+		synchronized (this) {
+			logger.info(String.format("Analyzed %d repositories [Commits: %d, Errors: %d, Refactorings: %d]", completedRepositories, commitsCount, errorCommitsCount, refactoringsCount));
+			if (completedRepositories < totalRepositories) {
+				throw new IllegalStateException(String.format("%d of %d repositories were not mined", totalRepositories - completedRepositories, totalRepositories));
+			}
+		}
+	}
+
+	private void work() {
+		try {
+			CommitTask task;
+			while ((task = next()) != null) {
+				RepositoryState state = task.repository;
+				String commitId = task.commit.getId().getName();
+				List<Refactoring> refactorings = null;
+				try {
+					refactorings = miner.detectRefactorings(state.gitService, state.repository, state.handler, state.projectFolder, task.commit);
+				} catch (Throwable e) {
+					//an error such as a stack overflow on a single commit does not stop the worker
+					logger.warn(String.format("Ignored revision %s due to error", commitId), e);
+					GitHistoryRefactoringMinerImpl.ERROR_COMMITS.increment();
+					try {
+						state.handler.handleException(commitId, e instanceof Exception ? (Exception) e : new RuntimeException(e));
+					} catch (RuntimeException handlerException) {
+						logger.warn(String.format("Handler failed for revision %s", commitId), handlerException);
+					}
+				} finally {
+					if (complete(state, refactorings)) {
+						finish(state);
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Opens the pending repositories and finishes the exhausted ones on the calling worker.
+	 *
+	 * @return The next commit of the open repositories in turn, or null when all commits were started.
+	 */
+	private CommitTask next() throws InterruptedException {
+		while (true) {
+			Job job = null;
+			CommitTask task = null;
+			List<RepositoryState> exhausted = new ArrayList<RepositoryState>();
+			synchronized (this) {
+				if (openRepositories.size() + openingRepositories < workers * OPEN_REPOSITORIES_PER_WORKER && !pendingJobs.isEmpty()) {
+					job = pendingJobs.poll();
+					openingRepositories++;
+				}
+				else if (openRepositories.isEmpty()) {
+					if (pendingJobs.isEmpty() && openingRepositories == 0) {
+						return null;
+					}
+					//woken up by the opening of a repository
+					wait(PROGRESS_INTERVAL_MILLIS);
+					continue;
+				}
+				else if (inFlightCommits > 0 && aboveHeapThreshold()) {
+					ADMISSION_WAITS.increment();
+					//woken up by the completion of a commit
+					wait(PROGRESS_INTERVAL_MILLIS);
+					continue;
+				}
+				else {
+					task = nextTask(exhausted);
+				}
+			}
+			for (RepositoryState state : exhausted) {
+				finish(state);
+			}
+			if (job != null) {
+				open(job);
+			}
+			else if (task != null) {
+				return task;
+			}
+		}
+	}
+
+	/**
+	 * @param exhausted The repositories without commits left and in progress, to be finished by the caller.
+	 * @return The next commit of the open repositories in turn, or null when a pending repository can be opened or none is open.
+	 */
+	private CommitTask nextTask(List<RepositoryState> exhausted) {
+		while (!openRepositories.isEmpty()) {
+			cursor = cursor % openRepositories.size();
+			RepositoryState state = openRepositories.get(cursor);
+			RevCommit commit = nextCommit(state);
+			if (commit != null) {
+				cursor++;
+				state.inFlightCommits++;
+				inFlightCommits++;
+				return new CommitTask(state, commit);
+			}
+			openRepositories.remove(cursor);
+			state.exhausted = true;
+			if (state.inFlightCommits == 0) {
+				exhausted.add(state);
+			}
+			if (!pendingJobs.isEmpty()) {
+				return null;
+			}
+		}
+		return null;
+	}
+
+	private static RevCommit nextCommit(RepositoryState state) {
+		try {
+			return state.commits.hasNext() ? state.commits.next() : null;
+		} catch (RuntimeException e) {
+			logger.warn(String.format("Stopped walking %s due to error", state.job), e);
+			return null;
+		}
+	}
+
+	private void open(Job job) {
+		RepositoryState state = null;
+		Repository repository = null;
+		RefactoringHandler handler = null;
+		try {
+			repository = new GitServiceImpl().openRepository(job.getFolder().getPath());
+			handler = handlerFactory.create(job, repository);
+			state = new RepositoryState(job, repository, handler);
+		} catch (Exception e) {
+			logger.warn(String.format("Ignored repository %s due to error", job), e);
+			if (handler != null) {
+				//lets the handler release its resources
+				try {
+					handler.onFinish(0, 0, 0);
+				} catch (RuntimeException handlerException) {
+					logger.warn(String.format("Handler failed for repository %s", job), handlerException);
+				}
+			}
+			if (repository != null) {
+				repository.close();
+			}
+		} finally {
+			synchronized (this) {
+				openingRepositories--;
+				if (state != null) {
+					openRepositories.add(state);
+				} else {
+					completedRepositories++;
+				}
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * @return True if the repository has no commits left and in progress, and must be finished by the caller.
+	 */
+	private synchronized boolean complete(RepositoryState state, List<Refactoring> refactorings) {
+		state.inFlightCommits--;
+		inFlightCommits--;
+		state.commitsCount++;
+		commitsCount++;
+		if (refactorings != null) {
+			state.refactoringsCount += refactorings.size();
+			refactoringsCount += refactorings.size();
+		} else {
+			state.errorCommitsCount++;
+			errorCommitsCount++;
+		}
+		long time = System.currentTimeMillis();
+		if (time - lastProgress > PROGRESS_INTERVAL_MILLIS) {
+			lastProgress = time;
+			logger.info(String.format("Processing %d/%d repositories [Commits: %d, Errors: %d, Refactorings: %d]",
+					completedRepositories, totalRepositories, commitsCount, errorCommitsCount, refactoringsCount));
+		}
+		notifyAll();
+		return state.exhausted && state.inFlightCommits == 0;
+	}
+
+	private void finish(RepositoryState state) {
+		try {
+			state.handler.onFinish(state.refactoringsCount, state.commitsCount, state.errorCommitsCount);
+		} catch (RuntimeException e) {
+			logger.warn(String.format("Handler failed for repository %s", state.job), e);
+		} finally {
+			state.walk.dispose();
+			state.repository.close();
+		}
+		synchronized (this) {
+			completedRepositories++;
+		}
+		REPOSITORIES.increment();
+		logger.info(String.format("Analyzed %s [Commits: %d, Errors: %d, Refactorings: %d]", state.job, state.commitsCount, state.errorCommitsCount, state.refactoringsCount));
+	}
+
+	private boolean aboveHeapThreshold() {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			MemoryUsage usage = pool.getCollectionUsage();
+			long max = pool.getUsage().getMax();
+			if (pool.getType() == MemoryType.HEAP && usage != null && max > 0 && usage.getUsed() > max * heapThreshold) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public synchronized long getPendingRepositories() {
+		return pendingJobs.size();
+	}
+
+	public synchronized long getOpenRepositories() {
+		return openRepositories.size();
+	}
+
+	public synchronized long getInFlightCommits() {
+		return inFlightCommits;
+	}
+
+	public synchronized int getCompletedRepositories() {
+		return completedRepositories;
+	}
+
+	public synchronized int getCommitsCount() {
+		return commitsCount;
+	}
+
+	public synchronized int getErrorCommitsCount() {
+		return errorCommitsCount;
+	}
+
+	public synchronized int getRefactoringsCount() {
+		return refactoringsCount;
+	}
+
+	/**
+	 * A repository folder and the branch to mine, or all branches when null.
+	 */
+	public static class Job {
+		private final File folder;
+		private final String branch;
+
+		public Job(File folder, String branch) {
+			this.folder = folder;
+			this.branch = branch;
+		}
+
+		public File getFolder() {
+			return folder;
+		}
+
+		public String getBranch() {
+			return branch;
+		}
+
+		@Override
+		public String toString() {
+			return branch == null ? folder.getPath() : folder.getPath() + " " + branch;
+		}
+	}
+
+	private static class RepositoryState {
+		private final Job job;
+		private final Repository repository;
+		private final RefactoringHandler handler;
+		private final GitService gitService;
+		private final File projectFolder;
+		private final RevWalk walk;
+		private final Iterator<RevCommit> commits;
+		private boolean exhausted;
+		private int inFlightCommits;
+		private int commitsCount;
+		private int errorCommitsCount;
+		private int refactoringsCount;
+
+		private RepositoryState(Job job, Repository repository, RefactoringHandler handler) throws Exception {
+			this.job = job;
+			this.repository = repository;
+			this.handler = handler;
+			this.gitService = new GitServiceImpl() {
+				@Override
+				public boolean isCommitAnalyzed(String sha1) {
+					return handler.skipCommit(sha1);
+				}
+			};
+			this.projectFolder = repository.getDirectory().getParentFile();
+			this.walk = gitService.createAllRevsWalk(repository, job.getBranch());
+			this.commits = walk.iterator();
+		}
+	}
+
+	private static class CommitTask {
+		private final RepositoryState repository;
+		private final RevCommit commit;
+
+		private CommitTask(RepositoryState repository, RevCommit commit) {
+			this.repository = repository;
+			this.commit = commit;
+		}
+	}
+}
@@ -0,0 +1,197 @@
+package org.refactoringminer.rm1;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.PathSuffixFilter;
+import org.refactoringminer.util.MetricsRegistry;
+import org.refactoringminer.util.MetricsRegistry.Counter;
+
+import gr.uom.java.xmi.UMLClass;
+import gr.uom.java.xmi.UMLGeneralization;
+import gr.uom.java.xmi.UMLModel;
+import gr.uom.java.xmi.UMLModelASTReader;
+import gr.uom.java.xmi.UMLRealization;
+
+/**
+ * Models of single files keyed by path and blob id, from which the models of the uncommitted changes and of the commits of a
+ * {@link RepositoryWatcher} are assembled, so that analyzing the changes again only parses the files modified since the
+ * previous analysis.
+ * <p>
+ * The assembled models share the classes of the cached models, and must be released with {@link #release(UMLModel)} once
+ * compared. Until then, the files of an assembled model are parsed again for the other models instead of being shared,
+ * so that concurrent analyses only wait for each other while their models are assembled and released.
+ */
+class FileModelCache {
+	public static final String SIZE_PROPERTY = "refactoringminer.fileModelCacheSize";
+	public static final String REPOSITORIES_PROPERTY = "refactoringminer.fileModelCacheRepositories";
+	private static final int MAX_REPOSITORIES = Integer.getInteger(REPOSITORIES_PROPERTY, 4);
+	//kept between the miners of successive commands, so that the daemon reuses the files parsed for the same repository
+	private static final Map<File, FileModelCache> REPOSITORY_CACHES = new LinkedHashMap<File, FileModelCache>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<File, FileModelCache> eldest) {
+			return size() > MAX_REPOSITORIES;
+		}
+	};
+	private static final Counter HITS = MetricsRegistry.getDefault().counter("refactoringminer_file_model_cache_hits_total", "Changed files taken from the parse cache");
+	private static final Counter MISSES = MetricsRegistry.getDefault().counter("refactoringminer_file_model_cache_misses_total", "Changed files parsed");
+	private final int maxFiles;
+	private final Map<String, UMLModel> models;
+	private final Map<UMLModel, List<UMLModel>> fileModelsInUse = new IdentityHashMap<UMLModel, List<UMLModel>>();
+	private final Set<UMLModel> inUse = Collections.newSetFromMap(new IdentityHashMap<UMLModel, Boolean>());
+	private ObjectId directoriesTreeId;
+	private Set<String> directories;
+
+	interface ContentLoader {
+		char[] load(String filePath, ObjectId blobId) throws IOException;
+	}
+
+	FileModelCache() {
+		this(Integer.getInteger(SIZE_PROPERTY, 1000));
+	}
+
+	FileModelCache(int maxFiles) {
+		this.maxFiles = maxFiles;
+		this.models = new LinkedHashMap<String, UMLModel>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, UMLModel> eldest) {
+				return size() > FileModelCache.this.maxFiles;
+			}
+		};
+	}
+
+	/**
+	 * @return The cache of the working tree and the index of the given repository.
+	 */
+	static FileModelCache of(Repository repository) {
+		synchronized (REPOSITORY_CACHES) {
+			return REPOSITORY_CACHES.computeIfAbsent(repository.getDirectory().getAbsoluteFile(), directory -> new FileModelCache());
+		}
+	}
+
+	/**
+	 * @return The model of the given files, parsing only the files not found in the cache or used by a model not released yet.
+	 * The files are parsed without holding the lock of the cache.
+	 */
+	UMLModel createModel(Map<String, ObjectId> blobIds, Set<String> repositoryDirectories, boolean extractComments, ContentLoader loader) throws IOException {
+		String[] keys = new String[blobIds.size()];
+		UMLModel[] fileModels = new UMLModel[blobIds.size()];
+		boolean[] cached = new boolean[blobIds.size()];
+		synchronized (this) {
+			int i = 0;
+			for (Map.Entry<String, ObjectId> entry : blobIds.entrySet()) {
+				keys[i] = entry.getValue().name() + (extractComments ? ":" : ":nocomments:") + entry.getKey();
+				UMLModel fileModel = models.get(keys[i]);
+				if (fileModel != null && inUse.add(fileModel)) {
+					fileModels[i] = fileModel;
+					cached[i] = true;
+				}
+				i++;
+			}
+		}
+		try {
+			int i = 0;
+			for (Map.Entry<String, ObjectId> entry : blobIds.entrySet()) {
+				if (!cached[i]) {
+					String filePath = entry.getKey();
+					UMLModelASTReader reader = new UMLModelASTReader(repositoryDirectories, extractComments);
+					reader.addJavaFile(filePath, loader.load(filePath, entry.getValue()));
+					fileModels[i] = reader.getUmlModel();
+				}
+				i++;
+			}
+		} catch (IOException | RuntimeException e) {
+			synchronized (this) {
+				for (int i = 0; i < fileModels.length; i++) {
+					if (cached[i]) {
+						inUse.remove(fileModels[i]);
+					}
+				}
+			}
+			throw e;
+		}
+		UMLModel model = new UMLModel(repositoryDirectories);
+		synchronized (this) {
+			for (int i = 0; i < fileModels.length; i++) {
+				if (cached[i]) {
+					HITS.increment();
+				}
+				else {
+					MISSES.increment();
+					//a file parsed while its cached model is used by another model is not cached
+					if (!inUse.contains(models.get(keys[i]))) {
+						models.put(keys[i], fileModels[i]);
+					}
+					inUse.add(fileModels[i]);
+				}
+				addFileModel(model, fileModels[i]);
+			}
+			fileModelsInUse.put(model, Arrays.asList(fileModels));
+		}
+		return model;
+	}
+
+	private static void addFileModel(UMLModel model, UMLModel fileModel) {
+		for (UMLClass umlClass : fileModel.getClassList()) {
+			model.addClass(umlClass);
+		}
+		for (UMLGeneralization generalization : fileModel.getGeneralizationList()) {
+			model.addGeneralization(generalization);
+		}
+		for (UMLRealization realization : fileModel.getRealizationList()) {
+			model.addRealization(realization);
+		}
+	}
+
+	/**
+	 * Clears the argumentization left in the cached classes by the comparison of the model, and lets the other models use them.
+	 */
+	void release(UMLModel model) {
+		UMLModelCache.clearAndEstimate(model);
+		synchronized (this) {
+			List<UMLModel> fileModels = fileModelsInUse.remove(model);
+			if (fileModels != null) {
+				inUse.removeAll(fileModels);
+			}
+		}
+	}
+
+	/**
+	 * @return The directories of the Java files in the given tree, computed again only when the tree changes.
+	 */
+	synchronized Set<String> repositoryDirectories(Repository repository, ObjectId treeId) throws IOException {
+		if (!treeId.equals(directoriesTreeId)) {
+			Set<String> treeDirectories = new LinkedHashSet<String>();
+			try (TreeWalk treeWalk = new TreeWalk(repository)) {
+				treeWalk.addTree(treeId);
+				treeWalk.setRecursive(true);
+				treeWalk.setFilter(PathSuffixFilter.create(".java"));
+				while (treeWalk.next()) {
+					String directory = treeWalk.getPathString();
+					while (directory.contains("/")) {
+						directory = directory.substring(0, directory.lastIndexOf("/"));
+						treeDirectories.add(directory);
+					}
+				}
+			}
+			directories = treeDirectories;
+			directoriesTreeId = treeId.copy();
+		}
+		return new LinkedHashSet<String>(directories);
+	}
+
+	synchronized int size() {
+		return models.size();
+	}
+}
@@ -1,9 +1,12 @@
 package org.refactoringminer.rm1;
 
+import gr.uom.java.xmi.UMLClass;
 import gr.uom.java.xmi.UMLModel;
 import gr.uom.java.xmi.UMLModelASTReader;
+import gr.uom.java.xmi.UMLModelSnapshot;
 import gr.uom.java.xmi.diff.UMLModelDiff;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -11,8 +14,12 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.StringWriter;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
@@ -30,15 +37,22 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffEntry.ChangeType;
 import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectLoader;
 import org.eclipse.jgit.lib.Repository;
@@ -62,7 +76,14 @@ import org.refactoringminer.api.Refactoring;
 import org.refactoringminer.api.RefactoringHandler;
 import org.refactoringminer.api.RefactoringMinerTimedOutException;
 import org.refactoringminer.api.RefactoringType;
+import org.refactoringminer.util.CommitProfile;
+import org.refactoringminer.util.DetectionEvents.CommitAnalysisEvent;
+import org.refactoringminer.util.DetectionEvents.TimeoutEvent;
+import org.refactoringminer.util.DirectoryDiff;
 import org.refactoringminer.util.GitServiceImpl;
+import org.refactoringminer.util.MetricsRegistry;
+import org.refactoringminer.util.MetricsRegistry.Counter;
+import org.refactoringminer.util.MetricsRegistry.Histogram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -71,8 +92,31 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public class GitHistoryRefactoringMinerImpl implements GitHistoryRefactoringMiner {
 
 	Logger logger = LoggerFactory.getLogger(GitHistoryRefactoringMinerImpl.class);
+	private static final Histogram GIT_READ_TIME = MetricsRegistry.getDefault().histogram("refactoringminer_git_read_seconds", "Time spent reading changed files and directories from git or GitHub");
+	private static final Histogram DIRECTORY_READ_TIME = MetricsRegistry.getDefault().histogram("refactoringminer_directory_read_seconds", "Time spent comparing two directories and reading their changed files");
+	private static final Histogram PARSE_TIME = MetricsRegistry.getDefault().histogram("refactoringminer_parse_seconds", "Time spent building a UMLModel with UMLModelASTReader");
+	private static final Histogram SNAPSHOT_READ_TIME = MetricsRegistry.getDefault().histogram("refactoringminer_snapshot_read_seconds", "Time spent restoring a UMLModel from a snapshot");
+	private static final Histogram SNAPSHOT_WRITE_TIME = MetricsRegistry.getDefault().histogram("refactoringminer_snapshot_write_seconds", "Time spent writing the snapshot of a parsed UMLModel");
+	private static final Histogram MODEL_DIFF_TIME = MetricsRegistry.getDefault().histogram("refactoringminer_model_diff_seconds", "Time spent in UMLModel.diff");
+	private static final Histogram REFACTORING_EXTRACTION_TIME = MetricsRegistry.getDefault().histogram("refactoringminer_refactoring_extraction_seconds", "Time spent in UMLModelDiff.getRefactorings");
+	private static final Histogram HANDLER_TIME = MetricsRegistry.getDefault().histogram("refactoringminer_handler_seconds", "Time spent delivering results to RefactoringHandler.handle");
+	private static final Counter COMMITS = MetricsRegistry.getDefault().counter("refactoringminer_commits_total", "Commits analyzed successfully");
+	static final Counter ERROR_COMMITS = MetricsRegistry.getDefault().counter("refactoringminer_commit_errors_total", "Commits not analyzed due to errors");
+	private static final Counter TIMEOUTS = MetricsRegistry.getDefault().counter("refactoringminer_timeouts_total", "Commits not analyzed due to timeout");
+	public static final String STREAM_ARCHIVES_PROPERTY = "refactoringminer.streamArchives";
+	public static final String SOURCE_CHARSET_PROPERTY = "refactoringminer.sourceCharset";
+	public static final String CANDIDATE_THREADS_PROPERTY = "refactoringminer.candidateThreads";
+	//the charset of the Java files read from blobs, archives, raw files and folders, so that all modes parse the same contents
+	static final Charset SOURCE_CHARSET = Charset.forName(System.getProperty(SOURCE_CHARSET_PROPERTY, StandardCharsets.UTF_8.name()));
 	private Set<RefactoringType> refactoringTypesToConsider = null;
 	private GitHub gitHub;
+	private boolean streamArchives = Boolean.getBoolean(STREAM_ARCHIVES_PROPERTY);
+	private int profiledMappers = -1;
+	private File snapshotDirectory;
+	private UMLModelCache modelCache;
+	private boolean extractComments = true;
+	private int candidateThreads = Integer.getInteger(CANDIDATE_THREADS_PROPERTY, 1);
+	private ExecutorService candidatePool;
 	
 	public GitHistoryRefactoringMinerImpl() {
 		this.setRefactoringTypesToConsider(RefactoringType.ALL);
@@ -84,6 +128,101 @@ public class GitHistoryRefactoringMinerImpl implements GitHistoryRefactoringMine
 			this.refactoringTypesToConsider.add(type);
 		}
 	}
+
+	/**
+	 * When enabled, the repository archives downloaded for commits that are not available locally are read
+	 * as a stream and only the changed Java files are kept in memory, instead of extracting the entire
+	 * archive next to the project folder. Enabled by default when the system property {@value #STREAM_ARCHIVES_PROPERTY} is true.
+	 */
+	public void setStreamArchives(boolean streamArchives) {
+		this.streamArchives = streamArchives;
+	}
+
+	/**
+	 * When enabled, a {@link CommitProfile} with the time per phase, the model sizes, the candidate pairs evaluated by each detector
+	 * and the {@code topMappers} most expensive operation body mappers is passed to {@link RefactoringHandler#handleProfile(String, CommitProfile)}
+	 * for each analyzed commit. A negative value disables profiling.
+	 */
+	public void setProfiling(int topMappers) {
+		this.profiledMappers = topMappers;
+	}
+
+	/**
+	 * When set, the model built from the files of each commit is stored in the given folder as a {@link UMLModelSnapshot},
+	 * keyed by a hash of the file contents, and restored instead of parsed when the same files are analyzed again.
+	 * The folder must be trusted, since the snapshots are deserialized. Null disables the snapshots.
+	 */
+	public void setModelSnapshotDirectory(File snapshotDirectory) {
+		this.snapshotDirectory = snapshotDirectory;
+		if (snapshotDirectory != null) {
+			snapshotDirectory.mkdirs();
+		}
+	}
+
+	/**
+	 * When set, the models built for the files of each commit are kept in the given cache, which can be shared by several miners.
+	 * Null disables the cache.
+	 */
+	public void setModelCache(UMLModelCache modelCache) {
+		this.modelCache = modelCache;
+	}
+
+	/**
+	 * When disabled, the comments and the javadoc of operations and attributes are not extracted while parsing,
+	 * which does not affect the detected refactorings.
+	 */
+	public void setExtractComments(boolean extractComments) {
+		this.extractComments = extractComments;
+	}
+
+	/**
+	 * Sets the number of threads of this miner building the body mappers of the move candidates of an operation,
+	 * which defaults to 1 or the number in the system property {@value #CANDIDATE_THREADS_PROPERTY}.
+	 * The detected refactorings do not depend on it.
+	 */
+	public synchronized void setCandidateThreads(int candidateThreads) {
+		if (this.candidateThreads != Math.max(1, candidateThreads)) {
+			this.candidateThreads = Math.max(1, candidateThreads);
+			//the commits in progress keep the previous pool, whose threads end when idle
+			this.candidatePool = null;
+		}
+	}
+
+	private synchronized ExecutorService getCandidatePool() {
+		if (candidateThreads > 1 && candidatePool == null) {
+			AtomicInteger threadNumber = new AtomicInteger();
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(candidateThreads, candidateThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), runnable -> {
+				Thread thread = new Thread(runnable, "refactoringminer-candidates-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+			//a miner that is no longer used does not keep its threads
+			pool.allowCoreThreadTimeOut(true);
+			candidatePool = pool;
+		}
+		return candidatePool;
+	}
+
+	private CommitProfile startProfile(String commitId) {
+		CommitProfile.stop();
+		return profiledMappers >= 0 ? CommitProfile.start(commitId, profiledMappers) : null;
+	}
+
+	private static void deliverProfile(RefactoringHandler handler, String commitId, CommitProfile profile) {
+		if (profile != null) {
+			CommitProfile.stop();
+			handler.handleProfile(commitId, profile);
+		}
+	}
+
+	private static void observe(Histogram histogram, String phase, long start) {
+		long nanos = System.nanoTime() - start;
+		histogram.observeNanos(nanos);
+		CommitProfile profile = CommitProfile.current();
+		if (profile != null) {
+			profile.addPhase(phase, nanos);
+		}
+	}
 	
 	private void detect(GitService gitService, Repository repository, final RefactoringHandler handler, Iterator<RevCommit> i) {
 		int commitsCount = 0;
@@ -105,6 +244,7 @@ public class GitHistoryRefactoringMinerImpl implements GitHistoryRefactoringMine
 				logger.warn(String.format("Ignored revision %s due to error", currentCommit.getId().getName()), e);
 				handler.handleException(currentCommit.getId().getName(),e);
 				errorCommitsCount++;
+				ERROR_COMMITS.increment();
 			}
 
 			commitsCount++;
@@ -120,57 +260,162 @@ public class GitHistoryRefactoringMinerImpl implements GitHistoryRefactoringMine
 	}
 
 	protected List<Refactoring> detectRefactorings(GitService gitService, Repository repository, final RefactoringHandler handler, File projectFolder, RevCommit currentCommit) throws Exception {
+		return detectRefactorings(gitService, repository, handler, projectFolder, currentCommit, null);
+	}
+
+	/**
+	 * @param fileModelCache The cache of the models of the changed files, or null to parse the changed files of the commit together.
+	 */
+	List<Refactoring> detectRefactorings(GitService gitService, Repository repository, final RefactoringHandler handler, File projectFolder, RevCommit currentCommit, FileModelCache fileModelCache) throws Exception {
+		CommitAnalysisEvent event = new CommitAnalysisEvent();
+		event.begin();
 		List<Refactoring> refactoringsAtRevision;
 		String commitId = currentCommit.getId().getName();
-		List<String> filePathsBefore = new ArrayList<String>();
-		List<String> filePathsCurrent = new ArrayList<String>();
-		Map<String, String> renamedFilesHint = new HashMap<String, String>();
-		gitService.fileTreeDiff(repository, currentCommit, filePathsBefore, filePathsCurrent, renamedFilesHint);
+		CommitProfile profile = startProfile(commitId);
+		try {
+			List<String> filePathsBefore = new ArrayList<String>();
+			List<String> filePathsCurrent = new ArrayList<String>();
+			Map<String, String> renamedFilesHint = new HashMap<String, String>();
+			long start = System.nanoTime();
+			gitService.fileTreeDiff(repository, currentCommit, filePathsBefore, filePathsCurrent, renamedFilesHint);
+			observe(GIT_READ_TIME, "gitRead", start);
 		
+			Set<String> repositoryDirectoriesBefore = new LinkedHashSet<String>();
+			Set<String> repositoryDirectoriesCurrent = new LinkedHashSet<String>();
+			Map<String, String> fileContentsBefore = new LinkedHashMap<String, String>();
+			Map<String, String> fileContentsCurrent = new LinkedHashMap<String, String>();
+			try (RevWalk walk = new RevWalk(repository)) {
+				// If no java files changed, there is no refactoring. Also, if there are
+				// only ADD's or only REMOVE's there is no refactoring
+				if (!filePathsBefore.isEmpty() && !filePathsCurrent.isEmpty() && currentCommit.getParentCount() > 0) {
+					RevCommit parentCommit = currentCommit.getParent(0);
+					if (fileModelCache != null) {
+						refactoringsAtRevision = detectRefactorings(repository, parentCommit, currentCommit, filePathsBefore, filePathsCurrent, renamedFilesHint, fileModelCache);
+					} else if (modelCache == null && snapshotDirectory == null) {
+						// the contents are only needed as Strings for the key of the cached models and the snapshots
+						Map<String, ObjectId> blobIdsBefore = new LinkedHashMap<String, ObjectId>();
+						Map<String, ObjectId> blobIdsCurrent = new LinkedHashMap<String, ObjectId>();
+						start = System.nanoTime();
+						populateBlobIds(repository, parentCommit, filePathsBefore, blobIdsBefore, repositoryDirectoriesBefore);
+						observe(GIT_READ_TIME, "gitRead", start);
+						UMLModel parentUMLModel = createModel(repository, blobIdsBefore, repositoryDirectoriesBefore);
+
+						start = System.nanoTime();
+						populateBlobIds(repository, currentCommit, filePathsCurrent, blobIdsCurrent, repositoryDirectoriesCurrent);
+						observe(GIT_READ_TIME, "gitRead", start);
+						UMLModel currentUMLModel = createModel(repository, blobIdsCurrent, repositoryDirectoriesCurrent);
+
+						refactoringsAtRevision = detectRefactorings(parentUMLModel, currentUMLModel, renamedFilesHint);
+					} else {
+						start = System.nanoTime();
+						populateFileContents(repository, parentCommit, filePathsBefore, fileContentsBefore, repositoryDirectoriesBefore);
+						observe(GIT_READ_TIME, "gitRead", start);
+						UMLModel parentUMLModel = createModel(fileContentsBefore, repositoryDirectoriesBefore);
+
+						start = System.nanoTime();
+						populateFileContents(repository, currentCommit, filePathsCurrent, fileContentsCurrent, repositoryDirectoriesCurrent);
+						observe(GIT_READ_TIME, "gitRead", start);
+						UMLModel currentUMLModel = createModel(fileContentsCurrent, repositoryDirectoriesCurrent);
+					
+						refactoringsAtRevision = detectRefactorings(parentUMLModel, currentUMLModel, renamedFilesHint);
+					}
+				} else {
+					//logger.info(String.format("Ignored revision %s with no changes in java files", commitId));
+					refactoringsAtRevision = Collections.emptyList();
+				}
+				commitAnalysisEvent(event, projectFolder.getName(), commitId, refactoringsAtRevision, null);
+				deliverProfile(handler, commitId, profile);
+				start = System.nanoTime();
+				handler.handle(commitId, refactoringsAtRevision);
+				HANDLER_TIME.observeSince(start);
+				COMMITS.increment();
+			
+				walk.dispose();
+			}
+			return refactoringsAtRevision;
+		} finally {
+			CommitProfile.stop();
+		}
+	}
+
+	/**
+	 * Assembles the models of the commit and its parent from the models of the changed files, parsing only the files not found
+	 * in the cache. The files with the same contents on both sides are left out, as in {@link #collectBlobIds}.
+	 */
+	private List<Refactoring> detectRefactorings(Repository repository, RevCommit parentCommit, RevCommit currentCommit,
+			List<String> filePathsBefore, List<String> filePathsCurrent, Map<String, String> renamedFilesHint, FileModelCache fileModelCache) throws Exception {
+		Map<String, ObjectId> blobIdsBefore = new LinkedHashMap<String, ObjectId>();
+		Map<String, ObjectId> blobIdsCurrent = new LinkedHashMap<String, ObjectId>();
 		Set<String> repositoryDirectoriesBefore = new LinkedHashSet<String>();
 		Set<String> repositoryDirectoriesCurrent = new LinkedHashSet<String>();
-		Map<String, String> fileContentsBefore = new LinkedHashMap<String, String>();
-		Map<String, String> fileContentsCurrent = new LinkedHashMap<String, String>();
-		try (RevWalk walk = new RevWalk(repository)) {
-			// If no java files changed, there is no refactoring. Also, if there are
-			// only ADD's or only REMOVE's there is no refactoring
-			if (!filePathsBefore.isEmpty() && !filePathsCurrent.isEmpty() && currentCommit.getParentCount() > 0) {
-				RevCommit parentCommit = currentCommit.getParent(0);
-				populateFileContents(repository, parentCommit, filePathsBefore, fileContentsBefore, repositoryDirectoriesBefore);
-				UMLModel parentUMLModel = createModel(fileContentsBefore, repositoryDirectoriesBefore);
+		long start = System.nanoTime();
+		populateBlobIds(repository, parentCommit, filePathsBefore, blobIdsBefore, repositoryDirectoriesBefore);
+		populateBlobIds(repository, currentCommit, filePathsCurrent, blobIdsCurrent, repositoryDirectoriesCurrent);
+		for (String filePath : new ArrayList<String>(blobIdsBefore.keySet())) {
+			if (blobIdsBefore.get(filePath).equals(blobIdsCurrent.get(filePath))) {
+				blobIdsBefore.remove(filePath);
+				blobIdsCurrent.remove(filePath);
+			}
+		}
+		observe(GIT_READ_TIME, "gitRead", start);
+		if (blobIdsBefore.isEmpty() || blobIdsCurrent.isEmpty()) {
+			return Collections.emptyList();
+		}
+		FileModelCache.ContentLoader blobLoader = (filePath, blobId) -> readSource(repository.open(blobId, Constants.OBJ_BLOB));
+		start = System.nanoTime();
+		UMLModel parentUMLModel = fileModelCache.createModel(blobIdsBefore, repositoryDirectoriesBefore, extractComments, blobLoader);
+		UMLModel currentUMLModel;
+		try {
+			currentUMLModel = fileModelCache.createModel(blobIdsCurrent, repositoryDirectoriesCurrent, extractComments, blobLoader);
+		} catch (Exception e) {
+			fileModelCache.release(parentUMLModel);
+			throw e;
+		}
+		observe(PARSE_TIME, "parse", start);
+		try {
+			return detectRefactorings(parentUMLModel, currentUMLModel, renamedFilesHint);
+		} finally {
+			fileModelCache.release(parentUMLModel);
+			fileModelCache.release(currentUMLModel);
+		}
+	}
 
-				populateFileContents(repository, currentCommit, filePathsCurrent, fileContentsCurrent, repositoryDirectoriesCurrent);
-				UMLModel currentUMLModel = createModel(fileContentsCurrent, repositoryDirectoriesCurrent);
-				
-				UMLModelDiff modelDiff = parentUMLModel.diff(currentUMLModel, renamedFilesHint);
-				refactoringsAtRevision = modelDiff.getRefactorings();
-				refactoringsAtRevision = filter(refactoringsAtRevision);
-			} else {
-				//logger.info(String.format("Ignored revision %s with no changes in java files", commitId));
-				refactoringsAtRevision = Collections.emptyList();
-			}
-			handler.handle(commitId, refactoringsAtRevision);
-			
-			walk.dispose();
+	private void populateBlobIds(Repository repository, RevCommit commit,
+			List<String> filePaths, Map<String, ObjectId> blobIds, Set<String> repositoryDirectories) throws Exception {
+		logger.info("Processing {} {} ...", repository.getDirectory().getParent().toString(), commit.getName());
+		Set<String> filePathSet = new HashSet<String>(filePaths);
+		try (TreeWalk treeWalk = new TreeWalk(repository)) {
+			treeWalk.addTree(commit.getTree());
+			treeWalk.setRecursive(true);
+			while (treeWalk.next()) {
+				String pathString = treeWalk.getPathString();
+				if(filePathSet.contains(pathString)) {
+					blobIds.put(pathString, treeWalk.getObjectId(0));
+				}
+				if(pathString.endsWith(".java") && pathString.contains("/")) {
+					String directory = pathString.substring(0, pathString.lastIndexOf("/"));
+					while(directory.length() > 0 && repositoryDirectories.add(directory) && directory.contains("/")) {
+						directory = directory.substring(0, directory.lastIndexOf("/"));
+					}
+				}
+			}
 		}
-		return refactoringsAtRevision;
 	}
 
 	private void populateFileContents(Repository repository, RevCommit commit,
 			List<String> filePaths, Map<String, String> fileContents, Set<String> repositoryDirectories) throws Exception {
 		logger.info("Processing {} {} ...", repository.getDirectory().getParent().toString(), commit.getName());
 		RevTree parentTree = commit.getTree();
+		Set<String> filePathSet = new HashSet<String>(filePaths);
 		try (TreeWalk treeWalk = new TreeWalk(repository)) {
 			treeWalk.addTree(parentTree);
 			treeWalk.setRecursive(true);
 			while (treeWalk.next()) {
 				String pathString = treeWalk.getPathString();
-				if(filePaths.contains(pathString)) {
+				if(filePathSet.contains(pathString)) {
 					ObjectId objectId = treeWalk.getObjectId(0);
-					ObjectLoader loader = repository.open(objectId);
-					StringWriter writer = new StringWriter();
-					IOUtils.copy(loader.openStream(), writer);
-					fileContents.put(pathString, writer.toString());
+					ObjectLoader loader = repository.open(objectId, Constants.OBJ_BLOB);
+					fileContents.put(pathString, readBlob(loader));
 				}
 				if(pathString.endsWith(".java") && pathString.contains("/")) {
 					String directory = pathString.substring(0, pathString.lastIndexOf("/"));
@@ -186,40 +431,163 @@ public class GitHistoryRefactoringMinerImpl implements GitHistoryRefactoringMine
 		}
 	}
 
+	/**
+	 * Decodes the blob with {@link #SOURCE_CHARSET}. Small blobs are decoded from the bytes already inflated by the loader,
+	 * and large blobs are streamed.
+	 */
+	private static String readBlob(ObjectLoader loader) throws IOException {
+		if (!loader.isLarge()) {
+			return new String(loader.getCachedBytes(), SOURCE_CHARSET);
+		}
+		try (InputStream in = loader.openStream()) {
+			return IOUtils.toString(in, SOURCE_CHARSET);
+		}
+	}
+
+	/**
+	 * Decodes the blob with {@link #SOURCE_CHARSET} straight into the characters handed to the parser, without an intermediate String.
+	 */
+	private static char[] readSource(ObjectLoader loader) throws IOException {
+		if (!loader.isLarge()) {
+			return UMLModelASTReader.decode(ByteBuffer.wrap(loader.getCachedBytes()), SOURCE_CHARSET);
+		}
+		try (InputStream in = loader.openStream()) {
+			return UMLModelASTReader.decode(ByteBuffer.wrap(IOUtils.toByteArray(in)), SOURCE_CHARSET);
+		}
+	}
+
 	protected List<Refactoring> detectRefactorings(final RefactoringHandler handler, File projectFolder, String cloneURL, String currentCommitId) {
-		List<Refactoring> refactoringsAtRevision = Collections.emptyList();
+		return detectRefactorings(handler, projectFolder, cloneURL, currentCommitId, true);
+	}
+
+	/**
+	 * @param countTimeout Whether a timeout of the detection is counted and recorded as a JFR event here. It is not when the caller
+	 * bounds the analysis with its own timeout, which reports it.
+	 */
+	private List<Refactoring> detectRefactorings(final RefactoringHandler handler, File projectFolder, String cloneURL, String currentCommitId, boolean countTimeout) {
+		CommitAnalysisEvent event = new CommitAnalysisEvent();
+		event.begin();
+		CommitProfile profile = startProfile(currentCommitId);
 		try {
-			ChangedFileInfo changedFileInfo = populateWithGitHubAPI(projectFolder, cloneURL, currentCommitId);
-			String parentCommitId = changedFileInfo.getParentCommitId();
-			List<String> filesBefore = changedFileInfo.getFilesBefore();
-			List<String> filesCurrent = changedFileInfo.getFilesCurrent();
-			Map<String, String> renamedFilesHint = changedFileInfo.getRenamedFilesHint();
-			File currentFolder = new File(projectFolder.getParentFile(), projectFolder.getName() + "-" + currentCommitId);
-			File parentFolder = new File(projectFolder.getParentFile(), projectFolder.getName() + "-" + parentCommitId);
-			if (!currentFolder.exists()) {	
-				downloadAndExtractZipFile(projectFolder, cloneURL, currentCommitId);
-			}
-			if (!parentFolder.exists()) {	
-				downloadAndExtractZipFile(projectFolder, cloneURL, parentCommitId);
-			}
-			if (currentFolder.exists() && parentFolder.exists()) {
-				UMLModel currentUMLModel = createModel(currentFolder, filesCurrent);
-				UMLModel parentUMLModel = createModel(parentFolder, filesBefore);
-				// Diff between currentModel e parentModel
-				UMLModelDiff modelDiff = parentUMLModel.diff(currentUMLModel, renamedFilesHint);
-				refactoringsAtRevision = modelDiff.getRefactorings();
-				refactoringsAtRevision = filter(refactoringsAtRevision);
+			Exception error = null;
+			List<Refactoring> refactoringsAtRevision = Collections.emptyList();
+			try {
+				long start = System.nanoTime();
+				ChangedFileInfo changedFileInfo = populateWithGitHubAPI(projectFolder, cloneURL, currentCommitId);
+				observe(GIT_READ_TIME, "gitRead", start);
+				String parentCommitId = changedFileInfo.getParentCommitId();
+				List<String> filesBefore = changedFileInfo.getFilesBefore();
+				List<String> filesCurrent = changedFileInfo.getFilesCurrent();
+				Map<String, String> renamedFilesHint = changedFileInfo.getRenamedFilesHint();
+				if (streamArchives) {
+					Set<String> repositoryDirectoriesBefore = new LinkedHashSet<String>();
+					Set<String> repositoryDirectoriesCurrent = new LinkedHashSet<String>();
+					Map<String, String> fileContentsBefore = new LinkedHashMap<String, String>();
+					Map<String, String> fileContentsCurrent = new LinkedHashMap<String, String>();
+					start = System.nanoTime();
+					downloadAndPopulateFileContents(cloneURL, currentCommitId, filesCurrent, fileContentsCurrent, repositoryDirectoriesCurrent);
+					downloadAndPopulateFileContents(cloneURL, parentCommitId, filesBefore, fileContentsBefore, repositoryDirectoriesBefore);
+					observe(GIT_READ_TIME, "gitRead", start);
+					UMLModel currentUMLModel = createModel(fileContentsCurrent, repositoryDirectoriesCurrent);
+					UMLModel parentUMLModel = createModel(fileContentsBefore, repositoryDirectoriesBefore);
+					refactoringsAtRevision = detectRefactorings(parentUMLModel, currentUMLModel, renamedFilesHint);
+				}
+				else {
+					File currentFolder = new File(projectFolder.getParentFile(), projectFolder.getName() + "-" + currentCommitId);
+					File parentFolder = new File(projectFolder.getParentFile(), projectFolder.getName() + "-" + parentCommitId);
+					start = System.nanoTime();
+					if (!currentFolder.exists()) {	
+						downloadAndExtractZipFile(projectFolder, cloneURL, currentCommitId);
+					}
+					if (!parentFolder.exists()) {	
+						downloadAndExtractZipFile(projectFolder, cloneURL, parentCommitId);
+					}
+					observe(GIT_READ_TIME, "gitRead", start);
+					if (currentFolder.exists() && parentFolder.exists()) {
+						UMLModel currentUMLModel = createModel(currentFolder, filesCurrent);
+						UMLModel parentUMLModel = createModel(parentFolder, filesBefore);
+						// Diff between currentModel e parentModel
+						refactoringsAtRevision = detectRefactorings(parentUMLModel, currentUMLModel, renamedFilesHint);
+					}
+					else {
+						logger.warn(String.format("Folder %s not found", currentFolder.getPath()));
+					}
+				}
+			} catch (RefactoringMinerTimedOutException e) {
+				logger.warn(String.format("Ignored revision %s due to timeout", currentCommitId), e);
+				if (countTimeout) {
+					TIMEOUTS.increment();
+					timeoutEvent(currentCommitId);
+				}
+				handler.handleException(currentCommitId, e);
+				error = e;
+			} catch (Exception e) {
+				logger.warn(String.format("Ignored revision %s due to error", currentCommitId), e);
+				ERROR_COMMITS.increment();
+				handler.handleException(currentCommitId, e);
+				error = e;
 			}
-			else {
-				logger.warn(String.format("Folder %s not found", currentFolder.getPath()));
+			commitAnalysisEvent(event, cloneURL, currentCommitId, refactoringsAtRevision, error);
+			deliverProfile(handler, currentCommitId, profile);
+			long start = System.nanoTime();
+			handler.handle(currentCommitId, refactoringsAtRevision);
+			HANDLER_TIME.observeSince(start);
+			if (error == null) {
+				COMMITS.increment();
 			}
-		} catch (Exception e) {
-			logger.warn(String.format("Ignored revision %s due to error", currentCommitId), e);
-			handler.handleException(currentCommitId, e);
+
+			return refactoringsAtRevision;
+		} finally {
+			CommitProfile.stop();
+		}
+	}
+
+	private List<Refactoring> detectRefactorings(UMLModel parentUMLModel, UMLModel currentUMLModel, Map<String, String> renamedFilesHint) throws RefactoringMinerTimedOutException {
+		CommitProfile profile = CommitProfile.current();
+		if (profile != null) {
+			setModelSize(profile, "before", parentUMLModel);
+			setModelSize(profile, "after", currentUMLModel);
+		}
+		long start = System.nanoTime();
+		UMLModelDiff modelDiff = parentUMLModel.diff(currentUMLModel, renamedFilesHint);
+		observe(MODEL_DIFF_TIME, "modelDiff", start);
+		start = System.nanoTime();
+		modelDiff.setCandidatePool(getCandidatePool());
+		List<Refactoring> refactoringsAtRevision = modelDiff.getRefactorings();
+		observe(REFACTORING_EXTRACTION_TIME, "refactoringExtraction", start);
+		if (modelCache != null) {
+			modelCache.checkIn(parentUMLModel);
+			modelCache.checkIn(currentUMLModel);
 		}
-		handler.handle(currentCommitId, refactoringsAtRevision);
+		return filter(refactoringsAtRevision);
+	}
 
-		return refactoringsAtRevision;
+	private static void setModelSize(CommitProfile profile, String version, UMLModel model) {
+		int operations = 0;
+		int attributes = 0;
+		for (UMLClass umlClass : model.getClassList()) {
+			operations += umlClass.getOperations().size();
+			attributes += umlClass.getAttributes().size();
+		}
+		profile.setModelSize(version, model.getClassList().size(), operations, attributes);
+	}
+
+	private static void commitAnalysisEvent(CommitAnalysisEvent event, String repository, String commitId, List<Refactoring> refactorings, Exception error) {
+		if (event.shouldCommit()) {
+			event.repository = repository;
+			event.commitId = commitId;
+			event.refactorings = refactorings.size();
+			event.error = error != null ? error.toString() : null;
+			event.commit();
+		}
+	}
+
+	private static void timeoutEvent(String commitId) {
+		TimeoutEvent event = new TimeoutEvent();
+		if (event.shouldCommit()) {
+			event.commitId = commitId;
+			event.commit();
+		}
 	}
 
 	private void downloadAndExtractZipFile(File projectFolder, String cloneURL, String commitId)
@@ -251,6 +619,47 @@ public class GitHistoryRefactoringMinerImpl implements GitHistoryRefactoringMine
 		}
 	}
 
+	private void downloadAndPopulateFileContents(String cloneURL, String commitId,
+			List<String> filePaths, Map<String, String> fileContents, Set<String> repositoryDirectories) throws IOException {
+		String downloadLink = extractDownloadLink(cloneURL, commitId);
+		logger.info(String.format("Streaming archive %s", downloadLink));
+		try (InputStream in = new BufferedInputStream(new URL(downloadLink).openStream())) {
+			populateFileContents(in, filePaths, fileContents, repositoryDirectories);
+		}
+	}
+
+	/**
+	 * Reads a repository archive as a stream, keeping in memory only the contents of the Java files in {@code filePaths}.
+	 * The top-level folder of the archive (e.g., {@code project-sha1/}) is stripped from the entry names.
+	 * The directories of all Java files found in the archive are collected in {@code repositoryDirectories}.
+	 */
+	protected static void populateFileContents(InputStream archive,
+			List<String> filePaths, Map<String, String> fileContents, Set<String> repositoryDirectories) throws IOException {
+		Set<String> targetPaths = new HashSet<String>(filePaths);
+		ZipInputStream zipInputStream = new ZipInputStream(archive);
+		ZipEntry entry;
+		while ((entry = zipInputStream.getNextEntry()) != null) {
+			String entryName = entry.getName();
+			if (entry.isDirectory() || !entryName.endsWith(".java") || !entryName.contains("/")) {
+				continue;
+			}
+			String pathString = entryName.substring(entryName.indexOf("/") + 1);
+			if (targetPaths.contains(pathString)) {
+				fileContents.put(pathString, IOUtils.toString(zipInputStream, SOURCE_CHARSET));
+			}
+			if (pathString.contains("/")) {
+				String directory = pathString.substring(0, pathString.lastIndexOf("/"));
+				repositoryDirectories.add(directory);
+				//include sub-directories
+				String subDirectory = new String(directory);
+				while(subDirectory.contains("/")) {
+					subDirectory = subDirectory.substring(0, subDirectory.lastIndexOf("/"));
+					repositoryDirectories.add(subDirectory);
+				}
+			}
+		}
+	}
+
 	public static class ChangedFileInfo {
 		private String parentCommitId;
 		private List<String> filesBefore;
@@ -399,8 +808,87 @@ public class GitHistoryRefactoringMinerImpl implements GitHistoryRefactoringMine
 		}
 	}
 
+	/**
+	 * Starts a {@link RepositoryWatcher} that polls the repository with the given delay and passes the refactorings
+	 * of the new commits to the handler, until it is closed. The watcher keeps the models of the changed files between
+	 * polls, in place of the model cache and the snapshots.
+	 */
+	public RepositoryWatcher watch(Repository repository, long interval, TimeUnit unit, RefactoringHandler handler) throws Exception {
+		RepositoryWatcher watcher = new RepositoryWatcher(this, repository, handler);
+		watcher.start(interval, unit);
+		return watcher;
+	}
+
+	/**
+	 * Parses the given blobs, decoded one at a time, for the models that are neither cached nor written as snapshots.
+	 */
+	private UMLModel createModel(Repository repository, Map<String, ObjectId> blobIds, Set<String> repositoryDirectories) throws IOException {
+		long start = System.nanoTime();
+		UMLModelASTReader reader = new UMLModelASTReader(repositoryDirectories, extractComments);
+		for (Map.Entry<String, ObjectId> entry : blobIds.entrySet()) {
+			reader.addJavaFile(entry.getKey(), readSource(repository.open(entry.getValue(), Constants.OBJ_BLOB)));
+		}
+		observe(PARSE_TIME, "parse", start);
+		return reader.getUmlModel();
+	}
+
 	protected UMLModel createModel(Map<String, String> fileContents, Set<String> repositoryDirectories) throws Exception {
-		return new UMLModelASTReader(fileContents, repositoryDirectories).getUmlModel();
+		String key = null;
+		if (modelCache != null || snapshotDirectory != null) {
+			key = UMLModelSnapshot.key(fileContents, repositoryDirectories, extractComments);
+		}
+		if (modelCache != null) {
+			UMLModel model = modelCache.checkOut(key);
+			if (model != null) {
+				return model;
+			}
+		}
+		Path snapshot = null;
+		if (snapshotDirectory != null) {
+			long start = System.nanoTime();
+			snapshot = snapshotDirectory.toPath().resolve(key + UMLModelSnapshot.EXTENSION);
+			UMLModel model = readSnapshot(snapshot);
+			if (model != null) {
+				observe(SNAPSHOT_READ_TIME, "snapshotRead", start);
+				if (modelCache != null) {
+					modelCache.checkedOut(key, model);
+				}
+				return model;
+			}
+		}
+		long start = System.nanoTime();
+		UMLModel model = new UMLModelASTReader(fileContents, repositoryDirectories, extractComments).getUmlModel();
+		observe(PARSE_TIME, "parse", start);
+		if (modelCache != null) {
+			modelCache.checkedOut(key, model);
+		}
+		if (snapshot != null) {
+			//written before the model diff modifies the model
+			start = System.nanoTime();
+			try {
+				UMLModelSnapshot.write(model, snapshot);
+			} catch (IOException e) {
+				logger.warn(String.format("Could not write snapshot %s", snapshot), e);
+			}
+			observe(SNAPSHOT_WRITE_TIME, "snapshotWrite", start);
+		}
+		return model;
+	}
+
+	private UMLModel readSnapshot(Path snapshot) {
+		if (!Files.exists(snapshot)) {
+			return null;
+		}
+		try {
+			return UMLModelSnapshot.read(snapshot);
+		} catch (IOException e) {
+			logger.warn(String.format("Ignored snapshot %s due to error", snapshot), e);
+			try {
+				Files.deleteIfExists(snapshot);
+			} catch (IOException ignored) {
+			}
+			return null;
+		}
 	}
 
 	private static final String systemFileSeparator = Matcher.quoteReplacement(File.separator);
@@ -410,7 +898,7 @@ public class GitHistoryRefactoringMinerImpl implements GitHistoryRefactoringMine
 		Set<String> repositoryDirectories = new LinkedHashSet<String>();
 		for(String path : filePaths) {
 			String fullPath = projectFolder + File.separator + path.replaceAll("/", systemFileSeparator);
-			String contents = FileUtils.readFileToString(new File(fullPath));
+			String contents = FileUtils.readFileToString(new File(fullPath), SOURCE_CHARSET);
 			fileContents.put(path, contents);
 			String directory = new String(path);
 			while(directory.contains("/")) {
@@ -418,11 +906,15 @@ public class GitHistoryRefactoringMinerImpl implements GitHistoryRefactoringMine
 				repositoryDirectories.add(directory);
 			}
 		}
-		return new UMLModelASTReader(fileContents, repositoryDirectories).getUmlModel();
+		return createModel(fileContents, repositoryDirectories);
 	}
 
 	@Override
 	public void detectAtCommit(Repository repository, String commitId, RefactoringHandler handler) {
+		detectAtCommit(repository, commitId, handler, true);
+	}
+
+	private void detectAtCommit(Repository repository, String commitId, RefactoringHandler handler, boolean countTimeout) {
 		String cloneURL = repository.getConfig().getString("remote", "origin", "url");
 		File metadataFolder = repository.getDirectory();
 		File projectFolder = metadataFolder.getParentFile();
@@ -438,11 +930,16 @@ public class GitHistoryRefactoringMinerImpl implements GitHistoryRefactoringMine
 				logger.warn(String.format("Ignored revision %s because it has no parent", commitId));
 			}
 		} catch (MissingObjectException moe) {
-			this.detectRefactorings(handler, projectFolder, cloneURL, commitId);
+			this.detectRefactorings(handler, projectFolder, cloneURL, commitId, countTimeout);
 		} catch (RefactoringMinerTimedOutException e) {
 			logger.warn(String.format("Ignored revision %s due to timeout", commitId), e);
+			if (countTimeout) {
+				TIMEOUTS.increment();
+				timeoutEvent(commitId);
+			}
 		} catch (Exception e) {
 			logger.warn(String.format("Ignored revision %s due to error", commitId), e);
+			ERROR_COMMITS.increment();
 			handler.handleException(commitId, e);
 		} finally {
 			walk.close();
@@ -454,11 +951,14 @@ public class GitHistoryRefactoringMinerImpl implements GitHistoryRefactoringMine
 		ExecutorService service = Executors.newSingleThreadExecutor();
 		Future<?> f = null;
 		try {
-			Runnable r = () -> detectAtCommit(repository, commitId, handler);
+			//the timeout is counted here, whether the analysis notices the interruption or not
+			Runnable r = () -> detectAtCommit(repository, commitId, handler, false);
 			f = service.submit(r);
 			f.get(timeout, TimeUnit.SECONDS);
 		} catch (TimeoutException e) {
 			f.cancel(true);
+			TIMEOUTS.increment();
+			timeoutEvent(commitId);
 		} catch (ExecutionException e) {
 			e.printStackTrace();
 		} catch (InterruptedException e) {
@@ -468,6 +968,139 @@ public class GitHistoryRefactoringMinerImpl implements GitHistoryRefactoringMine
 		}
 	}
 
+	@Override
+	public void detectBetweenDirectories(File previousDirectory, File nextDirectory, RefactoringHandler handler) {
+		String id = nextDirectory.getPath();
+		CommitProfile profile = startProfile(id);
+		try {
+			long start = System.nanoTime();
+			DirectoryDiff directoryDiff = new DirectoryDiff(previousDirectory, nextDirectory, SOURCE_CHARSET);
+			observe(DIRECTORY_READ_TIME, "directoryRead", start);
+			logger.info(String.format("Comparing %s with %s [Changed files: %d, Unchanged files: %d]", previousDirectory, nextDirectory,
+					directoryDiff.getFileContentsCurrent().size(), directoryDiff.getUnchangedFiles()));
+			List<Refactoring> refactorings;
+			// same as a commit with only added or only removed files
+			if (!directoryDiff.getFileContentsBefore().isEmpty() && !directoryDiff.getFileContentsCurrent().isEmpty()) {
+				UMLModel parentUMLModel = createModel(directoryDiff.getFileContentsBefore(), directoryDiff.getRepositoryDirectoriesBefore());
+				UMLModel currentUMLModel = createModel(directoryDiff.getFileContentsCurrent(), directoryDiff.getRepositoryDirectoriesCurrent());
+				refactorings = detectRefactorings(parentUMLModel, currentUMLModel, directoryDiff.getRenamedFilesHint());
+			}
+			else {
+				refactorings = Collections.emptyList();
+			}
+			deliverProfile(handler, id, profile);
+			start = System.nanoTime();
+			handler.handle(id, refactorings);
+			HANDLER_TIME.observeSince(start);
+			COMMITS.increment();
+			handler.onFinish(refactorings.size(), 1, 0);
+		} catch (RefactoringMinerTimedOutException e) {
+			logger.warn(String.format("Ignored %s due to timeout", id), e);
+			TIMEOUTS.increment();
+			timeoutEvent(id);
+			handler.onFinish(0, 1, 1);
+		} catch (Exception e) {
+			logger.warn(String.format("Ignored %s due to error", id), e);
+			ERROR_COMMITS.increment();
+			handler.handleException(id, e);
+			handler.onFinish(0, 1, 1);
+		} finally {
+			CommitProfile.stop();
+		}
+	}
+
+	/**
+	 * Collects the blob ids of the changed files before and after the changes. The files with the same contents on both sides,
+	 * such as a change of the file mode, are left out: they have no refactorings, and the models of both sides would share the
+	 * classes of the same cached file model.
+	 */
+	static void collectBlobIds(List<DiffEntry> diffs, Map<String, ObjectId> blobIdsBefore, Map<String, ObjectId> blobIdsCurrent, Map<String, String> renamedFilesHint) {
+		for (DiffEntry diff : diffs) {
+			if (diff.getChangeType() == ChangeType.MODIFY && diff.getOldId().equals(diff.getNewId())) {
+				continue;
+			}
+			if (diff.getChangeType() != ChangeType.ADD) {
+				blobIdsBefore.put(diff.getOldPath(), diff.getOldId().toObjectId());
+			}
+			if (diff.getChangeType() != ChangeType.DELETE) {
+				blobIdsCurrent.put(diff.getNewPath(), diff.getNewId().toObjectId());
+			}
+			if (diff.getChangeType() == ChangeType.RENAME) {
+				renamedFilesHint.put(diff.getOldPath(), diff.getNewPath());
+			}
+		}
+	}
+
+	@Override
+	public void detectAtWorkingTree(Repository repository, boolean index, RefactoringHandler handler) {
+		String id = index ? "INDEX" : "WORKING_TREE";
+		GitService gitService = new GitServiceImpl();
+		CommitProfile profile = startProfile(id);
+		FileModelCache fileModelCache = FileModelCache.of(repository);
+		try {
+			long start = System.nanoTime();
+			ObjectId headTree = repository.resolve(Constants.HEAD + "^{tree}");
+			List<DiffEntry> diffs = gitService.workingTreeDiff(repository, index);
+			Map<String, ObjectId> blobIdsBefore = new LinkedHashMap<String, ObjectId>();
+			Map<String, ObjectId> blobIdsCurrent = new LinkedHashMap<String, ObjectId>();
+			Map<String, String> renamedFilesHint = new HashMap<String, String>();
+			collectBlobIds(diffs, blobIdsBefore, blobIdsCurrent, renamedFilesHint);
+			observe(GIT_READ_TIME, "gitRead", start);
+			List<Refactoring> refactorings;
+			if (!blobIdsBefore.isEmpty() && !blobIdsCurrent.isEmpty()) {
+				Set<String> repositoryDirectoriesBefore = fileModelCache.repositoryDirectories(repository, headTree);
+				Set<String> repositoryDirectoriesCurrent = new LinkedHashSet<String>(repositoryDirectoriesBefore);
+				for (String filePath : blobIdsCurrent.keySet()) {
+					String directory = filePath;
+					while (directory.contains("/")) {
+						directory = directory.substring(0, directory.lastIndexOf("/"));
+						repositoryDirectoriesCurrent.add(directory);
+					}
+				}
+				FileModelCache.ContentLoader blobLoader = (filePath, blobId) -> readSource(repository.open(blobId, Constants.OBJ_BLOB));
+				FileModelCache.ContentLoader currentLoader = index ? blobLoader :
+					(filePath, blobId) -> UMLModelASTReader.decode(ByteBuffer.wrap(Files.readAllBytes(new File(repository.getWorkTree(), filePath).toPath())), SOURCE_CHARSET);
+				start = System.nanoTime();
+				UMLModel parentUMLModel = fileModelCache.createModel(blobIdsBefore, repositoryDirectoriesBefore, extractComments, blobLoader);
+				UMLModel currentUMLModel;
+				try {
+					currentUMLModel = fileModelCache.createModel(blobIdsCurrent, repositoryDirectoriesCurrent, extractComments, currentLoader);
+				} catch (Exception e) {
+					fileModelCache.release(parentUMLModel);
+					throw e;
+				}
+				observe(PARSE_TIME, "parse", start);
+				try {
+					refactorings = detectRefactorings(parentUMLModel, currentUMLModel, renamedFilesHint);
+				} finally {
+					fileModelCache.release(parentUMLModel);
+					fileModelCache.release(currentUMLModel);
+				}
+			}
+			else {
+				refactorings = Collections.emptyList();
+			}
+			deliverProfile(handler, id, profile);
+			start = System.nanoTime();
+			handler.handle(id, refactorings);
+			HANDLER_TIME.observeSince(start);
+			COMMITS.increment();
+			handler.onFinish(refactorings.size(), 1, 0);
+		} catch (RefactoringMinerTimedOutException e) {
+			logger.warn(String.format("Ignored %s due to timeout", id), e);
+			TIMEOUTS.increment();
+			timeoutEvent(id);
+			handler.onFinish(0, 1, 1);
+		} catch (Exception e) {
+			logger.warn(String.format("Ignored %s due to error", id), e);
+			ERROR_COMMITS.increment();
+			handler.handleException(id, e);
+			handler.onFinish(0, 1, 1);
+		} finally {
+			CommitProfile.stop();
+		}
+	}
+
 	@Override
 	public String getConfigId() {
 	    return "RM1";
@@ -501,6 +1134,34 @@ public class GitHistoryRefactoringMinerImpl implements GitHistoryRefactoringMine
 		detect(gitService, repository, handler, walk.iterator());
 	}
 
+	/**
+	 * Detects the refactorings of the commits of {@link #detectBetweenCommits(Repository, String, String, RefactoringHandler)}
+	 * assigned to the given shard by {@link #shardOf(String, int)}, so that a range can be split among several processes.
+	 * Commits for which {@link RefactoringHandler#skipCommit(String)} returns true are not analyzed.
+	 */
+	public void detectBetweenCommits(Repository repository, String startCommitId, String endCommitId, int shard, int shards,
+			RefactoringHandler handler) throws Exception {
+		if (shard < 0 || shard >= shards) {
+			throw new IllegalArgumentException(String.format("Shard %d is not between 0 and %d", shard, shards - 1));
+		}
+		GitService gitService = new GitServiceImpl();
+		List<RevCommit> commits = new ArrayList<RevCommit>();
+		for (RevCommit commit : gitService.createRevsWalkBetweenCommits(repository, startCommitId, endCommitId)) {
+			if (shardOf(commit.getName(), shards) == shard && !handler.skipCommit(commit.getName())) {
+				commits.add(commit);
+			}
+		}
+		detect(gitService, repository, handler, commits.iterator());
+	}
+
+	/**
+	 * @return The shard of a commit among the given number of shards, from the first 32 bits of its id, which are uniformly
+	 * distributed and do not depend on the range or the process.
+	 */
+	public static int shardOf(String commitId, int shards) {
+		return (int)(Long.parseLong(commitId.substring(0, 8), 16) % shards);
+	}
+
 	@Override
 	public Churn churnAtCommit(Repository repository, String commitId, RefactoringHandler handler) {
 		GitService gitService = new GitServiceImpl();
@@ -536,6 +1197,8 @@ public class GitHistoryRefactoringMinerImpl implements GitHistoryRefactoringMine
 			f.get(timeout, TimeUnit.SECONDS);
 		} catch (TimeoutException e) {
 			f.cancel(true);
+			TIMEOUTS.increment();
+			timeoutEvent(commitId);
 		} catch (ExecutionException e) {
 			e.printStackTrace();
 		} catch (InterruptedException e) {
@@ -546,32 +1209,51 @@ public class GitHistoryRefactoringMinerImpl implements GitHistoryRefactoringMine
 	}
 
 	protected List<Refactoring> detectRefactorings(final RefactoringHandler handler, String gitURL, String currentCommitId) {
-		List<Refactoring> refactoringsAtRevision = Collections.emptyList();
+		CommitAnalysisEvent event = new CommitAnalysisEvent();
+		event.begin();
+		CommitProfile profile = startProfile(currentCommitId);
 		try {
-			Set<String> repositoryDirectoriesBefore = ConcurrentHashMap.newKeySet();
-			Set<String> repositoryDirectoriesCurrent = ConcurrentHashMap.newKeySet();
-			Map<String, String> fileContentsBefore = new ConcurrentHashMap<String, String>();
-			Map<String, String> fileContentsCurrent = new ConcurrentHashMap<String, String>();
-			Map<String, String> renamedFilesHint = new ConcurrentHashMap<String, String>();
-			populateWithGitHubAPI(gitURL, currentCommitId, fileContentsBefore, fileContentsCurrent, renamedFilesHint, repositoryDirectoriesBefore, repositoryDirectoriesCurrent);
-			UMLModel currentUMLModel = createModel(fileContentsCurrent, repositoryDirectoriesCurrent);
-			UMLModel parentUMLModel = createModel(fileContentsBefore, repositoryDirectoriesBefore);
-			//  Diff between currentModel e parentModel
-			UMLModelDiff modelDiff = parentUMLModel.diff(currentUMLModel, renamedFilesHint);
-			refactoringsAtRevision = modelDiff.getRefactorings();
-			refactoringsAtRevision = filter(refactoringsAtRevision);
-		}
-		catch(RefactoringMinerTimedOutException e) {
-			logger.warn(String.format("Ignored revision %s due to timeout", currentCommitId), e);
-			handler.handleException(currentCommitId, e);
-		}
-		catch (Exception e) {
-			logger.warn(String.format("Ignored revision %s due to error", currentCommitId), e);
-			handler.handleException(currentCommitId, e);
-		}
-		handler.handle(currentCommitId, refactoringsAtRevision);
+			Exception error = null;
+			List<Refactoring> refactoringsAtRevision = Collections.emptyList();
+			try {
+				Set<String> repositoryDirectoriesBefore = ConcurrentHashMap.newKeySet();
+				Set<String> repositoryDirectoriesCurrent = ConcurrentHashMap.newKeySet();
+				Map<String, String> fileContentsBefore = new ConcurrentHashMap<String, String>();
+				Map<String, String> fileContentsCurrent = new ConcurrentHashMap<String, String>();
+				Map<String, String> renamedFilesHint = new ConcurrentHashMap<String, String>();
+				long start = System.nanoTime();
+				populateWithGitHubAPI(gitURL, currentCommitId, fileContentsBefore, fileContentsCurrent, renamedFilesHint, repositoryDirectoriesBefore, repositoryDirectoriesCurrent);
+				observe(GIT_READ_TIME, "gitRead", start);
+				UMLModel currentUMLModel = createModel(fileContentsCurrent, repositoryDirectoriesCurrent);
+				UMLModel parentUMLModel = createModel(fileContentsBefore, repositoryDirectoriesBefore);
+				//  Diff between currentModel e parentModel
+				refactoringsAtRevision = detectRefactorings(parentUMLModel, currentUMLModel, renamedFilesHint);
+			}
+			catch(RefactoringMinerTimedOutException e) {
+				//only called with a timeout, which counts it
+				logger.warn(String.format("Ignored revision %s due to timeout", currentCommitId), e);
+				handler.handleException(currentCommitId, e);
+				error = e;
+			}
+			catch (Exception e) {
+				logger.warn(String.format("Ignored revision %s due to error", currentCommitId), e);
+				ERROR_COMMITS.increment();
+				handler.handleException(currentCommitId, e);
+				error = e;
+			}
+			commitAnalysisEvent(event, gitURL, currentCommitId, refactoringsAtRevision, error);
+			deliverProfile(handler, currentCommitId, profile);
+			long start = System.nanoTime();
+			handler.handle(currentCommitId, refactoringsAtRevision);
+			HANDLER_TIME.observeSince(start);
+			if (error == null) {
+				COMMITS.increment();
+			}
 
-		return refactoringsAtRevision;
+			return refactoringsAtRevision;
+		} finally {
+			CommitProfile.stop();
+		}
 	}
 
 	private void populateWithGitHubAPI(String cloneURL, String currentCommitId,
@@ -592,10 +1274,10 @@ public class GitHistoryRefactoringMinerImpl implements GitHistoryRefactoringMine
 						try {
 							URL currentRawURL = commitFile.getRawUrl();
 							InputStream currentRawFileInputStream = currentRawURL.openStream();
-							String currentRawFile = IOUtils.toString(currentRawFileInputStream);
+							String currentRawFile = IOUtils.toString(currentRawFileInputStream, SOURCE_CHARSET);
 							String rawURLInParentCommit = currentRawURL.toString().replace(currentCommitId, parentCommitId);
 							InputStream parentRawFileInputStream = new URL(rawURLInParentCommit).openStream();
-							String parentRawFile = IOUtils.toString(parentRawFileInputStream);
+							String parentRawFile = IOUtils.toString(parentRawFileInputStream, SOURCE_CHARSET);
 							filesBefore.put(fileName, parentRawFile);
 							filesCurrent.put(fileName, currentRawFile);
 						}
@@ -610,7 +1292,7 @@ public class GitHistoryRefactoringMinerImpl implements GitHistoryRefactoringMine
 						try {
 							URL currentRawURL = commitFile.getRawUrl();
 							InputStream currentRawFileInputStream = currentRawURL.openStream();
-							String currentRawFile = IOUtils.toString(currentRawFileInputStream);
+							String currentRawFile = IOUtils.toString(currentRawFileInputStream, SOURCE_CHARSET);
 							filesCurrent.put(fileName, currentRawFile);
 						}
 						catch(IOException e) {
@@ -624,7 +1306,7 @@ public class GitHistoryRefactoringMinerImpl implements GitHistoryRefactoringMine
 						try {
 							URL rawURL = commitFile.getRawUrl();
 							InputStream rawFileInputStream = rawURL.openStream();
-							String rawFile = IOUtils.toString(rawFileInputStream);
+							String rawFile = IOUtils.toString(rawFileInputStream, SOURCE_CHARSET);
 							filesBefore.put(fileName, rawFile);
 							if(fileName.contains("/")) {
 								deletedAndRenamedFileParentDirectories.add(fileName.substring(0, fileName.lastIndexOf("/")));
@@ -642,10 +1324,10 @@ public class GitHistoryRefactoringMinerImpl implements GitHistoryRefactoringMine
 							String previousFilename = commitFile.getPreviousFilename();
 							URL currentRawURL = commitFile.getRawUrl();
 							InputStream currentRawFileInputStream = currentRawURL.openStream();
-							String currentRawFile = IOUtils.toString(currentRawFileInputStream);
+							String currentRawFile = IOUtils.toString(currentRawFileInputStream, SOURCE_CHARSET);
 							String rawURLInParentCommit = currentRawURL.toString().replace(currentCommitId, parentCommitId).replace(fileName, previousFilename);
 							InputStream parentRawFileInputStream = new URL(rawURLInParentCommit).openStream();
-							String parentRawFile = IOUtils.toString(parentRawFileInputStream);
+							String parentRawFile = IOUtils.toString(parentRawFileInputStream, SOURCE_CHARSET);
 							filesBefore.put(previousFilename, parentRawFile);
 							filesCurrent.put(fileName, currentRawFile);
 							renamedFilesHint.put(previousFilename, fileName);
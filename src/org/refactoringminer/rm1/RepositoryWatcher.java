@@ -0,0 +1,191 @@
+package org.refactoringminer.rm1;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.refactoringminer.api.GitService;
+import org.refactoringminer.api.Refactoring;
+import org.refactoringminer.api.RefactoringHandler;
+import org.refactoringminer.util.GitServiceImpl;
+import org.refactoringminer.util.MetricsRegistry;
+import org.refactoringminer.util.MetricsRegistry.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Polls a repository and detects the refactorings of the commits that arrive, as a long-running
+ * {@link GitHistoryRefactoringMinerImpl#fetchAndDetectNew}.
+ * <p>
+ * Each poll fetches from the configured remotes, if any, and analyzes the non-merge commits reachable from the branches and
+ * remote-tracking branches that were not reachable at the previous poll, oldest first. This covers clones, mirrors and bare
+ * repositories receiving pushes. Commits for which {@link RefactoringHandler#skipCommit(String)} returns true are not analyzed.
+ * <p>
+ * The models of the changed files are kept between polls in a file model cache of the watcher, so that a file modified by a
+ * commit is not parsed again when the next commits change it. The last analyzed commits, 10000 by default or the value of the
+ * {@value #ANALYZED_COMMITS_PROPERTY} property, are remembered so that a forced update does not analyze them again.
+ */
+public class RepositoryWatcher implements Closeable {
+	public static final String ANALYZED_COMMITS_PROPERTY = "refactoringminer.watchAnalyzedCommits";
+	private static final Counter POLLS = MetricsRegistry.getDefault().counter("refactoringminer_watch_polls_total", "Repository polls in watch mode");
+	private static final Counter POLL_ERRORS = MetricsRegistry.getDefault().counter("refactoringminer_watch_poll_errors_total", "Repository polls failed in watch mode");
+	private static final Logger logger = LoggerFactory.getLogger(RepositoryWatcher.class);
+
+	private final GitHistoryRefactoringMinerImpl miner;
+	private final Repository repository;
+	private final RefactoringHandler handler;
+	private final GitService gitService = new GitServiceImpl();
+	private final FileModelCache fileModelCache = new FileModelCache();
+	private final Set<String> analyzedCommits;
+	private Set<ObjectId> knownTips;
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * Only the commits that arrive after the creation of the watcher are analyzed.
+	 */
+	public RepositoryWatcher(GitHistoryRefactoringMinerImpl miner, Repository repository, RefactoringHandler handler) throws Exception {
+		this.miner = miner;
+		this.repository = repository;
+		this.handler = handler;
+		int maxAnalyzedCommits = Integer.getInteger(ANALYZED_COMMITS_PROPERTY, 10000);
+		this.analyzedCommits = Collections.newSetFromMap(new LinkedHashMap<String, Boolean>() {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+				return size() > maxAnalyzedCommits;
+			}
+		});
+		this.knownTips = tips();
+	}
+
+	/**
+	 * Polls the repository on a daemon thread, with the given delay between the end of a poll and the start of the next one.
+	 */
+	public synchronized void start(long interval, TimeUnit unit) {
+		if (scheduler != null) {
+			throw new IllegalStateException("Already started");
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "refactoringminer-watch-" + repository.getDirectory().getName());
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				poll();
+			} catch (Exception e) {
+				//retried at the next poll
+				logger.warn(String.format("Failed to poll %s", repository.getDirectory()), e);
+				POLL_ERRORS.increment();
+			}
+		}, 0, interval, unit);
+	}
+
+	/**
+	 * @return The number of new commits analyzed.
+	 */
+	public synchronized int poll() throws Exception {
+		POLLS.increment();
+		if (!repository.getRemoteNames().isEmpty()) {
+			try (Git git = new Git(repository)) {
+				git.fetch().call();
+			}
+		}
+		Set<ObjectId> tips = tips();
+		List<RevCommit> commits = new ArrayList<RevCommit>();
+		try (RevWalk walk = new RevWalk(repository)) {
+			boolean started = false;
+			for (ObjectId tip : tips) {
+				if (!knownTips.contains(tip)) {
+					walk.markStart(walk.parseCommit(tip));
+					started = true;
+				}
+			}
+			if (started) {
+				for (ObjectId knownTip : knownTips) {
+					try {
+						walk.markUninteresting(walk.parseCommit(knownTip));
+					} catch (MissingObjectException e) {
+						//pruned after a forced update
+					}
+				}
+				walk.sort(RevSort.TOPO);
+				walk.sort(RevSort.REVERSE, true);
+				for (RevCommit commit : walk) {
+					if (commit.getParentCount() == 1 && !analyzedCommits.contains(commit.getName()) && !handler.skipCommit(commit.getName())) {
+						walk.parseHeaders(commit.getParent(0));
+						commits.add(commit);
+					}
+				}
+			}
+		}
+		File projectFolder = repository.isBare() ? repository.getDirectory() : repository.getWorkTree();
+		for (RevCommit commit : commits) {
+			try {
+				List<Refactoring> refactorings = miner.detectRefactorings(gitService, repository, handler, projectFolder, commit, fileModelCache);
+				logger.info(String.format("Analyzed new commit %s [Refactorings: %d]", commit.getName(), refactorings.size()));
+			} catch (Exception e) {
+				logger.warn(String.format("Ignored revision %s due to error", commit.getName()), e);
+				GitHistoryRefactoringMinerImpl.ERROR_COMMITS.increment();
+				handler.handleException(commit.getName(), e);
+			}
+			analyzedCommits.add(commit.getName());
+		}
+		knownTips = tips;
+		return commits.size();
+	}
+
+	private Set<ObjectId> tips() throws Exception {
+		Set<ObjectId> tips = new HashSet<ObjectId>();
+		List<Ref> refs = new ArrayList<Ref>();
+		refs.addAll(repository.getRefDatabase().getRefsByPrefix(Constants.R_HEADS));
+		refs.addAll(repository.getRefDatabase().getRefsByPrefix(Constants.R_REMOTES));
+		for (Ref ref : refs) {
+			if (!ref.isSymbolic() && ref.getObjectId() != null) {
+				tips.add(ref.getObjectId());
+			}
+		}
+		return tips;
+	}
+
+	public synchronized Collection<String> getAnalyzedCommits() {
+		return new ArrayList<String>(analyzedCommits);
+	}
+
+	/**
+	 * Stops polling, waiting for the current poll to complete. The repository is not closed.
+	 */
+	@Override
+	public void close() {
+		ScheduledExecutorService scheduler;
+		synchronized (this) {
+			scheduler = this.scheduler;
+		}
+		if (scheduler != null) {
+			scheduler.shutdown();
+			try {
+				scheduler.awaitTermination(1, TimeUnit.MINUTES);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
@@ -0,0 +1,301 @@
+package org.refactoringminer.rm1;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+
+import org.refactoringminer.util.MetricsRegistry;
+import org.refactoringminer.util.MetricsRegistry.Counter;
+
+import gr.uom.java.xmi.UMLAbstractClass;
+import gr.uom.java.xmi.UMLClass;
+import gr.uom.java.xmi.UMLModel;
+import gr.uom.java.xmi.UMLModelSnapshot;
+import gr.uom.java.xmi.UMLOperation;
+import gr.uom.java.xmi.decomposition.AbstractCodeFragment;
+import gr.uom.java.xmi.decomposition.CompositeStatementObject;
+import gr.uom.java.xmi.decomposition.LambdaExpressionObject;
+import gr.uom.java.xmi.decomposition.OperationBody;
+
+/**
+ * Cache of the models built for the files of a commit, for long-running services analyzing the same repositories repeatedly.
+ * Models are keyed by the {@link UMLModelSnapshot#key(Map, Set)} of their files.
+ * <p>
+ * The heap retained by each model is estimated from its number of classes, operations, attributes and statements, and the least
+ * recently used models are evicted when the total exceeds the budget. When a garbage collection leaves a heap pool above its
+ * collection usage threshold, the cache is evicted down to half of its size, and since the models are softly referenced the collector
+ * can still reclaim them before running out of memory. The cache only reads the thresholds, which are set by the application or with
+ * {@link #setCollectionUsageThresholds(double)}.
+ * <p>
+ * A model is checked out of the cache while it is compared, because the comparison keeps state in the model, so concurrent
+ * analyses of the same files build their own model. A model is checked in after a comparison completed successfully, which clears
+ * that state.
+ */
+public class UMLModelCache {
+	private static final Counter HITS = MetricsRegistry.getDefault().counter("refactoringminer_model_cache_hits_total", "Models taken from the model cache");
+	private static final Counter MISSES = MetricsRegistry.getDefault().counter("refactoringminer_model_cache_misses_total", "Models not found in the model cache");
+	private static final Counter EVICTIONS = MetricsRegistry.getDefault().counter("refactoringminer_model_cache_evictions_total", "Models evicted from the model cache or reclaimed by the garbage collector");
+	//rough averages of the retained heap, on the high side
+	private static final long CLASS_BYTES = 2048;
+	private static final long OPERATION_BYTES = 1024;
+	private static final long ATTRIBUTE_BYTES = 512;
+	private static final long STATEMENT_BYTES = 1024;
+
+	private final long budgetBytes;
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+	private final Map<UMLModel, String> checkedOut = new WeakHashMap<UMLModel, String>();
+	private final ReferenceQueue<UMLModel> reclaimed = new ReferenceQueue<UMLModel>();
+	private final PressureListener pressureListener = new PressureListener(this);
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	private long sizeBytes;
+
+	public UMLModelCache(long budgetBytes) {
+		this.budgetBytes = budgetBytes;
+		((NotificationEmitter)ManagementFactory.getMemoryMXBean()).addNotificationListener(pressureListener, null, null);
+	}
+
+	/**
+	 * Sets the collection usage threshold of the heap pools without one to the given fraction of their maximum.
+	 * The thresholds apply to the whole JVM and are not reset when the caches are closed.
+	 */
+	public static void setCollectionUsageThresholds(double fraction) {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			long max = pool.getUsage().getMax();
+			//thresholds set by the application are kept
+			if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() && max > 0 && pool.getCollectionUsageThreshold() == 0) {
+				pool.setCollectionUsageThreshold((long)(max * fraction));
+			}
+		}
+	}
+
+	/**
+	 * @return The cached model for the given key, removed from the cache until it is checked in, or null.
+	 */
+	public synchronized UMLModel checkOut(String key) {
+		purgeReclaimed();
+		Entry entry = entries.remove(key);
+		UMLModel model = null;
+		if (entry != null) {
+			sizeBytes -= entry.bytes;
+			model = entry.get();
+		}
+		if (model == null) {
+			MISSES.increment();
+			misses.incrementAndGet();
+			return null;
+		}
+		HITS.increment();
+		hits.incrementAndGet();
+		checkedOut.put(model, key);
+		return model;
+	}
+
+	/**
+	 * Registers a model built for the given key after a {@link #checkOut(String)} miss, so that it is cached when checked in.
+	 */
+	public synchronized void checkedOut(String key, UMLModel model) {
+		checkedOut.put(model, key);
+	}
+
+	/**
+	 * Caches a checked out model after its comparison completed. Models of failed or interrupted comparisons must not be checked in.
+	 */
+	public void checkIn(UMLModel model) {
+		String key;
+		synchronized (this) {
+			key = checkedOut.remove(model);
+		}
+		if (key == null) {
+			return;
+		}
+		long bytes = clearAndEstimate(model);
+		synchronized (this) {
+			purgeReclaimed();
+			if (bytes > budgetBytes) {
+				return;
+			}
+			Entry previous = entries.put(key, new Entry(key, model, bytes, reclaimed));
+			if (previous != null) {
+				//the same files analyzed concurrently
+				sizeBytes -= previous.bytes;
+			}
+			sizeBytes += bytes;
+			evict(budgetBytes);
+		}
+	}
+
+	private void relievePressure() {
+		synchronized (this) {
+			purgeReclaimed();
+			evict(sizeBytes / 2);
+		}
+	}
+
+	private void evict(long targetBytes) {
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (sizeBytes > targetBytes && iterator.hasNext()) {
+			Entry entry = iterator.next();
+			iterator.remove();
+			sizeBytes -= entry.bytes;
+			EVICTIONS.increment();
+			evictions.incrementAndGet();
+		}
+	}
+
+	private void purgeReclaimed() {
+		Reference<? extends UMLModel> reference;
+		while ((reference = reclaimed.poll()) != null) {
+			Entry entry = (Entry)reference;
+			if (entries.remove(entry.key, entry)) {
+				sizeBytes -= entry.bytes;
+				EVICTIONS.increment();
+				evictions.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Clears the argumentization left in the model by the comparison and estimates the heap retained by the model.
+	 */
+	static long clearAndEstimate(UMLModel model) {
+		long bytes = 0;
+		for (UMLClass umlClass : model.getClassList()) {
+			bytes += clearAndEstimate(umlClass);
+			for (UMLAbstractClass anonymousClass : umlClass.getAnonymousClassList()) {
+				bytes += clearAndEstimate(anonymousClass);
+			}
+		}
+		return bytes;
+	}
+
+	private static long clearAndEstimate(UMLAbstractClass umlClass) {
+		long bytes = CLASS_BYTES + umlClass.getAttributes().size() * ATTRIBUTE_BYTES;
+		for (UMLOperation operation : umlClass.getOperations()) {
+			bytes += OPERATION_BYTES + clearAndEstimate(operation.getBody());
+		}
+		return bytes;
+	}
+
+	private static long clearAndEstimate(OperationBody body) {
+		if (body == null) {
+			return 0;
+		}
+		CompositeStatementObject composite = body.getCompositeStatement();
+		long bytes = 0;
+		for (AbstractCodeFragment leaf : composite.getLeaves()) {
+			bytes += clearAndEstimate(leaf);
+		}
+		for (AbstractCodeFragment innerNode : composite.getInnerNodes()) {
+			bytes += clearAndEstimate(innerNode);
+		}
+		return bytes;
+	}
+
+	private static long clearAndEstimate(AbstractCodeFragment fragment) {
+		fragment.clearArgumentization();
+		long bytes = STATEMENT_BYTES;
+		for (LambdaExpressionObject lambda : fragment.getLambdas()) {
+			if (lambda.getExpression() != null) {
+				lambda.getExpression().clearArgumentization();
+			}
+			bytes += clearAndEstimate(lambda.getBody());
+		}
+		return bytes;
+	}
+
+	/**
+	 * Stops listening to the garbage collection notifications and empties the cache. The pool thresholds are left in place.
+	 */
+	public void close() {
+		pressureListener.remove();
+		synchronized (this) {
+			entries.clear();
+			sizeBytes = 0;
+		}
+	}
+
+	public long getBudgetBytes() {
+		return budgetBytes;
+	}
+
+	public synchronized long getSizeBytes() {
+		purgeReclaimed();
+		return sizeBytes;
+	}
+
+	public synchronized int size() {
+		purgeReclaimed();
+		return entries.size();
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	/**
+	 * Refers weakly to its cache, so that a cache that was not closed can still be collected, and then stops listening.
+	 */
+	private static class PressureListener implements NotificationListener {
+		private final WeakReference<UMLModelCache> cache;
+
+		private PressureListener(UMLModelCache cache) {
+			this.cache = new WeakReference<UMLModelCache>(cache);
+		}
+
+		@Override
+		public void handleNotification(Notification notification, Object handback) {
+			UMLModelCache cache = this.cache.get();
+			if (cache == null) {
+				remove();
+			}
+			else if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+				cache.relievePressure();
+			}
+		}
+
+		private void remove() {
+			try {
+				((NotificationEmitter)ManagementFactory.getMemoryMXBean()).removeNotificationListener(this);
+			} catch (ListenerNotFoundException e) {
+				//already removed
+			}
+		}
+	}
+
+	private static class Entry extends SoftReference<UMLModel> {
+		private final String key;
+		private final long bytes;
+
+		private Entry(String key, UMLModel model, long bytes, ReferenceQueue<UMLModel> queue) {
+			super(model, queue);
+			this.key = key;
+			this.bytes = bytes;
+		}
+	}
+}
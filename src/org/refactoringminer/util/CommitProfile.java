@@ -0,0 +1,231 @@
+package org.refactoringminer.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+/**
+ * Cost profile of the analysis of a single commit: time per phase, model sizes, candidate pairs evaluated by each detector
+ * and the most expensive operation body mappers.
+ * A profile is bound to the analyzing thread with {@link #start(String, int)}, and the detection code records into {@link #current()}.
+ */
+public class CommitProfile {
+	private static final ThreadLocal<CommitProfile> CURRENT = new ThreadLocal<CommitProfile>();
+	private static final Comparator<MapperCost> BY_NANOS = Comparator.comparingLong(m -> m.nanos);
+
+	private final String commitId;
+	private final int maxMappers;
+	private final Map<String, Long> phaseNanos = new LinkedHashMap<String, Long>();
+	private final Map<String, ModelSize> modelSizes = new LinkedHashMap<String, ModelSize>();
+	private final Map<String, Long> candidatePairs = new LinkedHashMap<String, Long>();
+	private final PriorityQueue<MapperCost> mappers = new PriorityQueue<MapperCost>(BY_NANOS);
+
+	public CommitProfile(String commitId, int maxMappers) {
+		this.commitId = commitId;
+		this.maxMappers = maxMappers;
+	}
+
+	/**
+	 * Binds a new profile to the current thread, replacing any previous one.
+	 *
+	 * @param maxMappers The number of most expensive operation body mappers to keep.
+	 */
+	public static CommitProfile start(String commitId, int maxMappers) {
+		CommitProfile profile = new CommitProfile(commitId, maxMappers);
+		CURRENT.set(profile);
+		return profile;
+	}
+
+	/**
+	 * @return The profile bound to the current thread, or null if the commit is not profiled.
+	 */
+	public static CommitProfile current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Binds an existing profile to the current thread, so that a worker thread records into the profile of the analyzing thread.
+	 */
+	public static void bind(CommitProfile profile) {
+		if(profile != null) {
+			CURRENT.set(profile);
+		}
+		else {
+			CURRENT.remove();
+		}
+	}
+
+	public static void stop() {
+		CURRENT.remove();
+	}
+
+	public static void countCandidatePair(String detector) {
+		CommitProfile profile = CURRENT.get();
+		if(profile != null) {
+			profile.addCandidatePairs(detector, 1);
+		}
+	}
+
+	public String getCommitId() {
+		return commitId;
+	}
+
+	public synchronized void addPhase(String phase, long nanos) {
+		phaseNanos.merge(phase, nanos, Long::sum);
+	}
+
+	public synchronized void addCandidatePairs(String detector, long pairs) {
+		candidatePairs.merge(detector, pairs, Long::sum);
+	}
+
+	public synchronized void setModelSize(String version, int classes, int operations, int attributes) {
+		modelSizes.put(version, new ModelSize(classes, operations, attributes));
+	}
+
+	public synchronized void addMapper(String operation1, String operation2, long nanos,
+			int leaves1, int innerNodes1, int leaves2, int innerNodes2, int mappings) {
+		if(maxMappers <= 0) {
+			return;
+		}
+		if(mappers.size() < maxMappers) {
+			mappers.add(new MapperCost(operation1, operation2, nanos, leaves1, innerNodes1, leaves2, innerNodes2, mappings));
+		}
+		else if(mappers.peek().nanos < nanos) {
+			mappers.poll();
+			mappers.add(new MapperCost(operation1, operation2, nanos, leaves1, innerNodes1, leaves2, innerNodes2, mappings));
+		}
+	}
+
+	public synchronized Map<String, Long> getPhaseNanos() {
+		return new LinkedHashMap<String, Long>(phaseNanos);
+	}
+
+	public synchronized Map<String, Long> getCandidatePairs() {
+		return new LinkedHashMap<String, Long>(candidatePairs);
+	}
+
+	/**
+	 * @return The most expensive mappers, most expensive first.
+	 */
+	public synchronized List<MapperCost> getMappers() {
+		List<MapperCost> sorted = new ArrayList<MapperCost>(mappers);
+		sorted.sort(BY_NANOS.reversed());
+		return sorted;
+	}
+
+	public synchronized String toJSON() {
+		JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+		StringBuilder sb = new StringBuilder();
+		sb.append("{");
+		sb.append("\"").append("phases").append("\"").append(": ").append("{");
+		int counter = 0;
+		for(Map.Entry<String, Long> entry : phaseNanos.entrySet()) {
+			if(counter++ > 0) {
+				sb.append(", ");
+			}
+			sb.append("\"").append(entry.getKey()).append("Millis").append("\"").append(": ").append(millis(entry.getValue()));
+		}
+		sb.append("}").append(", ");
+		sb.append("\"").append("models").append("\"").append(": ").append("{");
+		counter = 0;
+		for(Map.Entry<String, ModelSize> entry : modelSizes.entrySet()) {
+			if(counter++ > 0) {
+				sb.append(", ");
+			}
+			ModelSize size = entry.getValue();
+			sb.append("\"").append(entry.getKey()).append("\"").append(": ").append("{");
+			sb.append("\"").append("classes").append("\"").append(": ").append(size.classes).append(", ");
+			sb.append("\"").append("operations").append("\"").append(": ").append(size.operations).append(", ");
+			sb.append("\"").append("attributes").append("\"").append(": ").append(size.attributes);
+			sb.append("}");
+		}
+		sb.append("}").append(", ");
+		sb.append("\"").append("candidatePairs").append("\"").append(": ").append("{");
+		counter = 0;
+		for(Map.Entry<String, Long> entry : candidatePairs.entrySet()) {
+			if(counter++ > 0) {
+				sb.append(", ");
+			}
+			sb.append("\"").append(entry.getKey()).append("\"").append(": ").append(entry.getValue());
+		}
+		sb.append("}").append(", ");
+		sb.append("\"").append("mappers").append("\"").append(": ").append("[");
+		counter = 0;
+		for(MapperCost mapper : getMappers()) {
+			if(counter++ > 0) {
+				sb.append(", ");
+			}
+			sb.append("{");
+			sb.append("\"").append("operation1").append("\"").append(": ").append("\"").append(encoder.quoteAsString(mapper.operation1)).append("\"").append(", ");
+			sb.append("\"").append("operation2").append("\"").append(": ").append("\"").append(encoder.quoteAsString(mapper.operation2)).append("\"").append(", ");
+			sb.append("\"").append("millis").append("\"").append(": ").append(millis(mapper.nanos)).append(", ");
+			sb.append("\"").append("leaves1").append("\"").append(": ").append(mapper.leaves1).append(", ");
+			sb.append("\"").append("innerNodes1").append("\"").append(": ").append(mapper.innerNodes1).append(", ");
+			sb.append("\"").append("leaves2").append("\"").append(": ").append(mapper.leaves2).append(", ");
+			sb.append("\"").append("innerNodes2").append("\"").append(": ").append(mapper.innerNodes2).append(", ");
+			sb.append("\"").append("mappings").append("\"").append(": ").append(mapper.mappings);
+			sb.append("}");
+		}
+		sb.append("]");
+		sb.append("}");
+		return sb.toString();
+	}
+
+	private static String millis(long nanos) {
+		return String.format(Locale.ROOT, "%.3f", nanos / (double)TimeUnit.MILLISECONDS.toNanos(1));
+	}
+
+	private static class ModelSize {
+		private final int classes;
+		private final int operations;
+		private final int attributes;
+
+		private ModelSize(int classes, int operations, int attributes) {
+			this.classes = classes;
+			this.operations = operations;
+			this.attributes = attributes;
+		}
+	}
+
+	public static class MapperCost {
+		private final String operation1;
+		private final String operation2;
+		private final long nanos;
+		private final int leaves1;
+		private final int innerNodes1;
+		private final int leaves2;
+		private final int innerNodes2;
+		private final int mappings;
+
+		private MapperCost(String operation1, String operation2, long nanos,
+				int leaves1, int innerNodes1, int leaves2, int innerNodes2, int mappings) {
+			this.operation1 = operation1;
+			this.operation2 = operation2;
+			this.nanos = nanos;
+			this.leaves1 = leaves1;
+			this.innerNodes1 = innerNodes1;
+			this.leaves2 = leaves2;
+			this.innerNodes2 = innerNodes2;
+			this.mappings = mappings;
+		}
+
+		public String getOperation1() {
+			return operation1;
+		}
+
+		public String getOperation2() {
+			return operation2;
+		}
+
+		public long getNanos() {
+			return nanos;
+		}
+	}
+}
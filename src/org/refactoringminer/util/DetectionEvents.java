@@ -0,0 +1,132 @@
+package org.refactoringminer.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events emitted by the detection phases.
+ * All events are disabled by default. They can be enabled with the {@code refactoringminer.jfc} configuration
+ * shipped in the resources, e.g., {@code -XX:StartFlightRecording:settings=default,settings=refactoringminer.jfc}.
+ * Event fields are only computed when {@link Event#shouldCommit()} returns true, so disabled events cost nothing.
+ */
+public class DetectionEvents {
+	private static final String CATEGORY = "RefactoringMiner";
+
+	@Name("org.refactoringminer.CommitAnalysis")
+	@Label("Commit Analysis")
+	@Description("Detection of the refactorings in a commit, from reading the changed files until the results are delivered to the handler")
+	@Category(CATEGORY)
+	@Enabled(false)
+	@StackTrace(false)
+	public static class CommitAnalysisEvent extends Event {
+		@Label("Repository")
+		public String repository;
+
+		@Label("Commit Id")
+		public String commitId;
+
+		@Label("Refactorings")
+		public int refactorings;
+
+		@Label("Error")
+		public String error;
+	}
+
+	@Name("org.refactoringminer.FileParse")
+	@Label("File Parse")
+	@Description("Parsing of a Java file and construction of its UML model elements")
+	@Category(CATEGORY)
+	@Enabled(false)
+	@StackTrace(false)
+	public static class FileParseEvent extends Event {
+		@Label("File Path")
+		public String filePath;
+
+		@Label("Characters")
+		public int characters;
+	}
+
+	@Name("org.refactoringminer.ClassDiff")
+	@Label("Class Diff")
+	@Description("Comparison of two versions of a class, including the body mappers of its operations")
+	@Category(CATEGORY)
+	@Enabled(false)
+	@StackTrace(false)
+	public static class ClassDiffEvent extends Event {
+		@Label("Original Class")
+		public String originalClass;
+
+		@Label("Next Class")
+		public String nextClass;
+
+		@Label("Operation Body Mappers")
+		public int operationBodyMappers;
+
+		@Label("Removed Operations")
+		public int removedOperations;
+
+		@Label("Added Operations")
+		public int addedOperations;
+	}
+
+	@Name("org.refactoringminer.BodyMapping")
+	@Label("Body Mapping")
+	@Description("Statement mapping between the bodies of two operations")
+	@Category(CATEGORY)
+	@Enabled(false)
+	@StackTrace(false)
+	public static class BodyMappingEvent extends Event {
+		@Label("Operation Before")
+		public String operation1;
+
+		@Label("Operation After")
+		public String operation2;
+
+		@Label("Statements Before")
+		public int statements1;
+
+		@Label("Statements After")
+		public int statements2;
+
+		@Label("Mappings")
+		public int mappings;
+	}
+
+	@Name("org.refactoringminer.ExtractInlineDetection")
+	@Label("Extract/Inline Detection")
+	@Description("Search for extracted or inlined operations among the added or removed operations of a class")
+	@Category(CATEGORY)
+	@Enabled(false)
+	@StackTrace(false)
+	public static class ExtractInlineDetectionEvent extends Event {
+		@Label("Class")
+		public String className;
+
+		@Label("Kind")
+		public String kind;
+
+		@Label("Candidate Pairs")
+		public int candidatePairs;
+
+		@Label("Refactorings")
+		public int refactorings;
+	}
+
+	@Name("org.refactoringminer.Timeout")
+	@Label("Timeout")
+	@Description("Detection interrupted because the time limit was exceeded")
+	@Category(CATEGORY)
+	@Enabled(false)
+	public static class TimeoutEvent extends Event {
+		@Label("Commit Id")
+		public String commitId;
+
+		@Label("Operation")
+		public String operation;
+	}
+}
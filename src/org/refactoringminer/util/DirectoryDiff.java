@@ -0,0 +1,219 @@
+package org.refactoringminer.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * The Java files that differ between two source directories, compared without git.
+ * <p>
+ * Files with the same path and the same bytes on both sides are skipped, like the unchanged files of a commit, and only the
+ * contents of the other files are kept. The repository directories include the directories of all Java files. Deleted and added
+ * files with at least 80% similar contents are reported as renamed, like the renames detected by JGit for a commit.
+ */
+public class DirectoryDiff {
+	private static final int RENAME_SCORE = 80;
+	//the deleted and added files compared by content at most, as the default rename limit of git
+	private static final int RENAME_LIMIT = 400;
+	private final Map<String, String> fileContentsBefore = new LinkedHashMap<String, String>();
+	private final Map<String, String> fileContentsCurrent = new LinkedHashMap<String, String>();
+	private final Set<String> repositoryDirectoriesBefore = new LinkedHashSet<String>();
+	private final Set<String> repositoryDirectoriesCurrent = new LinkedHashSet<String>();
+	private final Map<String, String> renamedFilesHint = new HashMap<String, String>();
+	private int unchangedFiles;
+
+	public DirectoryDiff(File previousDirectory, File nextDirectory, Charset charset) throws IOException {
+		Map<String, Path> filesBefore = javaFiles(previousDirectory.toPath().toAbsolutePath(), repositoryDirectoriesBefore);
+		Map<String, Path> filesCurrent = javaFiles(nextDirectory.toPath().toAbsolutePath(), repositoryDirectoriesCurrent);
+		List<String> deletedFiles = new ArrayList<String>();
+		for (Map.Entry<String, Path> entry : filesBefore.entrySet()) {
+			String path = entry.getKey();
+			byte[] before = Files.readAllBytes(entry.getValue());
+			Path current = filesCurrent.get(path);
+			if (current == null) {
+				deletedFiles.add(path);
+				fileContentsBefore.put(path, new String(before, charset));
+			}
+			else {
+				byte[] after = Files.size(current) == before.length ? Files.readAllBytes(current) : null;
+				if (after != null && Arrays.equals(before, after)) {
+					unchangedFiles++;
+				}
+				else {
+					fileContentsBefore.put(path, new String(before, charset));
+					fileContentsCurrent.put(path, new String(after != null ? after : Files.readAllBytes(current), charset));
+				}
+			}
+		}
+		List<String> addedFiles = new ArrayList<String>();
+		for (Map.Entry<String, Path> entry : filesCurrent.entrySet()) {
+			if (!filesBefore.containsKey(entry.getKey())) {
+				addedFiles.add(entry.getKey());
+				fileContentsCurrent.put(entry.getKey(), new String(Files.readAllBytes(entry.getValue()), charset));
+			}
+		}
+		detectRenames(deletedFiles, addedFiles);
+	}
+
+	private static Map<String, Path> javaFiles(Path root, Set<String> repositoryDirectories) throws IOException {
+		Map<String, Path> files = new TreeMap<String, Path>();
+		try (Stream<Path> walk = Files.walk(root)) {
+			walk.filter(file -> file.toString().endsWith(".java") && Files.isRegularFile(file)).forEach(file -> {
+				StringBuilder sb = new StringBuilder();
+				for (Path name : root.relativize(file)) {
+					if (sb.length() > 0) {
+						sb.append('/');
+					}
+					sb.append(name.toString());
+				}
+				files.put(sb.toString(), file);
+			});
+		}
+		for (String path : files.keySet()) {
+			String directory = path;
+			while (directory.contains("/")) {
+				directory = directory.substring(0, directory.lastIndexOf("/"));
+				repositoryDirectories.add(directory);
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * Pairs the deleted and added files with identical contents, and then the remaining files by decreasing similarity.
+	 */
+	private void detectRenames(List<String> deletedFiles, List<String> addedFiles) {
+		Map<String, String> addedFileByContents = new HashMap<String, String>();
+		for (String addedFile : addedFiles) {
+			addedFileByContents.putIfAbsent(fileContentsCurrent.get(addedFile), addedFile);
+		}
+		Set<String> renamedFiles = new HashSet<String>();
+		List<String> remainingDeletedFiles = new ArrayList<String>();
+		for (String deletedFile : deletedFiles) {
+			String addedFile = addedFileByContents.remove(fileContentsBefore.get(deletedFile));
+			if (addedFile != null) {
+				renamedFilesHint.put(deletedFile, addedFile);
+				renamedFiles.add(addedFile);
+			}
+			else {
+				remainingDeletedFiles.add(deletedFile);
+			}
+		}
+		List<String> remainingAddedFiles = new ArrayList<String>();
+		for (String addedFile : addedFiles) {
+			if (!renamedFiles.contains(addedFile)) {
+				remainingAddedFiles.add(addedFile);
+			}
+		}
+		if (remainingDeletedFiles.isEmpty() || remainingAddedFiles.isEmpty() ||
+				(long)remainingDeletedFiles.size() * remainingAddedFiles.size() > (long)RENAME_LIMIT * RENAME_LIMIT) {
+			return;
+		}
+		List<Map<String, Integer>> addedLines = new ArrayList<Map<String, Integer>>();
+		for (String addedFile : remainingAddedFiles) {
+			addedLines.add(lineWeights(fileContentsCurrent.get(addedFile)));
+		}
+		List<int[]> candidates = new ArrayList<int[]>();
+		for (int i = 0; i < remainingDeletedFiles.size(); i++) {
+			Map<String, Integer> deletedLines = lineWeights(fileContentsBefore.get(remainingDeletedFiles.get(i)));
+			for (int j = 0; j < remainingAddedFiles.size(); j++) {
+				int score = similarity(deletedLines, addedLines.get(j));
+				if (score >= RENAME_SCORE) {
+					candidates.add(new int[] {score, i, j});
+				}
+			}
+		}
+		candidates.sort((c1, c2) -> Integer.compare(c2[0], c1[0]));
+		Set<Integer> renamedDeletedFiles = new HashSet<Integer>();
+		Set<Integer> renamedAddedFiles = new HashSet<Integer>();
+		for (int[] candidate : candidates) {
+			if (!renamedDeletedFiles.contains(candidate[1]) && !renamedAddedFiles.contains(candidate[2])) {
+				renamedDeletedFiles.add(candidate[1]);
+				renamedAddedFiles.add(candidate[2]);
+				renamedFilesHint.put(remainingDeletedFiles.get(candidate[1]), remainingAddedFiles.get(candidate[2]));
+			}
+		}
+	}
+
+	/**
+	 * @return The number of characters of each distinct line, ignoring line terminators.
+	 */
+	private static Map<String, Integer> lineWeights(String contents) {
+		Map<String, Integer> weights = new HashMap<String, Integer>();
+		int start = 0;
+		while (start < contents.length()) {
+			int end = contents.indexOf('\n', start);
+			if (end < 0) {
+				end = contents.length();
+			}
+			int lineEnd = end > start && contents.charAt(end - 1) == '\r' ? end - 1 : end;
+			weights.merge(contents.substring(start, lineEnd), lineEnd - start + 1, Integer::sum);
+			start = end + 1;
+		}
+		return weights;
+	}
+
+	/**
+	 * @return The percentage of characters in common lines over the characters of the larger file.
+	 */
+	private static int similarity(Map<String, Integer> lines1, Map<String, Integer> lines2) {
+		long total1 = 0;
+		long common = 0;
+		for (Map.Entry<String, Integer> entry : lines1.entrySet()) {
+			total1 += entry.getValue();
+			Integer weight2 = lines2.get(entry.getKey());
+			if (weight2 != null) {
+				common += Math.min(entry.getValue(), weight2);
+			}
+		}
+		long total2 = 0;
+		for (int weight : lines2.values()) {
+			total2 += weight;
+		}
+		long max = Math.max(total1, total2);
+		return max == 0 ? 100 : (int)(common * 100 / max);
+	}
+
+	/**
+	 * @return The contents of the deleted, renamed and modified files in the previous directory.
+	 */
+	public Map<String, String> getFileContentsBefore() {
+		return fileContentsBefore;
+	}
+
+	/**
+	 * @return The contents of the added, renamed and modified files in the next directory.
+	 */
+	public Map<String, String> getFileContentsCurrent() {
+		return fileContentsCurrent;
+	}
+
+	public Set<String> getRepositoryDirectoriesBefore() {
+		return repositoryDirectoriesBefore;
+	}
+
+	public Set<String> getRepositoryDirectoriesCurrent() {
+		return repositoryDirectoriesCurrent;
+	}
+
+	public Map<String, String> getRenamedFilesHint() {
+		return renamedFilesHint;
+	}
+
+	public int getUnchangedFiles() {
+		return unchangedFiles;
+	}
+}
@@ -5,8 +5,10 @@ import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -18,7 +20,11 @@ import org.eclipse.jgit.diff.Edit;
 import org.eclipse.jgit.diff.DiffEntry.ChangeType;
 import org.eclipse.jgit.diff.Edit.Type;
 import org.eclipse.jgit.diff.RenameDetector;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.IndexDiff;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.lib.RepositoryBuilder;
@@ -30,7 +36,11 @@ import org.eclipse.jgit.revwalk.RevWalkUtils;
 import org.eclipse.jgit.revwalk.filter.RevFilter;
 import org.eclipse.jgit.transport.FetchResult;
 import org.eclipse.jgit.transport.TrackingRefUpdate;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
 import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.eclipse.jgit.treewalk.filter.PathSuffixFilter;
 import org.eclipse.jgit.util.io.DisabledOutputStream;
 import org.refactoringminer.api.Churn;
 import org.refactoringminer.api.GitService;
@@ -321,6 +331,41 @@ public class GitServiceImpl implements GitService {
         }
 	}
 
+	@Override
+	public List<DiffEntry> workingTreeDiff(Repository repository, boolean index) throws Exception {
+		ObjectId headTree = repository.resolve(Constants.HEAD + "^{tree}");
+		if (headTree == null) {
+			throw new IllegalStateException("No HEAD commit in " + repository.getDirectory());
+		}
+		try (ObjectReader reader = repository.newObjectReader();
+				DiffFormatter diffFormatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
+			diffFormatter.setRepository(repository);
+			diffFormatter.setDetectRenames(true);
+			diffFormatter.getRenameDetector().setRenameScore(80);
+			if (index) {
+				diffFormatter.setPathFilter(PathSuffixFilter.create(".java"));
+				return diffFormatter.scan(new CanonicalTreeParser(null, reader, headTree), new DirCacheIterator(repository.readDirCache()));
+			}
+			// the files that git status reports as changed, found with the file timestamps in the index,
+			// so that only their contents are hashed
+			IndexDiff indexDiff = new IndexDiff(repository, headTree, new FileTreeIterator(repository));
+			indexDiff.setFilter(PathSuffixFilter.create(".java"));
+			indexDiff.diff();
+			Set<String> changedFiles = new HashSet<String>();
+			changedFiles.addAll(indexDiff.getAdded());
+			changedFiles.addAll(indexDiff.getChanged());
+			changedFiles.addAll(indexDiff.getRemoved());
+			changedFiles.addAll(indexDiff.getMissing());
+			changedFiles.addAll(indexDiff.getModified());
+			changedFiles.addAll(indexDiff.getUntracked());
+			if (changedFiles.isEmpty()) {
+				return Collections.emptyList();
+			}
+			diffFormatter.setPathFilter(PathFilterGroup.createFromStrings(changedFiles));
+			return diffFormatter.scan(new CanonicalTreeParser(null, reader, headTree), new FileTreeIterator(repository));
+		}
+	}
+
 	private boolean isJavafile(String path) {
 		return path.endsWith(".java");
 	}
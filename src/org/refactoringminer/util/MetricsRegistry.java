@@ -0,0 +1,202 @@
+package org.refactoringminer.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Latency histograms, counters and gauges collected while detecting refactorings.
+ * The library records into {@link #getDefault()}, which can be read programmatically or exported in the Prometheus text format.
+ */
+public class MetricsRegistry {
+	private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+	private static final double[] DEFAULT_BUCKETS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120, 300};
+
+	private final Map<String, Histogram> histograms = new LinkedHashMap<String, Histogram>();
+	private final Map<String, Counter> counters = new LinkedHashMap<String, Counter>();
+	private final Map<String, Gauge> gauges = new LinkedHashMap<String, Gauge>();
+
+	public static MetricsRegistry getDefault() {
+		return DEFAULT;
+	}
+
+	public synchronized Histogram histogram(String name, String help) {
+		Histogram histogram = histograms.get(name);
+		if(histogram == null) {
+			histogram = new Histogram(name, help, DEFAULT_BUCKETS);
+			histograms.put(name, histogram);
+		}
+		return histogram;
+	}
+
+	public synchronized Counter counter(String name, String help) {
+		Counter counter = counters.get(name);
+		if(counter == null) {
+			counter = new Counter(name, help);
+			counters.put(name, counter);
+		}
+		return counter;
+	}
+
+	public synchronized void gauge(String name, String help, LongSupplier value) {
+		gauges.put(name, new Gauge(name, help, value));
+	}
+
+	/**
+	 * Removes the gauge, unless it was registered again with another value.
+	 */
+	public synchronized void removeGauge(String name, LongSupplier value) {
+		Gauge gauge = gauges.get(name);
+		if(gauge != null && gauge.value == value) {
+			gauges.remove(name);
+		}
+	}
+
+	public synchronized Map<String, Histogram> getHistograms() {
+		return Collections.unmodifiableMap(new LinkedHashMap<String, Histogram>(histograms));
+	}
+
+	public synchronized Map<String, Counter> getCounters() {
+		return Collections.unmodifiableMap(new LinkedHashMap<String, Counter>(counters));
+	}
+
+	public synchronized Map<String, Long> getGauges() {
+		Map<String, Long> values = new LinkedHashMap<String, Long>();
+		for(Gauge gauge : gauges.values()) {
+			values.put(gauge.name, gauge.value.getAsLong());
+		}
+		return values;
+	}
+
+	public synchronized String toPrometheus() {
+		StringBuilder sb = new StringBuilder();
+		for(Histogram histogram : histograms.values()) {
+			histogram.toPrometheus(sb);
+		}
+		for(Counter counter : counters.values()) {
+			header(sb, counter.name, counter.help, "counter");
+			sb.append(counter.name).append(" ").append(counter.get()).append("\n");
+		}
+		for(Gauge gauge : gauges.values()) {
+			header(sb, gauge.name, gauge.help, "gauge");
+			sb.append(gauge.name).append(" ").append(gauge.value.getAsLong()).append("\n");
+		}
+		return sb.toString();
+	}
+
+	private static void header(StringBuilder sb, String name, String help, String type) {
+		sb.append("# HELP ").append(name).append(" ").append(help).append("\n");
+		sb.append("# TYPE ").append(name).append(" ").append(type).append("\n");
+	}
+
+	public static class Histogram {
+		private final String name;
+		private final String help;
+		private final double[] buckets;
+		private final LongAdder[] bucketCounts;
+		private final LongAdder count = new LongAdder();
+		private final LongAdder sumNanos = new LongAdder();
+
+		private Histogram(String name, String help, double[] buckets) {
+			this.name = name;
+			this.help = help;
+			this.buckets = buckets;
+			this.bucketCounts = new LongAdder[buckets.length];
+			for(int i=0; i<buckets.length; i++) {
+				bucketCounts[i] = new LongAdder();
+			}
+		}
+
+		/**
+		 * Records the time elapsed since {@code startNanos}, as returned by {@link System#nanoTime()}.
+		 */
+		public void observeSince(long startNanos) {
+			observeNanos(System.nanoTime() - startNanos);
+		}
+
+		public void observeNanos(long nanos) {
+			double seconds = nanos / (double)TimeUnit.SECONDS.toNanos(1);
+			for(int i=0; i<buckets.length; i++) {
+				if(seconds <= buckets[i]) {
+					bucketCounts[i].increment();
+					break;
+				}
+			}
+			count.increment();
+			sumNanos.add(nanos);
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getCount() {
+			return count.sum();
+		}
+
+		public double getSumSeconds() {
+			return sumNanos.sum() / (double)TimeUnit.SECONDS.toNanos(1);
+		}
+
+		/**
+		 * @return The cumulative number of observations less than or equal to each bucket upper bound, in seconds.
+		 */
+		public Map<Double, Long> getBuckets() {
+			Map<Double, Long> cumulativeCounts = new LinkedHashMap<Double, Long>();
+			long cumulativeCount = 0;
+			for(int i=0; i<buckets.length; i++) {
+				cumulativeCount += bucketCounts[i].sum();
+				cumulativeCounts.put(buckets[i], cumulativeCount);
+			}
+			return cumulativeCounts;
+		}
+
+		private void toPrometheus(StringBuilder sb) {
+			header(sb, name, help, "histogram");
+			for(Map.Entry<Double, Long> entry : getBuckets().entrySet()) {
+				sb.append(name).append("_bucket{le=\"").append(entry.getKey()).append("\"} ").append(entry.getValue()).append("\n");
+			}
+			sb.append(name).append("_bucket{le=\"+Inf\"} ").append(getCount()).append("\n");
+			sb.append(name).append("_sum ").append(getSumSeconds()).append("\n");
+			sb.append(name).append("_count ").append(getCount()).append("\n");
+		}
+	}
+
+	public static class Counter {
+		private final String name;
+		private final String help;
+		private final LongAdder value = new LongAdder();
+
+		private Counter(String name, String help) {
+			this.name = name;
+			this.help = help;
+		}
+
+		public void increment() {
+			value.increment();
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long get() {
+			return value.sum();
+		}
+	}
+
+	private static class Gauge {
+		private final String name;
+		private final String help;
+		private final LongSupplier value;
+
+		private Gauge(String name, String help, LongSupplier value) {
+			this.name = name;
+			this.help = help;
+			this.value = value;
+		}
+	}
+}